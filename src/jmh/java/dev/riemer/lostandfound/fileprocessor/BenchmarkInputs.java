@@ -0,0 +1,75 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.dataset.LostItemDataset;
+import dev.riemer.lostandfound.dataset.ManifestWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Generates the synthetic import files of the benchmarks with the dataset generator of the tests. The content only
+ * depends on the number of records, so results of different commits are measured over the same input. The files
+ * contain valid records only, so strict parsing never stops early.
+ */
+final class BenchmarkInputs {
+    private static final long SEED = 42L;
+
+    private BenchmarkInputs() {
+    }
+
+    /**
+     * Builds a text import with the given number of records, in the format of the upload examples.
+     *
+     * @param records the number of LostItems in the text
+     * @return the text
+     * @throws IOException never, the text is written in memory
+     */
+    static String text(final int records) throws IOException {
+        StringWriter text = new StringWriter();
+        manifestWriter().writeText(text, records);
+        return text.toString();
+    }
+
+    /**
+     * Writes a text import with the given number of records to a temporary file.
+     *
+     * @param records the number of LostItems in the file
+     * @return the path of the file, deleted when the JVM exits
+     * @throws IOException thrown when the file could not be written
+     */
+    static Path textFile(final int records) throws IOException {
+        Path file = Files.createTempFile("lostandfound-benchmark-", ".txt");
+        file.toFile().deleteOnExit();
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            manifestWriter().writeText(out, records);
+        }
+        return file;
+    }
+
+    /**
+     * Writes a PDF import with the given number of records to a temporary file.
+     *
+     * @param records the number of LostItems in the file
+     * @return the path of the file, deleted when the JVM exits
+     * @throws IOException thrown when the file could not be written
+     */
+    static Path pdfFile(final int records) throws IOException {
+        Path file = Files.createTempFile("lostandfound-benchmark-", ".pdf");
+        file.toFile().deleteOnExit();
+        manifestWriter().writePdf(file, records);
+        return file;
+    }
+
+    /**
+     * Creates a ManifestWriter over a fresh dataset, so every input starts with the same records.
+     *
+     * @return the ManifestWriter
+     */
+    private static ManifestWriter manifestWriter() {
+        return new ManifestWriter(new LostItemDataset(SEED, 0));
+    }
+}
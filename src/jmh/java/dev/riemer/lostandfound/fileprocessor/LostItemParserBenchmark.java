@@ -0,0 +1,116 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the LostItemParser on in-memory text, without any file IO. Compares the byte scanner used for files with
+ * the Reader based parser used for streams, and with the ParallelLostItemParser used for big files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LostItemParserBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    private static final int CHUNK_SIZE = 1024 * 1024;
+
+    private byte[] text;
+
+    /**
+     * Generates the text once per run.
+     *
+     * @throws IOException never, the text is generated in memory
+     */
+    @Setup
+    public void setUp() throws IOException {
+        text = BenchmarkInputs.text(records).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the text with the LostItemByteScanner.
+     *
+     * @param blackhole consumes the LostItems
+     * @param counters  counts the processed bytes and records
+     */
+    @Benchmark
+    public void parseByteBuffer(final Blackhole blackhole, final ThroughputCounters counters) {
+        LostItemParser.parseLostItems(ByteBuffer.wrap(text)).forEach(lostItem -> {
+            blackhole.consume(lostItem);
+            counters.records++;
+        });
+        counters.bytes += text.length;
+    }
+
+    /**
+     * Parses the text with the LostItemReader, decoding it as UTF-8 first.
+     *
+     * @param blackhole consumes the LostItems
+     * @param counters  counts the processed bytes and records
+     */
+    @Benchmark
+    public void parseReader(final Blackhole blackhole, final ThroughputCounters counters) {
+        InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(text), StandardCharsets.UTF_8);
+        LostItemParser.parseLostItems(reader).forEach(lostItem -> {
+            blackhole.consume(lostItem);
+            counters.records++;
+        });
+        counters.bytes += text.length;
+    }
+
+    /**
+     * Parses the text in chunks of 1MB on the common ForkJoinPool, the default chunk size of TextFileProcessor.
+     *
+     * @param blackhole consumes the LostItems
+     * @param counters  counts the processed bytes and records
+     */
+    @Benchmark
+    public void parseParallel(final Blackhole blackhole, final ThroughputCounters counters) {
+        ParallelLostItemParser.parseLostItems(ByteBuffer.wrap(text), CHUNK_SIZE, ForkJoinPool.commonPool())
+                .forEach(lostItem -> {
+                    blackhole.consume(lostItem);
+                    counters.records++;
+                });
+        counters.bytes += text.length;
+    }
+
+    /**
+     * Parses the text in chunks of 1MB on the common ForkJoinPool into a sink, the path taken by imports of big files.
+     *
+     * @param blackhole consumes the LostItems
+     * @param counters  counts the processed bytes and records
+     * @throws IOException never, the sink accepts every LostItem
+     */
+    @Benchmark
+    public void parseParallelIntoSink(final Blackhole blackhole, final ThroughputCounters counters)
+            throws IOException {
+        ParallelLostItemParser.parseLostItems(ByteBuffer.wrap(text), CHUNK_SIZE, ForkJoinPool.commonPool(),
+                lostItem -> {
+                    blackhole.consume(lostItem);
+                    counters.records++;
+                }, 0);
+        counters.bytes += text.length;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the PdfFileProcessor on a small PDF of a few pages and a large PDF of about a thousand pages. Text
+ * extraction dominates, so the PDFs hold far fewer records than the text benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PdfFileProcessorBenchmark {
+    @Param({"100", "10000"})
+    private int records;
+
+    private final PdfFileProcessor processor = new PdfFileProcessor(
+            new SimpleMeterRegistry(), Runtime.getRuntime().availableProcessors());
+    private Path file;
+    private long fileSize;
+
+    /**
+     * Writes the PDF once per run.
+     *
+     * @throws IOException thrown when the PDF could not be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        file = BenchmarkInputs.pdfFile(records);
+        fileSize = Files.size(file);
+    }
+
+    /**
+     * Extracts the text of the PDF and streams it into a sink.
+     *
+     * @param blackhole consumes the LostItems
+     * @param counters  counts the processed bytes and records
+     * @throws IOException thrown when the PDF could not be read
+     */
+    @Benchmark
+    public void processFile(final Blackhole blackhole, final ThroughputCounters counters) throws IOException {
+        processor.processFile(file, lostItem -> {
+            blackhole.consume(lostItem);
+            counters.records++;
+        });
+        counters.bytes += fileSize;
+    }
+}
@@ -0,0 +1,82 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the TextFileProcessor on text files of the local filesystem. processFile parses mapped regions of at least
+ * the parallel-threshold of 4MB in parallel chunks, which only applies to the 1M records file. processStream always
+ * parses sequentially. LostItemParserBenchmark compares the parallel parser with the sequential one without file IO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextFileProcessorBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    private int records;
+
+    private final TextFileProcessor processor = new TextFileProcessor();
+    private Path file;
+    private long fileSize;
+
+    /**
+     * Writes the text file once per run.
+     *
+     * @throws IOException thrown when the file could not be written
+     */
+    @Setup
+    public void setUp() throws IOException {
+        file = BenchmarkInputs.textFile(records);
+        fileSize = Files.size(file);
+    }
+
+    /**
+     * Streams the file into a sink, the path taken by background imports.
+     *
+     * @param blackhole consumes the LostItems
+     * @param counters  counts the processed bytes and records
+     * @throws IOException thrown when the file could not be read
+     */
+    @Benchmark
+    public void processFile(final Blackhole blackhole, final ThroughputCounters counters) throws IOException {
+        processor.processFile(file, lostItem -> {
+            blackhole.consume(lostItem);
+            counters.records++;
+        });
+        counters.bytes += fileSize;
+    }
+
+    /**
+     * Streams the file through an InputStream, the path taken by decompressed imports.
+     *
+     * @param blackhole consumes the LostItems
+     * @param counters  counts the processed bytes and records
+     * @throws IOException thrown when the file could not be read
+     */
+    @Benchmark
+    public void processStream(final Blackhole blackhole, final ThroughputCounters counters) throws IOException {
+        processor.processStream(Files.newInputStream(file), lostItem -> {
+            blackhole.consume(lostItem);
+            counters.records++;
+        });
+        counters.bytes += fileSize;
+    }
+}
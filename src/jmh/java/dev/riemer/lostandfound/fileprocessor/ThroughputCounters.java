@@ -0,0 +1,34 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the bytes and records processed by a benchmark. JMH reports both as a rate next to ops/s, which makes
+ * results of different input sizes comparable.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ThroughputCounters {
+    /**
+     * The number of input bytes processed, reported as bytes/s.
+     */
+    public long bytes;
+
+    /**
+     * The number of LostItems parsed, reported as records/s.
+     */
+    public long records;
+
+    /**
+     * Resets the counters before every iteration.
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        bytes = 0;
+        records = 0;
+    }
+}
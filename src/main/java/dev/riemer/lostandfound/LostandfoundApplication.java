@@ -2,11 +2,13 @@ package dev.riemer.lostandfound;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry class for our API application.
  */
 @SpringBootApplication
+@EnableScheduling
 public class LostandfoundApplication {
 
     /**
@@ -1,16 +1,25 @@
 package dev.riemer.lostandfound.controller;
 
-import dev.riemer.lostandfound.dto.LostItemAdminDto;
+import dev.riemer.lostandfound.dto.ImportJobDto;
+import dev.riemer.lostandfound.dto.LostItemAdminPageDto;
+import dev.riemer.lostandfound.dto.NewUploadSession;
+import dev.riemer.lostandfound.dto.UploadSessionDto;
 import dev.riemer.lostandfound.dto.UserInfoDto;
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.service.ImportJob;
+import dev.riemer.lostandfound.service.ImportJobService;
+import dev.riemer.lostandfound.service.LostItemClaimService;
 import dev.riemer.lostandfound.service.LostItemService;
-import org.springframework.http.HttpStatus;
+import dev.riemer.lostandfound.service.UploadSession;
+import dev.riemer.lostandfound.service.UploadSessionService;
+import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.io.InputStream;
+import java.net.URI;
 
 /**
  * Controller for Admin endpoints. Protected by the SecurityFilterChain and requires the ADMIN role
@@ -19,41 +28,169 @@ import java.util.stream.Collectors;
 @RestController
 public class AdminController {
     private final LostItemService lostItemService;
+    private final LostItemClaimService lostItemClaimService;
+    private final ImportJobService importJobService;
+    private final UploadSessionService uploadSessionService;
 
     /**
      * Constructor of the AdminController.
      *
-     * @param lostItemService injected LostItemService
+     * @param lostItemService      injected LostItemService
+     * @param lostItemClaimService injected LostItemClaimService
+     * @param importJobService     injected ImportJobService
+     * @param uploadSessionService injected UploadSessionService
      */
-    public AdminController(final LostItemService lostItemService) {
+    public AdminController(
+            final LostItemService lostItemService,
+            final LostItemClaimService lostItemClaimService,
+            final ImportJobService importJobService,
+            final UploadSessionService uploadSessionService
+    ) {
         this.lostItemService = lostItemService;
+        this.lostItemClaimService = lostItemClaimService;
+        this.importJobService = importJobService;
+        this.uploadSessionService = uploadSessionService;
     }
 
     /**
-     * Get all LostItems and their claims info.
+     * Get a page of LostItems and their claims info, in order of id. The page takes two queries however many claims
+     * there are: one for the LostItems and one for all their claims with the usernames.
      *
-     * @return the LostItems with extra Claim info
+     * @param after the next cursor of the previous page, omitted for the first page
+     * @param limit the maximum number of LostItems in the page, capped at lostandfound.lost-items.max-page-size
+     * @return a page of LostItems with extra Claim info
      */
     @GetMapping("lost-item-claims")
-    public ResponseEntity<List<LostItemAdminDto>> getLostItemClaims() {
-        var lostItems = lostItemService.getAllLostItems();
-        var lostItemDTOs = lostItems.stream()
-                .map(LostItemAdminDto::new)
-                .collect(Collectors.toList());
+    public ResponseEntity<LostItemAdminPageDto> getLostItemClaims(
+            final @RequestParam(name = "after", required = false) Long after,
+            final @RequestParam(name = "limit", defaultValue = "100") int limit
+    ) {
+        var page = lostItemService.getLostItems(null, after, limit);
+        var claims = lostItemClaimService.getClaimsByLostItemId(
+                page.lostItems().stream().map(LostItem::getId).toList()
+        );
 
-        return ResponseEntity.ok(lostItemDTOs);
+        return ResponseEntity.ok(new LostItemAdminPageDto(page, claims));
     }
 
     /**
-     * Upload endpoint to add new LostItems in bulk, supports multiple formats registered.
+     * Upload endpoint to add new LostItems in bulk, supports multiple formats registered. The file is imported in the
+     * background, the returned ImportJob can be followed with the imports endpoint. A lenient import skips invalid
+     * records and lists them in the ImportJob, a strict import fails at the first invalid record. A merging import adds
+     * the quantities to the existing LostItems with the same name and Place, instead of inserting new LostItems.
      *
-     * @param file the upload MultipartFile
-     * @return a simple string if successfully
+     * @param file    the upload MultipartFile
+     * @param lenient whether invalid records are skipped, defaults to lostandfound.import.lenient
+     * @param merge   whether LostItems are merged into the existing LostItems, defaults to lostandfound.import.merge
+     * @return 202 Accepted with the queued ImportJob, or 409 Conflict if the same content is imported with other
+     * options
      */
     @PostMapping("upload")
-    public ResponseEntity<?> uploadLostItemsFile(final @RequestParam("file") MultipartFile file) throws IOException {
-        lostItemService.processLostItemsFile(file);
-        return new ResponseEntity<>("File processed successfully.", HttpStatus.OK);
+    public ResponseEntity<ImportJobDto> uploadLostItemsFile(
+            final @RequestParam("file") MultipartFile file,
+            final @RequestParam(name = "lenient", required = false) Boolean lenient,
+            final @RequestParam(name = "merge", required = false) Boolean merge) throws IOException {
+        ImportJob job = importJobService.submit(file, lenient, merge);
+        return ResponseEntity.accepted()
+                .location(URI.create("/admin/imports/" + job.getId()))
+                .body(new ImportJobDto(job));
+    }
+
+    /**
+     * Creates a resumable chunked upload, for files too large to upload in a single request. The chunks are sent to
+     * the returned location, the upload is finished with the finish endpoint.
+     *
+     * @param newUploadSession the name, size and optional content-type of the file
+     * @return 201 Created with the empty upload
+     * @throws IOException thrown when the upload could not be spooled
+     */
+    @PostMapping("uploads")
+    public ResponseEntity<UploadSessionDto> createUpload(final @Valid @RequestBody NewUploadSession newUploadSession)
+            throws IOException {
+        UploadSession session = uploadSessionService.create(
+                newUploadSession.getFileName(), newUploadSession.getContentType(), newUploadSession.getSize()
+        );
+        return ResponseEntity.created(URI.create("/admin/uploads/" + session.getId()))
+                .body(new UploadSessionDto(session));
+    }
+
+    /**
+     * Get the received ranges of a chunked upload, to resume it after a failure.
+     *
+     * @param id the id of the upload
+     * @return the upload
+     */
+    @GetMapping("uploads/{id}")
+    public ResponseEntity<UploadSessionDto> getUpload(final @PathVariable String id) {
+        UploadSession session = uploadSessionService.findById(id).orElseThrow();
+        return ResponseEntity.ok(new UploadSessionDto(session));
+    }
+
+    /**
+     * Receives a single chunk of a chunked upload as raw request body. Chunks can be sent in any order and in
+     * parallel, a chunk which failed is sent again.
+     *
+     * @param id     the id of the upload
+     * @param offset the offset of the chunk in the file
+     * @param chunk  the content of the chunk
+     * @return the upload with the chunk received
+     * @throws IOException thrown when the chunk could not be written
+     */
+    @PutMapping("uploads/{id}")
+    public ResponseEntity<UploadSessionDto> uploadChunk(
+            final @PathVariable String id,
+            final @RequestParam("offset") long offset,
+            final InputStream chunk) throws IOException {
+        UploadSession session = uploadSessionService.writeChunk(id, offset, chunk);
+        return ResponseEntity.ok(new UploadSessionDto(session));
+    }
+
+    /**
+     * Finishes a chunked upload once all chunks are received, and imports the file in the background like the upload
+     * endpoint.
+     *
+     * @param id      the id of the upload
+     * @param sha256  the hex encoded SHA-256 hash of the whole file, verified before the import
+     * @param lenient whether invalid records are skipped, defaults to lostandfound.import.lenient
+     * @param merge   whether LostItems are merged into the existing LostItems, defaults to lostandfound.import.merge
+     * @return 202 Accepted with the queued ImportJob
+     * @throws IOException thrown when the upload could not be verified
+     */
+    @PostMapping("uploads/{id}/finish")
+    public ResponseEntity<ImportJobDto> finishUpload(
+            final @PathVariable String id,
+            final @RequestParam("sha256") String sha256,
+            final @RequestParam(name = "lenient", required = false) Boolean lenient,
+            final @RequestParam(name = "merge", required = false) Boolean merge) throws IOException {
+        ImportJob job = uploadSessionService.finish(id, sha256, lenient, merge);
+        return ResponseEntity.accepted()
+                .location(URI.create("/admin/imports/" + job.getId()))
+                .body(new ImportJobDto(job));
+    }
+
+    /**
+     * Aborts a chunked upload and discards the received chunks.
+     *
+     * @param id the id of the upload
+     * @return 204 No Content
+     * @throws IOException thrown when the received chunks could not be deleted
+     */
+    @DeleteMapping("uploads/{id}")
+    public ResponseEntity<Void> abortUpload(final @PathVariable String id) throws IOException {
+        uploadSessionService.abort(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get the state and progress of a bulk import.
+     *
+     * @param id the id of the ImportJob returned by the upload endpoint
+     * @return the ImportJob
+     */
+    @GetMapping("imports/{id}")
+    public ResponseEntity<ImportJobDto> getImportJob(final @PathVariable String id) {
+        ImportJob job = importJobService.findById(id).orElseThrow();
+        return ResponseEntity.ok(new ImportJobDto(job));
     }
 
     /**
@@ -1,18 +1,19 @@
 package dev.riemer.lostandfound.controller;
 
-import dev.riemer.lostandfound.dto.LostItemDto;
 import dev.riemer.lostandfound.dto.NewLostItemClaim;
+import dev.riemer.lostandfound.service.LostItemCatalogService;
 import dev.riemer.lostandfound.service.LostItemClaimService;
 import dev.riemer.lostandfound.service.LostItemService;
+import dev.riemer.lostandfound.service.SerializedResponse;
 import dev.riemer.lostandfound.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * LostItemController; allows normal users to list all current LostItems and claim them.
@@ -20,39 +21,71 @@ import java.util.stream.Collectors;
 @RequestMapping("/lost-items")
 @RestController
 public class LostItemController {
+    private static final String GZIP = "gzip";
+
     private final LostItemService lostItemService;
     private final UserService userService;
     private final LostItemClaimService lostItemClaimService;
+    private final LostItemCatalogService lostItemCatalogService;
 
     /**
      * Constructor of LostItemController.
      *
-     * @param lostItemService      injected LostItemService
-     * @param userService          injected UserService
-     * @param lostItemClaimService injected LostItemClaimService
+     * @param lostItemService        injected LostItemService
+     * @param userService            injected UserService
+     * @param lostItemClaimService   injected LostItemClaimService
+     * @param lostItemCatalogService injected LostItemCatalogService
      */
     public LostItemController(
             final LostItemService lostItemService,
             final UserService userService,
-            final LostItemClaimService lostItemClaimService
+            final LostItemClaimService lostItemClaimService,
+            final LostItemCatalogService lostItemCatalogService
     ) {
         this.lostItemService = lostItemService;
         this.userService = userService;
         this.lostItemClaimService = lostItemClaimService;
+        this.lostItemCatalogService = lostItemCatalogService;
     }
 
     /**
-     * Get endpoint which returns all available LostItems with their name, place and quantity.
+     * Get endpoint which returns a page of the available LostItems with their name, place and quantity, in order of
+     * id. The next page is requested with the next cursor of the response as after parameter. Pages are served from
+     * the catalog cache, so they may lag shortly behind imports and claims. The page is sent as pre-serialized JSON,
+     * gzip compressed if the client accepts it.
      *
-     * @return the available LostItems
+     * @param place          optional name of a Place, to only return the LostItems at that Place
+     * @param after          the next cursor of the previous page, omitted for the first page
+     * @param limit          the maximum number of LostItems in the page, capped at
+     *                       lostandfound.lost-items.max-page-size
+     * @param acceptEncoding the Accept-Encoding header of the request
+     * @return a LostItemPageDto with a page of the available LostItems, as JSON
      */
     @GetMapping
-    public ResponseEntity<List<LostItemDto>> getLostItems() {
-        var lostItems = lostItemService.getAllLostItems();
-        var lostItemDTOs = lostItems.stream().map(LostItemDto::new).collect(Collectors.toList());
+    public ResponseEntity<byte[]> getLostItems(
+            final @RequestParam(name = "place", required = false) String place,
+            final @RequestParam(name = "after", required = false) Long after,
+            final @RequestParam(name = "limit", defaultValue = "100") int limit,
+            final @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        SerializedResponse page = lostItemCatalogService.getCatalogPage(place, after, limit);
+        boolean gzip = page.gzip() != null && acceptsGzip(acceptEncoding);
 
-        return ResponseEntity.ok(lostItemDTOs);
+        return jsonResponse(gzip).body(gzip ? page.gzip() : page.json());
+    }
 
+    /**
+     * Get endpoint which streams all available LostItems as one JSON array, for clients which need the whole catalog.
+     * The LostItems are written while they are read from the database, so the catalog is never buffered as a whole.
+     * Unlike the pages, the catalog is not served from the catalog cache, its size is not bounded.
+     *
+     * @return the JSON array of LostItems
+     */
+    @GetMapping("catalog")
+    public ResponseEntity<StreamingResponseBody> getCatalog() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(lostItemCatalogService::writeCatalog);
     }
 
     /**
@@ -73,4 +106,65 @@ public class LostItemController {
 
         return ResponseEntity.ok("Claimed");
     }
+
+    /**
+     * Starts a JSON response which varies by Accept-Encoding.
+     *
+     * @param gzip whether the body is gzip compressed
+     * @return the response builder
+     */
+    private static ResponseEntity.BodyBuilder jsonResponse(final boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return gzip ? response.header(HttpHeaders.CONTENT_ENCODING, GZIP) : response;
+    }
+
+    /**
+     * Checks whether the client accepts gzip compressed responses. An explicit gzip coding takes precedence over the
+     * wildcard, a quality of 0 rejects the coding.
+     *
+     * @param acceptEncoding the Accept-Encoding header, may be null
+     * @return true if gzip is accepted
+     */
+    private static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    accepted = isPositive(parameter.substring(2));
+                }
+            }
+
+            if (GZIP.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name)) {
+                return accepted;
+            }
+            if ("*".equals(name)) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    /**
+     * Checks whether a quality value is above 0.
+     *
+     * @param quality the quality value of an Accept-Encoding coding
+     * @return true if the quality is a positive number
+     */
+    private static boolean isPositive(final String quality) {
+        try {
+            return Double.parseDouble(quality.trim()) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
 }
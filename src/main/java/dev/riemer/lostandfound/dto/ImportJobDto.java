@@ -0,0 +1,52 @@
+package dev.riemer.lostandfound.dto;
+
+import dev.riemer.lostandfound.service.ImportJob;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO with the state and progress of a bulk import.
+ */
+@Data
+@NoArgsConstructor
+public class ImportJobDto {
+    private String id;
+    private String fileName;
+    private ImportJob.State state;
+    private long recordsParsed;
+    private long recordsSaved;
+    private long recordsRejected;
+    private List<ImportJob.RejectedRecord> rejectedRecords;
+    private double recordsPerSecond;
+    private String error;
+    private boolean duplicate;
+    private Instant originalImportedAt;
+    private Instant createdAt;
+    private Instant startedAt;
+    private Instant finishedAt;
+
+    /**
+     * Constructs the DTO with a snapshot of an ImportJob.
+     *
+     * @param job the ImportJob to report
+     */
+    public ImportJobDto(final ImportJob job) {
+        this.id = job.getId();
+        this.fileName = job.getFileName();
+        this.state = job.getState();
+        this.recordsParsed = job.getRecordsParsed();
+        this.recordsSaved = job.getRecordsSaved();
+        this.recordsRejected = job.getRecordsRejected();
+        this.rejectedRecords = job.getRejectedRecords();
+        this.recordsPerSecond = job.getRecordsPerSecond();
+        this.error = job.getError();
+        this.duplicate = job.isDuplicate();
+        this.originalImportedAt = job.getOriginalImportedAt();
+        this.createdAt = job.getCreatedAt();
+        this.startedAt = job.getStartedAt();
+        this.finishedAt = job.getFinishedAt();
+    }
+}
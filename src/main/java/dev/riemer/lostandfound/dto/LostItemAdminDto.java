@@ -1,11 +1,10 @@
 package dev.riemer.lostandfound.dto;
 
 import dev.riemer.lostandfound.model.LostItem;
-import dev.riemer.lostandfound.model.LostItemClaim;
+import dev.riemer.lostandfound.repository.LostItemClaimRepository;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -17,17 +16,16 @@ public class LostItemAdminDto extends LostItemDto {
     private List<LostItemClaimDto> claims;
 
     /**
-     * Constructs the DTO with an existing LostItem Entity.
+     * Constructs the DTO with an existing LostItem Entity and its claims. The claims are passed in instead of read
+     * from the LostItem, which would load them and their Users one LostItem at a time.
      *
      * @param lostItem the existing LostItem Entity
+     * @param claims   the claims on the LostItem
      */
-    public LostItemAdminDto(final LostItem lostItem) {
+    public LostItemAdminDto(final LostItem lostItem, final List<LostItemClaimRepository.ClaimSummary> claims) {
         super(lostItem);
 
-        claims = new ArrayList<>();
-        for (LostItemClaim lostItemClaim : lostItem.getClaims()) {
-            claims.add(new LostItemClaimDto(lostItemClaim));
-        }
+        this.claims = claims.stream().map(LostItemClaimDto::new).toList();
     }
 
     /**
@@ -40,12 +38,12 @@ public class LostItemAdminDto extends LostItemDto {
         private int quantity;
 
         /**
-         * Constructs the DTO with an existing LostItemClaim Entity.
+         * Constructs the DTO with a claim and the username of its User.
          *
-         * @param claim the existing LostItemClaim Entity
+         * @param claim the claim on the LostItem
          */
-        public LostItemClaimDto(final LostItemClaim claim) {
-            this.username = claim.getUser().getUsername();
+        public LostItemClaimDto(final LostItemClaimRepository.ClaimSummary claim) {
+            this.username = claim.getUsername();
             this.quantity = claim.getQuantity();
         }
     }
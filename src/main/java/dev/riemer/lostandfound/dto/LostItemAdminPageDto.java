@@ -0,0 +1,37 @@
+package dev.riemer.lostandfound.dto;
+
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.repository.LostItemClaimRepository;
+import dev.riemer.lostandfound.service.LostItemService;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO for a page of LostItems with their claims, for Admins. The next cursor is passed as the after parameter to get
+ * the next page, it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+public class LostItemAdminPageDto {
+    private List<LostItemAdminDto> items;
+    private Long next;
+
+    /**
+     * Constructs the DTO with a page of LostItems and the claims on them.
+     *
+     * @param page   the page of LostItem Entities
+     * @param claims the claims per LostItem id
+     */
+    public LostItemAdminPageDto(
+            final LostItemService.Page<LostItem> page,
+            final Map<Long, List<LostItemClaimRepository.ClaimSummary>> claims
+    ) {
+        this.items = page.lostItems().stream()
+                .map(lostItem -> new LostItemAdminDto(lostItem, claims.getOrDefault(lostItem.getId(), List.of())))
+                .toList();
+        this.next = page.next();
+    }
+}
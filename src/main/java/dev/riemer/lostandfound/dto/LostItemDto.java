@@ -24,6 +24,6 @@ public class LostItemDto {
         this.id = lostItem.getId();
         this.itemName = lostItem.getItemName();
         this.quantity = lostItem.getQuantity();
-        this.place = lostItem.getPlace();
+        this.place = lostItem.getPlace().getName();
     }
 }
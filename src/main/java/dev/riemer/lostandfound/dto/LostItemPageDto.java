@@ -0,0 +1,28 @@
+package dev.riemer.lostandfound.dto;
+
+import dev.riemer.lostandfound.service.LostItemService;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a page of LostItems. The next cursor is passed as the after parameter to get the next page, it is null on
+ * the last page.
+ */
+@Data
+@NoArgsConstructor
+public class LostItemPageDto {
+    private List<LostItemDto> items;
+    private Long next;
+
+    /**
+     * Constructs the DTO with a page of LostItems.
+     *
+     * @param page the page of LostItems
+     */
+    public LostItemPageDto(final LostItemService.Page<LostItemDto> page) {
+        this.items = page.lostItems();
+        this.next = page.next();
+    }
+}
@@ -0,0 +1,21 @@
+package dev.riemer.lostandfound.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+/**
+ * Input DTO for creating a chunked upload.
+ */
+@Data
+public class NewUploadSession {
+    @NotBlank(message = "File name must not be blank.")
+    private String fileName;
+
+    private String contentType;
+
+    @NotNull(message = "Size must not be null.")
+    @Min(value = 0, message = "Size must not be negative.")
+    private Long size;
+}
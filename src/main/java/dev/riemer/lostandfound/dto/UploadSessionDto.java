@@ -0,0 +1,40 @@
+package dev.riemer.lostandfound.dto;
+
+import dev.riemer.lostandfound.service.UploadSession;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DTO with the received ranges of a chunked upload, a client resumes an upload by sending the missing ranges.
+ */
+@Data
+@NoArgsConstructor
+public class UploadSessionDto {
+    private String id;
+    private String fileName;
+    private long size;
+    private long bytesReceived;
+    private List<UploadSession.Range> receivedRanges;
+    private boolean complete;
+    private Instant createdAt;
+    private Instant lastActivityAt;
+
+    /**
+     * Constructs the DTO with a snapshot of an UploadSession.
+     *
+     * @param session the UploadSession to report
+     */
+    public UploadSessionDto(final UploadSession session) {
+        this.id = session.getId();
+        this.fileName = session.getFileName();
+        this.size = session.getSize();
+        this.receivedRanges = session.getReceivedRanges();
+        this.bytesReceived = receivedRanges.stream().mapToLong(range -> range.end() - range.start()).sum();
+        this.complete = bytesReceived == size;
+        this.createdAt = session.getCreatedAt();
+        this.lastActivityAt = session.getLastActivityAt();
+    }
+}
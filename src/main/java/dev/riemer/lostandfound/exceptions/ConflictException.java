@@ -0,0 +1,16 @@
+package dev.riemer.lostandfound.exceptions;
+
+/**
+ * Thrown when a request conflicts with work which is already underway, e.g. an upload of content which is imported
+ * with other options. Returned as 409 Conflict.
+ */
+public class ConflictException extends RuntimeException {
+    /**
+     * Constructs the exception for a conflicting request.
+     *
+     * @param message what the request conflicts with, returned to the client
+     */
+    public ConflictException(final String message) {
+        super(message);
+    }
+}
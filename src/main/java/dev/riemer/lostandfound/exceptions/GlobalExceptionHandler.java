@@ -60,6 +60,16 @@ public class GlobalExceptionHandler {
                 pd.setProperty("description", "The resource could not be found");
                 yield pd;
             }
+            case InvalidRequestException e -> {
+                ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+                pd.setProperty("description", "The request is invalid");
+                yield pd;
+            }
+            case ConflictException e -> {
+                ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+                pd.setProperty("description", "The request conflicts with an earlier request");
+                yield pd;
+            }
             case MethodArgumentNotValidException e -> {
                 ProblemDetail pd = ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
 
@@ -0,0 +1,16 @@
+package dev.riemer.lostandfound.exceptions;
+
+/**
+ * Thrown when a request cannot be served as sent and the client has to correct it, e.g. a chunk outside of its upload.
+ * Returned as 400 Bad Request, unlike IllegalArgumentException which signals a bug and stays an internal error.
+ */
+public class InvalidRequestException extends RuntimeException {
+    /**
+     * Constructs the exception for an invalid request.
+     *
+     * @param message what is wrong with the request, returned to the client
+     */
+    public InvalidRequestException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,280 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Registers a FileProcessor for gzip files and zip archives. The content is decompressed while it is streamed into
+ * the FileProcessor of the compressed file, which is looked up by file name and sniffed content. A gzip file named
+ * "items.txt.gz" is processed as text, every entry of a zip archive is processed on its own in archive order. Nothing
+ * is inflated into memory as a whole.
+ * <p>
+ * A small compressed file can inflate to far more data than was uploaded. At most max-decompressed-bytes are inflated
+ * per file, summed over all entries, and a zip archive may hold at most max-archive-entries entries.
+ */
+@Component
+public class CompressedFileProcessor implements FileProcessor {
+    private static final int BUFFER_SIZE = 65536;
+    private static final Set<String> GZIP_TYPES = Set.of(ContentTypes.GZIP, "application/x-gzip");
+    private static final Set<String> ZIP_TYPES = Set.of("application/zip", "application/x-zip-compressed");
+    private static final DataSize DEFAULT_MAX_DECOMPRESSED_BYTES = DataSize.ofGigabytes(20);
+    private static final int DEFAULT_MAX_ARCHIVE_ENTRIES = 1000;
+
+    private final ObjectProvider<FileProcessorFactory> fileProcessorFactory;
+
+    @Value("${lostandfound.import.max-decompressed-bytes:20GB}")
+    private DataSize maxDecompressedBytes = DEFAULT_MAX_DECOMPRESSED_BYTES;
+
+    @Value("${lostandfound.import.max-archive-entries:1000}")
+    private int maxArchiveEntries = DEFAULT_MAX_ARCHIVE_ENTRIES;
+
+    /**
+     * Constructor of CompressedFileProcessor. The factory is looked up lazily, because it contains this processor too.
+     *
+     * @param fileProcessorFactory injected FileProcessorFactory provider
+     */
+    public CompressedFileProcessor(final ObjectProvider<FileProcessorFactory> fileProcessorFactory) {
+        this.fileProcessorFactory = fileProcessorFactory;
+    }
+
+    /**
+     * This Processor supports gzip and zip files.
+     *
+     * @param contentType MIME type of the file to parse
+     * @return returns true if the processor can parse it
+     */
+    @Override
+    public boolean supports(final String contentType) {
+        return GZIP_TYPES.contains(contentType) || ZIP_TYPES.contains(contentType);
+    }
+
+    /**
+     * Processes a compressed upload, returning the LostItems of all compressed files in a List.
+     *
+     * @param file the MultipartFile to process
+     * @return a List of LostItems
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public List<LostItem> processFile(final MultipartFile file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        processCompressed(file.getInputStream(), file.getOriginalFilename(), lostItems::add);
+        return lostItems;
+    }
+
+    /**
+     * Processes a compressed file on the local filesystem, returning the LostItems of all compressed files in a List.
+     *
+     * @param file the path of the file to process
+     * @return a List of LostItems
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public List<LostItem> processFile(final Path file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        processFile(file, lostItems::add);
+        return lostItems;
+    }
+
+    /**
+     * Streams the compressed files of a gzip file or zip archive on the local filesystem into the sink.
+     *
+     * @param file the path of the file to process
+     * @param sink receives the LostItems in archive order
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink) throws IOException {
+        processCompressed(Files.newInputStream(file), file.getFileName().toString(), sink);
+    }
+
+    /**
+     * Streams the compressed files of a gzip file or zip archive on the local filesystem into the sink, hashing the
+     * compressed bytes while they are read. The central directory at the end of a zip archive is not needed for the
+     * entries, it is hashed afterward.
+     *
+     * @param file   the path of the file to process
+     * @param sink   receives the LostItems in archive order
+     * @param digest receives the whole compressed file, in order
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink, final MessageDigest digest) throws IOException {
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            processCompressed(StreamUtils.nonClosing(inputStream), file.getFileName().toString(), sink);
+            StreamUtils.drain(inputStream);
+        }
+    }
+
+    /**
+     * Decompresses the stream and hands the content to the FileProcessor of every compressed file. Gzip and zip are
+     * told apart by their signature, any other content and archives without a file to import are rejected. The
+     * InputStream is closed afterward.
+     *
+     * @param inputStream the compressed content
+     * @param fileName    the name of the compressed file, used to find the type of a gzip file
+     * @param sink        receives the LostItems in archive order
+     * @throws IOException thrown when the file is invalid, a ZipException when it is neither gzip nor zip, has no file
+     *                     to import, or exceeds max-decompressed-bytes or max-archive-entries
+     */
+    private void processCompressed(
+            final InputStream inputStream, final String fileName, final LostItemSink sink) throws IOException {
+        try (InputStream buffered = new BufferedInputStream(inputStream, BUFFER_SIZE)) {
+            String contentType = ContentSniffer.sniff(buffered);
+            if (ContentTypes.GZIP.equals(contentType)) {
+                String innerName = fileName == null ? null : fileName.replaceFirst("(?i)\\.gz$", "");
+                processEntry(limit(new GZIPInputStream(buffered, BUFFER_SIZE), fileName), innerName, sink);
+                return;
+            }
+            if (!"application/zip".equals(contentType)) {
+                throw new ZipException("Not a gzip file or zip archive: " + fileName);
+            }
+
+            ZipInputStream zip = new ZipInputStream(buffered);
+            // Only the inflated entry content passes the limit, the entry headers are read from the archive directly
+            InputStream limited = limit(zip, fileName);
+            ZipEntry entry;
+            int entries = 0;
+            int processed = 0;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (++entries > maxArchiveEntries) {
+                    throw new ZipException("Zip archive contains more than " + maxArchiveEntries + " entries: "
+                            + fileName);
+                }
+                if (!entry.isDirectory() && !isMetadata(entry.getName())) {
+                    // The processors close their stream, which must not close the archive
+                    processEntry(StreamUtils.nonClosing(limited), entry.getName(), sink);
+                    processed++;
+                }
+                // The next entry inflates whatever is left of this one, so it is read through the limit as well
+                StreamUtils.drain(limited);
+            }
+            if (processed == 0) {
+                throw new ZipException("Zip archive contains no file to import: " + fileName);
+            }
+        }
+    }
+
+    /**
+     * Processes a single decompressed file with the FileProcessor matching its name and sniffed content. The content
+     * is buffered, so sniffing does not consume it.
+     *
+     * @param content  the decompressed content
+     * @param fileName the name of the decompressed file
+     * @param sink     receives the LostItems
+     * @throws IOException thrown when the file is invalid
+     */
+    private void processEntry(final InputStream content, final String fileName, final LostItemSink sink)
+            throws IOException {
+        InputStream buffered = new BufferedInputStream(content, BUFFER_SIZE);
+        String contentType = ContentTypes.fromFileName(fileName);
+        FileProcessor processor = fileProcessorFactory.getObject().getProcessor(contentType, buffered);
+        if (processor == this) {
+            throw new IllegalArgumentException("Nested archives are not supported: " + fileName);
+        }
+        processor.processStream(buffered, sink);
+    }
+
+    /**
+     * Wraps the inflated content, so reading beyond max-decompressed-bytes fails instead of inflating without bound.
+     *
+     * @param inflated the decompressed content
+     * @param fileName the name of the compressed file, for the error message
+     * @return the limited content
+     */
+    private InputStream limit(final InputStream inflated, final String fileName) {
+        return new DecompressedSizeLimit(inflated, maxDecompressedBytes.toBytes(), fileName);
+    }
+
+    /**
+     * Checks whether a zip entry is metadata added by the archiver instead of a file to import.
+     *
+     * @param entryName the name of the entry
+     * @return true for hidden files and macOS resource forks
+     */
+    private static boolean isMetadata(final String entryName) {
+        String name = entryName.substring(entryName.lastIndexOf('/') + 1);
+        return name.startsWith(".") || entryName.startsWith("__MACOSX/");
+    }
+
+    /**
+     * Counts the bytes read from the decompressed content and throws a ZipException once the limit is exceeded.
+     */
+    private static final class DecompressedSizeLimit extends FilterInputStream {
+        private final long maxBytes;
+        private final String fileName;
+        private long bytesRead;
+
+        /**
+         * Constructs the limit on top of the decompressed content.
+         *
+         * @param in       the decompressed content
+         * @param maxBytes the maximum number of bytes which may be read
+         * @param fileName the name of the compressed file, for the error message
+         */
+        DecompressedSizeLimit(final InputStream in, final long maxBytes, final String fileName) {
+            super(in);
+            this.maxBytes = maxBytes;
+            this.fileName = fileName;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        /**
+         * Adds the read bytes to the total.
+         *
+         * @param bytes the number of bytes read
+         * @throws ZipException thrown when more than maxBytes are read
+         */
+        private void count(final long bytes) throws ZipException {
+            bytesRead += bytes;
+            if (bytesRead > maxBytes) {
+                throw new ZipException("Decompressed content exceeds " + maxBytes + " bytes: " + fileName);
+            }
+        }
+    }
+}
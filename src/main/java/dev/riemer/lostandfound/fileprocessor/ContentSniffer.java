@@ -0,0 +1,166 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Detects the content-type of an import file from its first bytes, because the content-type sent by clients is often
+ * missing or generic. Recognizes the PDF, gzip and zip signatures, and tells the supported text formats apart when the
+ * head of the file is valid UTF-8 text.
+ */
+public final class ContentSniffer {
+    /**
+     * The number of bytes inspected at the start of a file.
+     */
+    public static final int SNIFF_LENGTH = 4096;
+
+    /**
+     * Content-types which are detected by their signature. These are trusted above the content-type sent by a client.
+     */
+    public static final Set<String> SIGNATURE_TYPES = Set.of("application/pdf", ContentTypes.GZIP, "application/zip");
+
+    private static final byte[] PDF_SIGNATURE = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] GZIP_SIGNATURE = {0x1F, (byte) 0x8B};
+    private static final byte[] ZIP_SIGNATURE = {'P', 'K', 0x03, 0x04};
+    private static final byte[] EMPTY_ZIP_SIGNATURE = {'P', 'K', 0x05, 0x06};
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final String ITEM_NAME_PREFIX = "itemname:";
+    private static final int BYTE_MASK = 0xFF;
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int CONTINUATION_MASK = 0xC0;
+    private static final int CONTINUATION_BITS = 0x80;
+    private static final int TWO_BYTE_LEAD = 0xC2;
+    private static final int THREE_BYTE_LEAD = 0xE0;
+    private static final int FOUR_BYTE_LEAD = 0xF0;
+    private static final int INVALID_LEAD = 0xF5;
+    private static final int DELETE = 0x7F;
+    private static final int FOUR_BYTE_CONTINUATIONS = 3;
+
+    private ContentSniffer() {
+    }
+
+    /**
+     * Sniffs the content-type from the start of the stream without consuming it. The stream is marked, read up to
+     * SNIFF_LENGTH bytes and reset, so it can still be processed from the start afterward.
+     *
+     * @param inputStream the stream to sniff, must support mark and reset
+     * @return the detected content-type, or null if it is unknown
+     * @throws IOException thrown when the stream could not be read
+     */
+    public static String sniff(final InputStream inputStream) throws IOException {
+        if (!inputStream.markSupported()) {
+            throw new IllegalArgumentException("Sniffing requires a stream which supports mark and reset");
+        }
+
+        inputStream.mark(SNIFF_LENGTH);
+        try {
+            byte[] head = inputStream.readNBytes(SNIFF_LENGTH);
+            return sniff(head, head.length);
+        } finally {
+            inputStream.reset();
+        }
+    }
+
+    /**
+     * Sniffs the content-type from the first bytes of a file.
+     *
+     * @param head   the first bytes of the file
+     * @param length the number of valid bytes in head
+     * @return the detected content-type, or null if it is unknown
+     */
+    public static String sniff(final byte[] head, final int length) {
+        if (startsWith(head, length, PDF_SIGNATURE)) {
+            return "application/pdf";
+        }
+        if (startsWith(head, length, GZIP_SIGNATURE)) {
+            return ContentTypes.GZIP;
+        }
+        if (startsWith(head, length, ZIP_SIGNATURE) || startsWith(head, length, EMPTY_ZIP_SIGNATURE)) {
+            return "application/zip";
+        }
+        if (length == 0 || !isText(head, length)) {
+            return null;
+        }
+
+        int offset = startsWith(head, length, UTF8_BOM) ? UTF8_BOM.length : 0;
+        String text = new String(head, offset, length - offset, StandardCharsets.UTF_8).stripLeading();
+        String firstLine = text.lines().findFirst().orElse("");
+
+        if (firstLine.toLowerCase().startsWith(ITEM_NAME_PREFIX)) {
+            return "text/plain";
+        }
+        if (firstLine.startsWith("{")) {
+            return ContentTypes.NDJSON;
+        }
+        if (firstLine.indexOf(',') >= 0 || firstLine.indexOf(';') >= 0) {
+            return "text/csv";
+        }
+        return "text/plain";
+    }
+
+    /**
+     * Checks whether the bytes are UTF-8 text without control characters. A multibyte sequence cut off at the end is
+     * allowed, as the head usually ends in the middle of the file.
+     *
+     * @param head   the bytes to check
+     * @param length the number of valid bytes in head
+     * @return true if the bytes look like text
+     */
+    private static boolean isText(final byte[] head, final int length) {
+        int i = 0;
+        while (i < length) {
+            int b = head[i] & BYTE_MASK;
+            if (b < ASCII_LIMIT) {
+                if ((b < ' ' && b != '\t' && b != '\n' && b != '\r' && b != '\f') || b == DELETE) {
+                    return false;
+                }
+                i++;
+                continue;
+            }
+
+            int continuationBytes;
+            if (b < TWO_BYTE_LEAD || b >= INVALID_LEAD) {
+                return false;
+            } else if (b < THREE_BYTE_LEAD) {
+                continuationBytes = 1;
+            } else if (b < FOUR_BYTE_LEAD) {
+                continuationBytes = 2;
+            } else {
+                continuationBytes = FOUR_BYTE_CONTINUATIONS;
+            }
+
+            for (int j = 1; j <= continuationBytes; j++) {
+                if (i + j >= length) {
+                    return true;
+                }
+                if ((head[i + j] & CONTINUATION_MASK) != CONTINUATION_BITS) {
+                    return false;
+                }
+            }
+            i += continuationBytes + 1;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the bytes start with the given signature.
+     *
+     * @param head      the bytes to check
+     * @param length    the number of valid bytes in head
+     * @param signature the expected first bytes
+     * @return true if head starts with the signature
+     */
+    private static boolean startsWith(final byte[] head, final int length, final byte[] signature) {
+        if (length < signature.length) {
+            return false;
+        }
+        for (int i = 0; i < signature.length; i++) {
+            if (head[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+/**
+ * Helper class to derive the content-type of an import file from its name, for files which do not come with one
+ * (files in the drop directory and entries of archives).
+ */
+public final class ContentTypes {
+    /**
+     * Content-type of gzip compressed files.
+     */
+    public static final String GZIP = "application/gzip";
+
+    /**
+     * Content-type of newline-delimited JSON files.
+     */
+    public static final String NDJSON = "application/x-ndjson";
+
+    private ContentTypes() {
+    }
+
+    /**
+     * Derives the content-type from the file extension. Besides the mime.types known by Spring, also recognizes
+     * ".ndjson" and ".gz" which Spring does not register.
+     *
+     * @param fileName the name of the file, may be null
+     * @return the content-type, or null if the extension is unknown
+     */
+    public static String fromFileName(final String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        String lowerCaseName = fileName.toLowerCase();
+        if (lowerCaseName.endsWith(".ndjson")) {
+            return NDJSON;
+        }
+        if (lowerCaseName.endsWith(".gz")) {
+            return GZIP;
+        }
+        return MediaTypeFactory.getMediaType(fileName)
+                .map(MediaType::toString)
+                .orElse(null);
+    }
+}
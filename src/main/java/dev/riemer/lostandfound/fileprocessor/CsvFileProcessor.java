@@ -0,0 +1,106 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers a CSV FileProcessor for partner feeds. Streams the file as UTF-8 through the LostItemCsvReader, the header
+ * names of the ItemName, Quantity and Place columns are configurable.
+ */
+@Component
+public class CsvFileProcessor implements FileProcessor {
+    @Value("${lostandfound.import.csv.delimiter:,}")
+    private char delimiter = ',';
+
+    @Value("${lostandfound.import.csv.item-name-column:ItemName}")
+    private String itemNameColumn = "ItemName";
+
+    @Value("${lostandfound.import.csv.quantity-column:Quantity}")
+    private String quantityColumn = "Quantity";
+
+    @Value("${lostandfound.import.csv.place-column:Place}")
+    private String placeColumn = "Place";
+
+    /**
+     * This Processor supports CSV files.
+     *
+     * @param contentType MIME type of the file to parse
+     * @return returns true if the processor can parse it
+     */
+    @Override
+    public boolean supports(final String contentType) {
+        return "text/csv".equals(contentType);
+    }
+
+    /**
+     * Processes a CSV file, returning the LostItems in a List.
+     *
+     * @param file the MultipartFile to process
+     * @return a List of LostItems
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public List<LostItem> processFile(final MultipartFile file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        processStream(file.getInputStream(), lostItems::add);
+        return lostItems;
+    }
+
+    /**
+     * Processes a CSV file on the local filesystem, returning the LostItems in a List.
+     *
+     * @param file the path of the file to process
+     * @return a List of LostItems
+     * @throws IOException thrown when the file could not be read
+     */
+    @Override
+    public List<LostItem> processFile(final Path file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        processFile(file, lostItems::add);
+        return lostItems;
+    }
+
+    /**
+     * Streams a CSV file on the local filesystem into the sink, one row at a time.
+     *
+     * @param file the path of the file to process
+     * @param sink receives the LostItems in file order
+     * @throws IOException thrown when the file could not be read
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink) throws IOException {
+        processStream(Files.newInputStream(file), sink);
+    }
+
+    /**
+     * Parses the UTF-8 encoded CSV and emits every row as a LostItem, invalid rows are rejected through the sink. The
+     * InputStream is closed afterward.
+     *
+     * @param inputStream the CSV to parse
+     * @param sink        receives the LostItems in file order
+     * @throws IOException thrown when the CSV could not be read
+     */
+    @Override
+    public void processStream(final InputStream inputStream, final LostItemSink sink) throws IOException {
+        try (LostItemCsvReader reader = new LostItemCsvReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8),
+                delimiter, itemNameColumn, quantityColumn, placeColumn
+        )) {
+            sink.acceptAll(reader);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package dev.riemer.lostandfound.fileprocessor;
 
 import dev.riemer.lostandfound.model.LostItem;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.List;
 
 /**
@@ -26,4 +33,85 @@ public interface FileProcessor {
      * @throws IOException error in processing
      */
     List<LostItem> processFile(MultipartFile file) throws IOException;
+
+    /**
+     * Process a file on the local filesystem and convert it into multiple LostItems. Used for server-side ingestion of
+     * files which are too big to upload, so implementations should avoid reading the whole file onto the heap.
+     *
+     * @param file the path of the file to process
+     * @return a list of LostItems
+     * @throws IOException error in processing
+     */
+    List<LostItem> processFile(Path file) throws IOException;
+
+    /**
+     * Process a file on the local filesystem and emit every LostItem to the sink as soon as it is parsed. By default
+     * the LostItems are emitted after processing the whole file, implementations which can parse incrementally should
+     * override this so memory stays bounded by the sink instead of by the file size.
+     *
+     * @param file the path of the file to process
+     * @param sink receives the LostItems in file order
+     * @throws IOException error in processing
+     */
+    default void processFile(Path file, LostItemSink sink) throws IOException {
+        for (LostItem lostItem : processFile(file)) {
+            sink.accept(lostItem);
+        }
+    }
+
+    /**
+     * Process a file on the local filesystem like processFile(Path, LostItemSink), and feed all its bytes to the digest
+     * in the same pass. By default the file is read once through processStream, bytes after the parsed content are
+     * hashed afterward. Implementations which read the file otherwise, like through memory mapping, should override
+     * this.
+     *
+     * @param file   the path of the file to process
+     * @param sink   receives the LostItems in file order
+     * @param digest receives the whole content of the file, in order
+     * @throws IOException error in processing
+     */
+    default void processFile(Path file, LostItemSink sink, MessageDigest digest) throws IOException {
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            processStream(StreamUtils.nonClosing(inputStream), sink);
+            StreamUtils.drain(inputStream);
+        }
+    }
+
+    /**
+     * Process the MultipartFile through processFile(Path). The upload is transferred to a temporary file first, which
+     * moves the spooled upload where possible, so processors which map or page through files never copy the whole
+     * upload onto the heap.
+     *
+     * @param file the MultipartFile to process
+     * @return a list of LostItems
+     * @throws IOException error in processing
+     */
+    default List<LostItem> processSpooled(MultipartFile file) throws IOException {
+        Path spool = Files.createTempFile("lostandfound-upload-", ".tmp");
+        try {
+            file.transferTo(spool);
+            return processFile(spool);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    /**
+     * Process a stream, e.g. a decompressed archive entry, and emit every LostItem to the sink as soon as it is parsed.
+     * The InputStream is closed afterward. By default the stream is spooled to a temporary file first, formats which
+     * can be parsed sequentially should override this to stream directly.
+     *
+     * @param inputStream the content of the file to process
+     * @param sink        receives the LostItems in file order
+     * @throws IOException error in processing
+     */
+    default void processStream(InputStream inputStream, LostItemSink sink) throws IOException {
+        Path spool = Files.createTempFile("lostandfound-stream-", ".tmp");
+        try (inputStream) {
+            Files.copy(inputStream, spool, StandardCopyOption.REPLACE_EXISTING);
+            processFile(spool, sink);
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
 }
@@ -2,14 +2,26 @@ package dev.riemer.lostandfound.fileprocessor;
 
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Contains the Registry for the available FileProcessors and selects the right Processor for the right contentType.
+ * The content-type sent by clients is not trusted blindly, the first bytes of the file are sniffed as well.
  */
 @Component
 public class FileProcessorFactory {
+    private static final int MAX_CACHED_CONTENT_TYPES = 256;
+
     private final List<FileProcessor> processors;
+    private final Map<String, Optional<FileProcessor>> processorsByContentType = new ConcurrentHashMap<>();
 
     /**
      * The Constructor of the FileProcessorFactory.
@@ -21,16 +33,99 @@ public class FileProcessorFactory {
     }
 
     /**
-     * Loops through all available FileProcessors and picks the first available which can process the requested
-     * contentType.
+     * Picks the first available FileProcessor which can process the requested contentType. Parameters like the
+     * charset are ignored.
      *
      * @param contentType the MIME contentType of the file to parse
      * @return a FileProcessor suitable to process the requested contentType file
      */
     public FileProcessor getProcessor(final String contentType) {
-        return processors.stream()
-                .filter(processor -> processor.supports(contentType))
-                .findFirst()
+        return lookup(normalize(contentType))
                 .orElseThrow(() -> new IllegalArgumentException("Unsupported file type: " + contentType));
     }
+
+    /**
+     * Picks the FileProcessor for a stream, based on the sniffed content-type and the content-type sent by the client.
+     * The stream is not consumed.
+     *
+     * @param contentType the MIME contentType sent by the client, may be null or generic
+     * @param inputStream the content of the file, must support mark and reset
+     * @return a FileProcessor suitable to process the file
+     * @throws IOException thrown when the stream could not be read
+     */
+    public FileProcessor getProcessor(final String contentType, final InputStream inputStream) throws IOException {
+        return getProcessor(resolveContentType(contentType, ContentSniffer.sniff(inputStream)));
+    }
+
+    /**
+     * Picks the FileProcessor for a file on the local filesystem, based on the sniffed content-type and the given
+     * content-type.
+     *
+     * @param contentType the MIME contentType of the file, may be null or generic
+     * @param file        the path of the file
+     * @return a FileProcessor suitable to process the file
+     * @throws IOException thrown when the file could not be read
+     */
+    public FileProcessor getProcessor(final String contentType, final Path file) throws IOException {
+        byte[] head;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            head = inputStream.readNBytes(ContentSniffer.SNIFF_LENGTH);
+        }
+        return getProcessor(resolveContentType(contentType, ContentSniffer.sniff(head, head.length)));
+    }
+
+    /**
+     * Chooses between the declared and the sniffed content-type. A file signature (PDF, gzip, zip) always wins, for
+     * text the declared content-type wins as long as it is supported, because text formats can only be guessed.
+     *
+     * @param declared the content-type sent by the client
+     * @param sniffed  the content-type detected from the first bytes
+     * @return the content-type to process the file as
+     */
+    private String resolveContentType(final String declared, final String sniffed) {
+        if (sniffed == null || ContentSniffer.SIGNATURE_TYPES.contains(sniffed)) {
+            return sniffed == null ? declared : sniffed;
+        }
+        String mediaType = normalize(declared);
+        boolean declaredSupported = mediaType != null && lookup(mediaType).isPresent();
+        return declaredSupported ? declared : sniffed;
+    }
+
+    /**
+     * Finds the first FileProcessor which supports a media type. Every media type is looked up once and remembered
+     * afterward, also when no processor supports it, like application/octet-stream. Clients can declare any media
+     * type, so at most MAX_CACHED_CONTENT_TYPES are remembered.
+     *
+     * @param mediaType the bare media type, may be null
+     * @return the FileProcessor, or empty if the media type is not supported
+     */
+    private Optional<FileProcessor> lookup(final String mediaType) {
+        Optional<FileProcessor> processor = mediaType == null ? null : processorsByContentType.get(mediaType);
+        if (processor != null) {
+            return processor;
+        }
+
+        processor = processors.stream()
+                .filter(p -> p.supports(mediaType))
+                .findFirst();
+        if (mediaType != null && processorsByContentType.size() < MAX_CACHED_CONTENT_TYPES) {
+            processorsByContentType.putIfAbsent(mediaType, processor);
+        }
+        return processor;
+    }
+
+    /**
+     * Strips the parameters from a content-type and lower-cases it, "Text/Plain; charset=UTF-8" becomes "text/plain".
+     *
+     * @param contentType the content-type to normalize, may be null
+     * @return the bare media type, or null
+     */
+    private static String normalize(final String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = parameters >= 0 ? contentType.substring(0, parameters) : contentType;
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,339 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hand-rolled scanner which parses LostItems directly from UTF-8 bytes. Follows the exact same rules as the
+ * LostItemReader, but recognizes the keys without creating intermediate Strings: only the final ItemName and Place
+ * values are decoded, and the Quantity is parsed straight from the bytes. An invalid LostItem is thrown as
+ * LostItemParseException, after which the scanner can continue with the next LostItem.
+ */
+final class LostItemByteScanner implements Iterator<LostItem> {
+    private static final byte[] ITEM_NAME_KEY = "itemname".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] QUANTITY_KEY = "quantity".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] PLACE_KEY = "place".getBytes(StandardCharsets.US_ASCII);
+    private static final int ASCII_CASE_BIT = 0x20;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int MAX_WHITESPACE = ' ';
+    private static final int RADIX = 10;
+    private static final long INT_OVERFLOW = (long) Integer.MAX_VALUE + 1;
+
+    private final ByteBuffer buffer;
+    private final int end;
+    private byte[] scratch = new byte[0];
+    private int position;
+    private LostItem nextItem;
+    private long lineNumber;
+
+    // State of the LostItem currently being scanned
+    private boolean hasData;
+    private String itemName;
+    private String place;
+    private int quantityStart = -1;
+    private int quantityEnd;
+    private long itemLineNumber;
+
+    /**
+     * Constructs a scanner over the remaining bytes of the buffer.
+     *
+     * @param buffer the UTF-8 encoded bytes to scan, the position and limit of the buffer are not modified
+     */
+    LostItemByteScanner(final ByteBuffer buffer) {
+        this(buffer, 0);
+    }
+
+    /**
+     * Constructs a scanner over the remaining bytes of the buffer, which continues after the given number of lines.
+     * Used to scan a part of a bigger input, so errors report the line in the whole input.
+     *
+     * @param buffer       the UTF-8 encoded bytes to scan, the position and limit of the buffer are not modified
+     * @param linesInFront the number of lines of the input in front of the buffer
+     */
+    LostItemByteScanner(final ByteBuffer buffer, final long linesInFront) {
+        this.buffer = buffer;
+        this.position = buffer.position();
+        this.end = buffer.limit();
+        this.lineNumber = linesInFront;
+    }
+
+    /**
+     * Returns the number of lines scanned so far, including the lines in front of the buffer.
+     *
+     * @return the number of the last scanned line
+     */
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * Checks whether another LostItem is available, scanning it from the buffer if needed.
+     *
+     * @return true if another LostItem is available
+     * @throws LostItemParseException when the next LostItem is invalid
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextItem == null) {
+            nextItem = scanNextItem();
+        }
+        return nextItem != null;
+    }
+
+    /**
+     * Returns the next parsed and validated LostItem.
+     *
+     * @return the next LostItem
+     * @throws NoSuchElementException when there are no more LostItems
+     */
+    @Override
+    public LostItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LostItem lostItem = nextItem;
+        nextItem = null;
+        return lostItem;
+    }
+
+    /**
+     * Scans lines until a full LostItem is found.
+     *
+     * @return the next LostItem, or null if the buffer is exhausted
+     */
+    private LostItem scanNextItem() {
+        while (position < end) {
+            // Find the end of the line and trim it
+            int lineEnd = indexOf((byte) '\n', position, end);
+            int nextLine = lineEnd + 1;
+            int start = trimStart(position, lineEnd);
+            int stop = trimEnd(start, lineEnd);
+            position = Math.min(nextLine, end);
+            lineNumber++;
+
+            int separator = indexOf((byte) ':', start, stop);
+            if (separator == stop) {
+                // Lines without a key-value pair are ignored
+                continue;
+            }
+
+            // If we start with a new LostItem key and if we have data for a previous item, then create and return it
+            int keyEnd = trimEnd(start, separator);
+            boolean startsNewItem = separator == start + ITEM_NAME_KEY.length
+                    && matchesKey(ITEM_NAME_KEY, start, keyEnd);
+            if (startsNewItem && hasData) {
+                try {
+                    return createLostItem();
+                } finally {
+                    resetItem();
+                    storeValue(start, keyEnd, separator + 1, stop);
+                }
+            }
+            storeValue(start, keyEnd, separator + 1, stop);
+        }
+
+        // Flush the last item if any
+        if (hasData) {
+            try {
+                return createLostItem();
+            } finally {
+                resetItem();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores a single key-value pair of the current LostItem. Unknown keys are ignored but do count as data.
+     *
+     * @param keyStart   start of the trimmed key
+     * @param keyEnd     end of the trimmed key
+     * @param valueStart start of the value, before trimming
+     * @param valueEnd   end of the value, already trimmed
+     */
+    private void storeValue(final int keyStart, final int keyEnd, final int valueStart, final int valueEnd) {
+        if (!hasData) {
+            itemLineNumber = lineNumber;
+        }
+        hasData = true;
+        int start = trimStart(valueStart, valueEnd);
+        if (matchesKey(ITEM_NAME_KEY, keyStart, keyEnd)) {
+            itemName = decode(start, valueEnd);
+        } else if (matchesKey(QUANTITY_KEY, keyStart, keyEnd)) {
+            quantityStart = start;
+            quantityEnd = valueEnd;
+        } else if (matchesKey(PLACE_KEY, keyStart, keyEnd)) {
+            place = decode(start, valueEnd);
+        }
+    }
+
+    /**
+     * Validates the current LostItem and creates it, matching the validation of LostItemParser.
+     *
+     * @return the created LostItem
+     * @throws LostItemParseException when the LostItem is invalid
+     */
+    private LostItem createLostItem() {
+        if (itemName == null || quantityStart < 0 || place == null) {
+            throw new LostItemParseException(itemLineNumber, LostItemParser.MISSING_FIELDS_MESSAGE);
+        }
+        try {
+            return LostItemParser.createLostItem(itemName, parseQuantity(), place);
+        } catch (IllegalArgumentException e) {
+            throw new LostItemParseException(itemLineNumber, e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the quantity bytes with the same rules as Integer.parseInt. Non-ASCII input falls back to
+     * Integer.parseInt itself, as it also accepts non-ASCII digits.
+     *
+     * @return the parsed quantity
+     */
+    private int parseQuantity() {
+        int index = quantityStart;
+        boolean negative = false;
+        if (index < quantityEnd && (buffer.get(index) == '-' || buffer.get(index) == '+')) {
+            negative = buffer.get(index) == '-';
+            index++;
+        }
+
+        boolean valid = index < quantityEnd;
+        long result = 0;
+        for (; index < quantityEnd; index++) {
+            byte b = buffer.get(index);
+            if (b < 0) {
+                return parseNonAsciiQuantity();
+            }
+            if (b < '0' || b > '9' || result > INT_OVERFLOW) {
+                valid = false;
+            } else {
+                result = result * RADIX + (b - '0');
+            }
+        }
+
+        if (negative) {
+            result = -result;
+        }
+        if (!valid || result > Integer.MAX_VALUE || result < Integer.MIN_VALUE) {
+            throw new IllegalArgumentException(
+                    LostItemParser.INVALID_QUANTITY_MESSAGE + decode(quantityStart, quantityEnd)
+            );
+        }
+        return (int) result;
+    }
+
+    /**
+     * Slow path of parseQuantity for non-ASCII input, decodes the quantity and uses Integer.parseInt.
+     *
+     * @return the parsed quantity
+     */
+    private int parseNonAsciiQuantity() {
+        String quantityStr = decode(quantityStart, quantityEnd);
+        try {
+            return Integer.parseInt(quantityStr);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(LostItemParser.INVALID_QUANTITY_MESSAGE + quantityStr);
+        }
+    }
+
+    /**
+     * Resets the state of the current LostItem.
+     */
+    private void resetItem() {
+        hasData = false;
+        itemName = null;
+        place = null;
+        quantityStart = -1;
+    }
+
+    /**
+     * Compares the bytes against a lowercase ASCII key, case-insensitive.
+     *
+     * @param key   the lowercase key to match
+     * @param start start of the bytes to compare
+     * @param stop  end of the bytes to compare
+     * @return true if the bytes match the key
+     */
+    private boolean matchesKey(final byte[] key, final int start, final int stop) {
+        if (stop - start != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if ((buffer.get(start + i) | ASCII_CASE_BIT) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the first occurrence of a byte.
+     *
+     * @param value the byte to find
+     * @param start the start index, inclusive
+     * @param stop  the end index, exclusive
+     * @return the index of the byte, or stop if not found
+     */
+    private int indexOf(final byte value, final int start, final int stop) {
+        for (int i = start; i < stop; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return stop;
+    }
+
+    /**
+     * Skips leading whitespace and control characters, the same as String.trim.
+     *
+     * @param start the start index, inclusive
+     * @param stop  the end index, exclusive
+     * @return the index of the first non-whitespace byte, or stop
+     */
+    private int trimStart(final int start, final int stop) {
+        int index = start;
+        while (index < stop && (buffer.get(index) & BYTE_MASK) <= MAX_WHITESPACE) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Skips trailing whitespace and control characters, the same as String.trim.
+     *
+     * @param start the start index, inclusive
+     * @param stop  the end index, exclusive
+     * @return the index after the last non-whitespace byte, or start
+     */
+    private int trimEnd(final int start, final int stop) {
+        int index = stop;
+        while (index > start && (buffer.get(index - 1) & BYTE_MASK) <= MAX_WHITESPACE) {
+            index--;
+        }
+        return index;
+    }
+
+    /**
+     * Decodes a range of the buffer as UTF-8.
+     *
+     * @param start the start index, inclusive
+     * @param stop  the end index, exclusive
+     * @return the decoded String
+     */
+    private String decode(final int start, final int stop) {
+        int length = stop - start;
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+        }
+        if (scratch.length < length) {
+            scratch = new byte[length];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
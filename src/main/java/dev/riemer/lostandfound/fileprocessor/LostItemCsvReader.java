@@ -0,0 +1,334 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming CSV parser for LostItems. The first record is a header, the configured columns are looked up in it
+ * case-insensitive and every following record is converted with the same validation as the LostItemParser.
+ * <p>
+ * Follows RFC 4180: fields may be quoted, quoted fields can contain delimiters, line breaks and escaped ("") quotes.
+ * Records end with LF or CRLF, empty lines are skipped and all values are trimmed. An empty value is kept as empty
+ * String like in the text format, only a column missing from a short record counts as a missing field. Only the mapped
+ * columns are copied out of the read buffer, all other columns are skipped. An invalid record is thrown as
+ * LostItemParseException, after which the reader can continue with the next record.
+ */
+public final class LostItemCsvReader implements Iterator<LostItem>, Closeable {
+    private static final int BUFFER_SIZE = 65536;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+    private static final int ITEM_NAME = 0;
+    private static final int QUANTITY = 1;
+    private static final int PLACE = 2;
+    private static final int SKIPPED = -1;
+
+    private final Reader reader;
+    private final char delimiter;
+    private final String[] columnNames;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder fieldBuilder = new StringBuilder();
+    private final String[] values = new String[PLACE + 1];
+    private final List<String> header = new ArrayList<>();
+    private int[] columnTargets;
+    private int position;
+    private int limit;
+    private LostItem nextItem;
+    private long lineNumber;
+    private long recordLineNumber;
+
+    /**
+     * Constructs a LostItemCsvReader on top of the given Reader. The Reader is closed when this object is closed.
+     *
+     * @param reader           the Reader to parse the CSV from
+     * @param delimiter        the character separating the fields
+     * @param itemNameColumn   the header of the column containing the item name
+     * @param quantityColumn   the header of the column containing the quantity
+     * @param placeColumn      the header of the column containing the place
+     */
+    public LostItemCsvReader(
+            final Reader reader,
+            final char delimiter,
+            final String itemNameColumn,
+            final String quantityColumn,
+            final String placeColumn
+    ) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+        this.columnNames = new String[]{itemNameColumn, quantityColumn, placeColumn};
+    }
+
+    /**
+     * Checks whether another LostItem is available, parsing it from the Reader if needed.
+     *
+     * @return true if another LostItem is available
+     * @throws UncheckedIOException   when reading from the underlying Reader fails
+     * @throws LostItemParseException when the next record is invalid
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextItem == null) {
+            try {
+                nextItem = readNextItem();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return nextItem != null;
+    }
+
+    /**
+     * Returns the next parsed and validated LostItem.
+     *
+     * @return the next LostItem
+     * @throws NoSuchElementException when there are no more LostItems
+     */
+    @Override
+    public LostItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LostItem lostItem = nextItem;
+        nextItem = null;
+        return lostItem;
+    }
+
+    /**
+     * Closes the underlying Reader.
+     *
+     * @throws IOException thrown when the Reader could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads the header if needed, then reads records until a non-empty one is found.
+     *
+     * @return the next LostItem, or null if the input is exhausted
+     * @throws IOException thrown when reading fails
+     */
+    private LostItem readNextItem() throws IOException {
+        if (columnTargets == null) {
+            readHeader();
+        }
+
+        while (true) {
+            Arrays.fill(values, null);
+            int fields = readRecord(false);
+            if (fields < 0) {
+                return null;
+            }
+            if (fields > 1 || hasValue()) {
+                try {
+                    return LostItemParser.createLostItem(values[ITEM_NAME], values[QUANTITY], values[PLACE]);
+                } catch (IllegalArgumentException e) {
+                    throw new LostItemParseException(recordLineNumber, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the header record and maps every column to the LostItem field it contains.
+     *
+     * @throws IOException thrown when reading fails
+     */
+    private void readHeader() throws IOException {
+        columnTargets = new int[0];
+        readRecord(true);
+
+        if (!header.isEmpty() && !header.getFirst().isEmpty() && header.getFirst().charAt(0) == BYTE_ORDER_MARK) {
+            header.set(0, header.getFirst().substring(1).trim());
+        }
+
+        columnTargets = new int[header.size()];
+        Arrays.fill(columnTargets, SKIPPED);
+        for (int target = 0; target < columnNames.length; target++) {
+            int column = indexOfIgnoreCase(header, columnNames[target]);
+            if (column < 0) {
+                throw new IllegalArgumentException("Missing CSV column: " + columnNames[target]);
+            }
+            columnTargets[column] = target;
+        }
+    }
+
+    /**
+     * Reads a single record. The header record is collected in the header List, other records only store the mapped
+     * columns in the values array. Keeps track of the line on which the record starts.
+     *
+     * @param isHeader whether this is the header record
+     * @return the number of fields in the record, or -1 at the end of the input
+     * @throws IOException thrown when reading fails
+     */
+    private int readRecord(final boolean isHeader) throws IOException {
+        recordLineNumber = lineNumber + 1;
+        int column = 0;
+        fieldBuilder.setLength(0);
+        boolean quoted = false;
+        boolean fieldStarted = false;
+        boolean fieldHasText = false;
+
+        while (true) {
+            if (position >= limit && !fill()) {
+                if (column == 0 && !fieldStarted) {
+                    return -1;
+                }
+                storeField(isHeader, column);
+                return column + 1;
+            }
+
+            boolean keep = isHeader || (column < columnTargets.length && columnTargets[column] != SKIPPED);
+
+            // Copy plain runs of characters in bulk, only the special characters are handled one by one
+            int start = position;
+            if (quoted) {
+                while (position < limit && buffer[position] != '"') {
+                    // Quoted fields may span lines, which count for the line of the next record
+                    if (buffer[position] == '\n') {
+                        lineNumber++;
+                    }
+                    position++;
+                }
+            } else {
+                while (position < limit && !isSpecial(buffer[position])) {
+                    position++;
+                }
+                fieldHasText = fieldHasText || hasText(start, position);
+            }
+            if (position > start) {
+                fieldStarted = true;
+                if (keep) {
+                    fieldBuilder.append(buffer, start, position - start);
+                }
+                continue;
+            }
+
+            char c = buffer[position++];
+            if (quoted) {
+                // Either an escaped quote or the closing quote
+                if (position >= limit && !fill()) {
+                    quoted = false;
+                } else if (buffer[position] == '"') {
+                    position++;
+                    if (keep) {
+                        fieldBuilder.append('"');
+                    }
+                } else {
+                    quoted = false;
+                }
+            } else if (c == delimiter) {
+                storeField(isHeader, column++);
+                fieldBuilder.setLength(0);
+                fieldStarted = true;
+                fieldHasText = false;
+            } else if (c == '\n') {
+                lineNumber++;
+                storeField(isHeader, column);
+                return column + 1;
+            } else if (!fieldHasText) {
+                // Only a quote at the start of a field, ignoring whitespace, starts a quoted field
+                quoted = true;
+                fieldStarted = true;
+                fieldHasText = true;
+                fieldBuilder.setLength(0);
+            } else if (keep) {
+                fieldBuilder.append(c);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the character ends a plain run of characters.
+     *
+     * @param c the character to check
+     * @return true for the delimiter, a line-feed or a quote
+     */
+    private boolean isSpecial(final char c) {
+        return c == delimiter || c == '\n' || c == '"';
+    }
+
+    /**
+     * Checks whether a range of the buffer contains anything but whitespace.
+     *
+     * @param from the start of the range
+     * @param to   the end of the range, exclusive
+     * @return true if a non-whitespace character is found
+     */
+    private boolean hasText(final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (!Character.isWhitespace(buffer[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Stores the current field, trimmed, in the header List or in the values array if the column is mapped.
+     *
+     * @param isHeader whether this is the header record
+     * @param column   the index of the column of the field
+     */
+    private void storeField(final boolean isHeader, final int column) {
+        if (isHeader) {
+            header.add(fieldBuilder.toString().trim());
+        } else if (column < columnTargets.length && columnTargets[column] != SKIPPED) {
+            values[columnTargets[column]] = fieldBuilder.toString().trim();
+        }
+    }
+
+    /**
+     * Checks whether the current record holds any non-empty mapped value, to tell a record from an empty line.
+     *
+     * @return true if a mapped value is not empty
+     */
+    private boolean hasValue() {
+        for (String value : values) {
+            if (value != null && !value.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Refills the buffer from the Reader.
+     *
+     * @return false at the end of the input
+     * @throws IOException thrown when reading fails
+     */
+    private boolean fill() throws IOException {
+        position = 0;
+        limit = reader.read(buffer, 0, buffer.length);
+        if (limit < 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finds a column name in the header, ignoring case.
+     *
+     * @param names the header of the CSV
+     * @param name  the column name to look for
+     * @return the index of the column, or -1 if it is missing
+     */
+    private static int indexOfIgnoreCase(final List<String> names, final String name) {
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i).equalsIgnoreCase(name.trim())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,29 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+/**
+ * Thrown when a single record of an import file is not a valid LostItem. Unlike other errors the file itself can still
+ * be read, so parsing can continue with the next record in lenient imports.
+ */
+public class LostItemParseException extends IllegalArgumentException {
+    private final long lineNumber;
+
+    /**
+     * Constructs the exception for an invalid record.
+     *
+     * @param lineNumber the line on which the invalid record starts, counting from 1
+     * @param reason     why the record is invalid
+     */
+    public LostItemParseException(final long lineNumber, final String reason) {
+        super(reason);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * Returns the line on which the invalid record starts.
+     *
+     * @return the line number, counting from 1
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -2,15 +2,29 @@ package dev.riemer.lostandfound.fileprocessor;
 
 import dev.riemer.lostandfound.model.LostItem;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Helper class to convert and validate String inputs to LostItems.
  */
 public final class LostItemParser {
+    static final String MISSING_FIELDS_MESSAGE = "Missing required fields in item data.";
+    static final String INVALID_QUANTITY_MESSAGE = "Invalid quantity: ";
+
     /**
      * Processes a big piece of text into multiple LostItems. Using ItemName as a delimiter to start a new LostItem.
      * A LostItem should have at least the following keys "ItemName", "Quantity" and "Place" case-insensitive.
@@ -19,42 +33,58 @@ public final class LostItemParser {
      * @return the parsed and validated LostItems
      */
     public static List<LostItem> parseLostItemsFromText(final String text) {
-        List<LostItem> lostItems = new ArrayList<>();
-        Map<String, String> currentItemData = new HashMap<>();
-
-        // Split the input text on new-lines
-        String[] lines = text.split("\\r?\\n");
+        try (Stream<LostItem> lostItems = parseLostItems(new StringReader(text))) {
+            return lostItems.collect(Collectors.toList());
+        }
+    }
 
-        // Loop over all lines, trimming them and skipping empty ones
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) {
-                continue;
-            }
+    /**
+     * Streaming variant of parseLostItemsFromText. The InputStream is read as UTF-8 and only one LostItem is parsed at
+     * a time, so memory usage does not depend on the size of the input. Closing the Stream closes the InputStream.
+     *
+     * @param inputStream the UTF-8 encoded input to parse for multiple LostItems
+     * @return a lazy Stream of parsed and validated LostItems
+     */
+    public static Stream<LostItem> parseLostItems(final InputStream inputStream) {
+        return parseLostItems(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
 
-            // If we start with a new LostItem key and if we have data for a previous item, then create it and add it
-            if (line.toLowerCase().startsWith("itemname:") && !currentItemData.isEmpty()) {
-                LostItem lostItem = createLostItemFromData(currentItemData);
-                lostItems.add(lostItem);
-                currentItemData.clear();
-            }
+    /**
+     * Streaming variant of parseLostItemsFromText. Only one LostItem is parsed at a time, so memory usage does not
+     * depend on the size of the input. Read errors are thrown as UncheckedIOException, closing the Stream closes the
+     * Reader.
+     *
+     * @param reader the Reader to parse for multiple LostItems
+     * @return a lazy Stream of parsed and validated LostItems
+     */
+    public static Stream<LostItem> parseLostItems(final Reader reader) {
+        LostItemReader lostItemReader = new LostItemReader(reader);
+        Spliterator<LostItem> spliterator = Spliterators.spliteratorUnknownSize(
+                lostItemReader, Spliterator.ORDERED | Spliterator.NONNULL
+        );
 
-            // Parse key-value pairs
-            String[] parts = line.split(":", 2);
-            if (parts.length == 2) {
-                String key = parts[0].trim().toLowerCase();
-                String value = parts[1].trim();
-                currentItemData.put(key, value);
+        return StreamSupport.stream(spliterator, false).onClose(() -> {
+            try {
+                lostItemReader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        }
-
-        // Flush the last item if any
-        if (!currentItemData.isEmpty()) {
-            LostItem lostItem = createLostItemFromData(currentItemData);
-            lostItems.add(lostItem);
-        }
+        });
+    }
 
-        return lostItems;
+    /**
+     * Streaming variant of parseLostItemsFromText which scans the raw UTF-8 bytes of the buffer directly, without
+     * decoding the text or allocating per line. Uses the exact same parsing and validation rules. The buffer is read
+     * from its position up to its limit and is not modified.
+     *
+     * @param buffer the UTF-8 encoded bytes to parse for multiple LostItems
+     * @return a lazy Stream of parsed and validated LostItems
+     */
+    public static Stream<LostItem> parseLostItems(final ByteBuffer buffer) {
+        Spliterator<LostItem> spliterator = Spliterators.spliteratorUnknownSize(
+                new LostItemByteScanner(buffer), Spliterator.ORDERED | Spliterator.NONNULL
+        );
+        return StreamSupport.stream(spliterator, false);
     }
 
     /**
@@ -64,21 +94,41 @@ public final class LostItemParser {
      * @return The parsed LostItem
      */
     public static LostItem createLostItemFromData(final Map<String, String> data) {
-        String name = data.get("itemname");
-        String quantityStr = data.get("quantity");
-        String place = data.get("place");
+        return createLostItem(data.get("itemname"), data.get("quantity"), data.get("place"));
+    }
 
+    /**
+     * Processes and validates the raw field values to a single LostItem.
+     *
+     * @param name        the item name, may be null if missing
+     * @param quantityStr the quantity as String, may be null if missing
+     * @param place       the place, may be null if missing
+     * @return The parsed LostItem
+     */
+    public static LostItem createLostItem(final String name, final String quantityStr, final String place) {
         // Validate
         if (name == null || quantityStr == null || place == null) {
-            throw new IllegalArgumentException("Missing required fields in item data.");
+            throw new IllegalArgumentException(MISSING_FIELDS_MESSAGE);
         }
         int quantity;
         try {
             quantity = Integer.parseInt(quantityStr);
         } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid quantity: " + quantityStr);
+            throw new IllegalArgumentException(INVALID_QUANTITY_MESSAGE + quantityStr);
         }
 
+        return createLostItem(name, quantity, place);
+    }
+
+    /**
+     * Validates the already parsed quantity and creates the LostItem.
+     *
+     * @param name     the item name
+     * @param quantity the parsed quantity
+     * @param place    the place
+     * @return The parsed LostItem
+     */
+    static LostItem createLostItem(final String name, final int quantity, final String place) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than zero.");
         }
@@ -87,7 +137,7 @@ public final class LostItemParser {
         LostItem lostItem = new LostItem();
         lostItem.setItemName(name);
         lostItem.setQuantity(quantity);
-        lostItem.setPlace(place);
+        lostItem.setPlaceName(place);
         return lostItem;
     }
 }
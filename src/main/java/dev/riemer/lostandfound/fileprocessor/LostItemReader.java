@@ -0,0 +1,188 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming variant of the LostItemParser. Reads the text line by line from a Reader and only keeps the LostItem
+ * currently being parsed in memory, so the input can be much bigger than the available heap. An invalid LostItem is
+ * thrown as LostItemParseException, after which the reader can continue with the next LostItem.
+ */
+public final class LostItemReader implements Iterator<LostItem>, Closeable {
+    private static final int BUFFER_SIZE = 8192;
+    private static final String ITEM_NAME_PREFIX = "itemname:";
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder lineBuilder = new StringBuilder();
+    private final Map<String, String> currentItemData = new HashMap<>();
+    private int position;
+    private int limit;
+    private LostItem nextItem;
+    private long lineNumber;
+    private long itemLineNumber;
+
+    /**
+     * Constructs a LostItemReader on top of the given Reader. The Reader is closed when this object is closed.
+     *
+     * @param reader the Reader to parse the LostItems from
+     */
+    public LostItemReader(final Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Checks whether another LostItem is available, parsing it from the Reader if needed.
+     *
+     * @return true if another LostItem is available
+     * @throws UncheckedIOException   when reading from the underlying Reader fails
+     * @throws LostItemParseException when the next LostItem is invalid
+     */
+    @Override
+    public boolean hasNext() {
+        if (nextItem == null) {
+            try {
+                nextItem = readNextItem();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return nextItem != null;
+    }
+
+    /**
+     * Returns the next parsed and validated LostItem.
+     *
+     * @return the next LostItem
+     * @throws NoSuchElementException when there are no more LostItems
+     */
+    @Override
+    public LostItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        LostItem lostItem = nextItem;
+        nextItem = null;
+        return lostItem;
+    }
+
+    /**
+     * Closes the underlying Reader.
+     *
+     * @throws IOException thrown when the Reader could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Reads lines until a full LostItem is found. Uses the same rules as LostItemParser: lines are trimmed, empty
+     * lines are skipped and a line starting with "ItemName:" starts a new LostItem.
+     *
+     * @return the next LostItem, or null if the input is exhausted
+     * @throws IOException thrown when reading fails
+     */
+    private LostItem readNextItem() throws IOException {
+        String line;
+        while ((line = readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            // Parse key-value pairs
+            String key = null;
+            String value = null;
+            int separator = line.indexOf(':');
+            if (separator >= 0) {
+                key = line.substring(0, separator).trim().toLowerCase();
+                value = line.substring(separator + 1).trim();
+            }
+
+            // If we start with a new LostItem key and if we have data for a previous item, then create and return it
+            if (line.toLowerCase().startsWith(ITEM_NAME_PREFIX) && !currentItemData.isEmpty()) {
+                try {
+                    return createLostItem();
+                } finally {
+                    currentItemData.clear();
+                    itemLineNumber = lineNumber;
+                    currentItemData.put(key, value);
+                }
+            }
+
+            if (key != null) {
+                if (currentItemData.isEmpty()) {
+                    itemLineNumber = lineNumber;
+                }
+                currentItemData.put(key, value);
+            }
+        }
+
+        // Flush the last item if any
+        if (!currentItemData.isEmpty()) {
+            try {
+                return createLostItem();
+            } finally {
+                currentItemData.clear();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates the LostItem of the collected key-values, adding the line of the LostItem to validation errors.
+     *
+     * @return the validated LostItem
+     * @throws LostItemParseException when the LostItem is invalid
+     */
+    private LostItem createLostItem() {
+        try {
+            return LostItemParser.createLostItemFromData(currentItemData);
+        } catch (IllegalArgumentException e) {
+            throw new LostItemParseException(itemLineNumber, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a single line from the Reader, only splitting on '\n'. A trailing '\r' is removed by trimming later on.
+     *
+     * @return the line without the line-feed, or null at the end of the input
+     * @throws IOException thrown when reading fails
+     */
+    private String readLine() throws IOException {
+        lineBuilder.setLength(0);
+        while (true) {
+            if (position >= limit) {
+                position = 0;
+                limit = reader.read(buffer, 0, buffer.length);
+                if (limit < 0) {
+                    limit = 0;
+                    if (lineBuilder.isEmpty()) {
+                        return null;
+                    }
+                    lineNumber++;
+                    return lineBuilder.toString();
+                }
+            }
+
+            int start = position;
+            while (position < limit) {
+                if (buffer[position++] == '\n') {
+                    lineBuilder.append(buffer, start, position - start - 1);
+                    lineNumber++;
+                    return lineBuilder.toString();
+                }
+            }
+            lineBuilder.append(buffer, start, limit - start);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+/**
+ * Receives LostItems one by one while a file is being processed, so they can be handed to the next stage of an import
+ * without collecting the whole file in a List first. Invalid records are rejected through the sink as well, which
+ * decides whether the import stops or continues with the next record.
+ */
+@FunctionalInterface
+public interface LostItemSink {
+    /**
+     * Accepts the next parsed LostItem. May block to slow down the FileProcessor when the next stage falls behind.
+     *
+     * @param lostItem the parsed LostItem
+     * @throws IOException thrown to abort processing, e.g. when interrupted while waiting
+     */
+    void accept(LostItem lostItem) throws IOException;
+
+    /**
+     * Rejects an invalid record. By default the error is thrown, which stops processing the file. Lenient sinks note
+     * the error and return, so the FileProcessor continues with the next record.
+     *
+     * @param error the reason and line of the invalid record
+     * @throws IOException thrown to abort processing
+     */
+    default void reject(LostItemParseException error) throws IOException {
+        throw error;
+    }
+
+    /**
+     * Accepts all LostItems of an iterator, rejecting the records it fails to parse. The iterator must be able to
+     * continue with the next record after throwing a LostItemParseException.
+     *
+     * @param lostItems the parsed LostItems
+     * @throws IOException thrown to abort processing
+     */
+    default void acceptAll(Iterator<LostItem> lostItems) throws IOException {
+        while (true) {
+            LostItem lostItem;
+            try {
+                if (!lostItems.hasNext()) {
+                    return;
+                }
+                lostItem = lostItems.next();
+            } catch (LostItemParseException e) {
+                reject(e);
+                continue;
+            }
+            accept(lostItem);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import dev.riemer.lostandfound.model.LostItem;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers a newline-delimited JSON FileProcessor. Every line holds one LostItem object with the "itemName",
+ * "quantity" and "place" fields (case-insensitive). The file is read line by line and every line is read token by
+ * token with Jackson's streaming JsonParser, so only the current LostItem is kept in memory.
+ */
+@Component
+public class NdjsonFileProcessor implements FileProcessor {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * This Processor supports NDJSON files.
+     *
+     * @param contentType MIME type of the file to parse
+     * @return returns true if the processor can parse it
+     */
+    @Override
+    public boolean supports(final String contentType) {
+        return ContentTypes.NDJSON.equals(contentType);
+    }
+
+    /**
+     * Processes an NDJSON file, returning the LostItems in a List.
+     *
+     * @param file the MultipartFile to process
+     * @return a List of LostItems
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public List<LostItem> processFile(final MultipartFile file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        processStream(file.getInputStream(), lostItems::add);
+        return lostItems;
+    }
+
+    /**
+     * Processes an NDJSON file on the local filesystem, returning the LostItems in a List.
+     *
+     * @param file the path of the file to process
+     * @return a List of LostItems
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public List<LostItem> processFile(final Path file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        processFile(file, lostItems::add);
+        return lostItems;
+    }
+
+    /**
+     * Streams an NDJSON file on the local filesystem into the sink, one line at a time.
+     *
+     * @param file the path of the file to process
+     * @param sink receives the LostItems in file order
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink) throws IOException {
+        processStream(Files.newInputStream(file), sink);
+    }
+
+    /**
+     * Reads the NDJSON line by line and emits the object on every line as a LostItem. A line must hold exactly one JSON
+     * object, blank lines are skipped. Invalid and malformed lines are rejected through the sink with their line
+     * number, so a lenient import continues with the next line. The InputStream is closed afterward.
+     *
+     * @param inputStream the NDJSON to parse
+     * @param sink        receives the LostItems in file order
+     * @throws IOException thrown when the NDJSON could not be read
+     */
+    @Override
+    public void processStream(final InputStream inputStream, final LostItemSink sink) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(inputStream, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                LostItem lostItem;
+                try {
+                    lostItem = readLine(line, lineNumber);
+                } catch (LostItemParseException e) {
+                    sink.reject(e);
+                    continue;
+                }
+                sink.accept(lostItem);
+            }
+        }
+    }
+
+    /**
+     * Parses a single line, which must hold exactly one JSON object, into a LostItem.
+     *
+     * @param line       the line to parse
+     * @param lineNumber the number of the line, counting from 1
+     * @return the parsed and validated LostItem
+     * @throws IOException            thrown when the line could not be read
+     * @throws LostItemParseException thrown when the line is malformed or not a valid LostItem
+     */
+    private static LostItem readLine(final String line, final long lineNumber) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new LostItemParseException(lineNumber, "Expected a JSON object");
+            }
+            return readLostItem(parser, lineNumber);
+        } catch (JsonProcessingException e) {
+            throw new LostItemParseException(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    /**
+     * Reads the fields of a single JSON object and validates them like the LostItemParser. Unknown fields, including
+     * nested objects and arrays, are skipped. Nothing but whitespace may follow the object on its line.
+     *
+     * @param parser     the JsonParser positioned at the start of the object
+     * @param lineNumber the line of the object
+     * @return the parsed and validated LostItem
+     * @throws IOException            thrown when the JSON is malformed or could not be read
+     * @throws LostItemParseException thrown when the line is not a single valid LostItem
+     */
+    private static LostItem readLostItem(final JsonParser parser, final long lineNumber) throws IOException {
+        String itemName = null;
+        String quantity = null;
+        String place = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value.isStructStart()) {
+                parser.skipChildren();
+            } else if (value != JsonToken.VALUE_NULL) {
+                if ("itemName".equalsIgnoreCase(field)) {
+                    itemName = parser.getText().trim();
+                } else if ("quantity".equalsIgnoreCase(field)) {
+                    quantity = parser.getText().trim();
+                } else if ("place".equalsIgnoreCase(field)) {
+                    place = parser.getText().trim();
+                }
+            }
+        }
+        if (parser.nextToken() != null) {
+            throw new LostItemParseException(lineNumber, "Expected a single JSON object");
+        }
+
+        try {
+            return LostItemParser.createLostItem(itemName, quantity, place);
+        } catch (IllegalArgumentException e) {
+            throw new LostItemParseException(lineNumber, e.getMessage());
+        }
+    }
+}
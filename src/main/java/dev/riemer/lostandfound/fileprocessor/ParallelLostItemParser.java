@@ -0,0 +1,259 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parses big text imports in parallel. The buffer is split into chunks which always start at an "ItemName:" line, so
+ * every chunk can be scanned on its own with the LostItemByteScanner. The results are emitted in the original order,
+ * giving the exact same LostItems and rejected records (or the same first error) as parsing the whole buffer
+ * sequentially. Only a window of chunks is parsed ahead of the sink, so a slow sink bounds the parsed LostItems held
+ * in memory.
+ */
+final class ParallelLostItemParser {
+    private static final byte[] ITEM_NAME_PREFIX = "itemname:".getBytes(StandardCharsets.US_ASCII);
+    private static final int ASCII_CASE_BIT = 0x20;
+    private static final int BYTE_MASK = 0xFF;
+
+    /**
+     * Splits the buffer in chunks of roughly chunkSize bytes and parses them concurrently on the given pool.
+     *
+     * @param buffer    the UTF-8 encoded bytes to parse, from its position up to its limit
+     * @param chunkSize the minimum size of a chunk in bytes, chunks are extended up to the next LostItem. Must be
+     *                  at least 1
+     * @param pool      the ForkJoinPool to run the chunks on
+     * @return the parsed and validated LostItems in the original order
+     */
+    static List<LostItem> parseLostItems(final ByteBuffer buffer, final int chunkSize, final ForkJoinPool pool) {
+        List<LostItem> lostItems = new ArrayList<>();
+        try {
+            // The default rejection throws, so the first invalid record stops the parse
+            parseLostItems(buffer, chunkSize, pool, lostItems::add, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return lostItems;
+    }
+
+    /**
+     * Splits the buffer in chunks of roughly chunkSize bytes, parses them concurrently on the given pool and emits
+     * the results into the sink in the original order. At most twice the parallelism of the pool chunks are parsed
+     * ahead of the sink. Invalid records are rejected through the sink with their line in the whole input, the sink
+     * decides whether parsing continues.
+     *
+     * @param buffer       the UTF-8 encoded bytes to parse, from its position up to its limit
+     * @param chunkSize    the minimum size of a chunk in bytes, chunks are extended up to the next LostItem. Must be
+     *                     at least 1
+     * @param pool         the ForkJoinPool to run the chunks on
+     * @param sink         receives the LostItems and rejected records in order, on the calling thread
+     * @param linesInFront the number of lines in front of the buffer, added to the line numbers of rejected records
+     * @return linesInFront plus the number of lines in the buffer
+     * @throws IOException thrown when the sink aborts the parse
+     */
+    static long parseLostItems(
+            final ByteBuffer buffer,
+            final int chunkSize,
+            final ForkJoinPool pool,
+            final LostItemSink sink,
+            final long linesInFront
+    ) throws IOException {
+        int window = Math.max(pool.getParallelism(), 1) * 2;
+        Deque<ChunkTask> tasks = new ArrayDeque<>(window);
+        int start = buffer.position();
+        int end = buffer.limit();
+        long lines = linesInFront;
+
+        try {
+            while (start < end || !tasks.isEmpty()) {
+                while (start < end && tasks.size() < window) {
+                    int chunkEnd = nextItemStart(buffer, (int) Math.min((long) start + chunkSize, end), end);
+                    ChunkTask task = new ChunkTask(buffer.slice(start, chunkEnd - start));
+                    pool.execute(task);
+                    tasks.addLast(task);
+                    start = chunkEnd;
+                }
+
+                // Emit in order, all chunks in front of this one are complete
+                ChunkTask task = tasks.removeFirst();
+                task.join();
+                task.emit(sink, lines);
+                lines += task.lines;
+            }
+        } finally {
+            // Stops the chunks parsing ahead when the sink aborted
+            tasks.forEach(task -> task.cancel(false));
+        }
+        return lines;
+    }
+
+    /**
+     * Finds the start of the last line in the buffer which starts a new LostItem. Used to cut big inputs into regions
+     * which only contain complete LostItems.
+     *
+     * @param buffer the buffer to search, from its position up to its limit
+     * @return the offset of the last line starting a new LostItem, or the position of the buffer if there is none
+     */
+    static int lastItemStart(final ByteBuffer buffer) {
+        for (int i = buffer.limit() - 1; i > buffer.position(); i--) {
+            if (buffer.get(i - 1) == '\n' && startsWithItemName(buffer, i, buffer.limit())) {
+                return i;
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Finds the start of the first line at or after the given offset which starts a new LostItem.
+     *
+     * @param buffer the buffer to search
+     * @param from   the offset to start searching from
+     * @param end    the end of the data in the buffer
+     * @return the offset of the line starting a new LostItem, or end if there is none
+     */
+    private static int nextItemStart(final ByteBuffer buffer, final int from, final int end) {
+        int lineStart = from;
+        // Move to the start of the next line, unless we are already there
+        if (lineStart > buffer.position() && buffer.get(lineStart - 1) != '\n') {
+            lineStart = nextLineStart(buffer, lineStart, end);
+        }
+
+        while (lineStart < end) {
+            if (startsWithItemName(buffer, lineStart, end)) {
+                return lineStart;
+            }
+            lineStart = nextLineStart(buffer, lineStart, end);
+        }
+        return end;
+    }
+
+    /**
+     * Finds the start of the line after the given offset.
+     *
+     * @param buffer the buffer to search
+     * @param from   an offset within the current line
+     * @param end    the end of the data in the buffer
+     * @return the offset after the next line-feed, or end
+     */
+    private static int nextLineStart(final ByteBuffer buffer, final int from, final int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Checks whether the line, after trimming, starts with "ItemName:" case-insensitive.
+     *
+     * @param buffer    the buffer to check
+     * @param lineStart the start of the line
+     * @param end       the end of the data in the buffer
+     * @return true if the line starts a new LostItem
+     */
+    private static boolean startsWithItemName(final ByteBuffer buffer, final int lineStart, final int end) {
+        int index = lineStart;
+        while (index < end && buffer.get(index) != '\n' && (buffer.get(index) & BYTE_MASK) <= ' ') {
+            index++;
+        }
+        if (end - index < ITEM_NAME_PREFIX.length) {
+            return false;
+        }
+        for (int i = 0; i < ITEM_NAME_PREFIX.length; i++) {
+            byte b = buffer.get(index + i);
+            byte expected = ITEM_NAME_PREFIX[i];
+            if (b != expected && (expected == ':' || (b | ASCII_CASE_BIT) != expected)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * An invalid record within a chunk.
+     *
+     * @param index the number of LostItems of the chunk in front of the record
+     * @param error the reason and line of the record, counted from the start of the chunk
+     */
+    private record Rejection(int index, LostItemParseException error) {
+    }
+
+    /**
+     * Parses a single chunk. Invalid records are kept and parsing continues with the next record, so the emit can
+     * reject them in order. Unexpected errors are kept instead of thrown, so the emit can rethrow the original
+     * exception.
+     */
+    private static final class ChunkTask extends RecursiveAction {
+        private final ByteBuffer chunk;
+        private final List<LostItem> lostItems = new ArrayList<>();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private long lines;
+        private RuntimeException error;
+
+        /**
+         * Constructs a task for a single chunk.
+         *
+         * @param chunk the bytes of the chunk, starting with an "ItemName:" line or at the start of the input
+         */
+        ChunkTask(final ByteBuffer chunk) {
+            this.chunk = chunk;
+        }
+
+        /**
+         * Scans the chunk with the LostItemByteScanner, counting its lines.
+         */
+        @Override
+        protected void compute() {
+            try {
+                LostItemByteScanner scanner = new LostItemByteScanner(chunk);
+                while (true) {
+                    try {
+                        if (!scanner.hasNext()) {
+                            break;
+                        }
+                        lostItems.add(scanner.next());
+                    } catch (LostItemParseException e) {
+                        rejections.add(new Rejection(lostItems.size(), e));
+                    }
+                }
+                lines = scanner.getLineNumber();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        /**
+         * Emits the parsed LostItems and invalid records of the chunk into the sink, in the order of the chunk.
+         *
+         * @param sink         receives the LostItems and rejected records
+         * @param linesInFront the number of lines in front of the chunk
+         * @throws IOException thrown when the sink aborts the parse
+         */
+        void emit(final LostItemSink sink, final long linesInFront) throws IOException {
+            if (error != null) {
+                throw error;
+            }
+            int index = 0;
+            for (Rejection rejection : rejections) {
+                while (index < rejection.index()) {
+                    sink.accept(lostItems.get(index++));
+                }
+                LostItemParseException e = rejection.error();
+                sink.reject(new LostItemParseException(linesInFront + e.getLineNumber(), e.getMessage()));
+            }
+            while (index < lostItems.size()) {
+                sink.accept(lostItems.get(index++));
+            }
+        }
+    }
+}
@@ -1,19 +1,96 @@
 package dev.riemer.lostandfound.fileprocessor;
 
 import dev.riemer.lostandfound.model.LostItem;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Registers a PDF FileProcessor. Opens the PDF, gets all text and forward it to LostItemParser for further processing
+ * Registers a PDF FileProcessor. Opens the PDF, gets all text and forward it to LostItemParser for further processing.
+ * Big PDFs are split in page ranges which are extracted concurrently, and parsed in order while the ranges behind
+ * them are still extracted.
+ * <p>
+ * Documents are loaded with a capped amount of main memory, everything above it is buffered in scratch files. The
+ * number of PDDocuments which are open at once is limited by max-open-documents across all imports, so concurrent big
+ * uploads cannot exhaust the heap. An import waits for a single document, and only opens extra copies for parallel
+ * extraction while other documents are free and no other import is waiting.
  */
 @Component
 public class PdfFileProcessor implements FileProcessor {
+    private static final int DEFAULT_PARALLEL_THRESHOLD_PAGES = 100;
+    private static final int DEFAULT_PAGES_PER_RANGE = 25;
+    private static final DataSize DEFAULT_MAX_MAIN_MEMORY = DataSize.ofMegabytes(16);
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    private final Semaphore openDocuments;
+    private final DistributionSummary jvmHeapUsed;
+
+    @Value("${lostandfound.import.pdf.parallel-threshold-pages:100}")
+    private int parallelThresholdPages = DEFAULT_PARALLEL_THRESHOLD_PAGES;
+
+    @Value("${lostandfound.import.pdf.pages-per-range:25}")
+    private int pagesPerRange = DEFAULT_PAGES_PER_RANGE;
+
+    @Value("${lostandfound.import.pdf.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    @Value("${lostandfound.import.pdf.max-main-memory:16MB}")
+    private DataSize maxMainMemory = DEFAULT_MAX_MAIN_MEMORY;
+
+    @Value("${lostandfound.import.pdf.scratch-directory:}")
+    private String scratchDirectory = "";
+
+    /**
+     * Constructor of PdfFileProcessor.
+     *
+     * @param meterRegistry    injected MeterRegistry
+     * @param maxOpenDocuments the maximum number of PDDocuments open at once, configured by
+     *                         lostandfound.import.pdf.max-open-documents
+     */
+    public PdfFileProcessor(
+            final MeterRegistry meterRegistry,
+            final @Value("${lostandfound.import.pdf.max-open-documents:2}") int maxOpenDocuments
+    ) {
+        this.openDocuments = new Semaphore(maxOpenDocuments, true);
+        // The heap is shared by the whole JVM, so this cannot be attributed to a single import
+        this.jvmHeapUsed = DistributionSummary.builder("lostandfound.import.pdf.jvm.heap.used")
+                .description("Highest heap usage of the whole JVM while a PDF was imported, sampled per page range")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
     /**
      * This Processor supports PDFs.
      *
@@ -26,7 +103,8 @@ public class PdfFileProcessor implements FileProcessor {
     }
 
     /**
-     * Processes a PDF file, returning the LostItems in a List.
+     * Processes a PDF file, returning the LostItems in a List. The upload is spooled to a temporary file first, so
+     * every document copy reads the same file instead of re-reading the upload.
      *
      * @param file the PDF to process
      * @return a List of LostItems
@@ -34,21 +112,392 @@ public class PdfFileProcessor implements FileProcessor {
      */
     @Override
     public List<LostItem> processFile(final MultipartFile file) throws IOException {
-        String text = extractTextFromPdf(file);
-        return LostItemParser.parseLostItemsFromText(text);
+        return processSpooled(file);
     }
 
     /**
-     * Uses PDFBox to open the file and return all found text.
+     * Processes a PDF file on the local filesystem. PDFBox reads the file through random access, so the PDF is not
+     * loaded onto the heap as a whole.
      *
-     * @param file the PDF to process
-     * @return all found text within the PDF
+     * @param file the path of the PDF to process
+     * @return a List of LostItems
      * @throws IOException thrown when the file is invalid
      */
-    private String extractTextFromPdf(final MultipartFile file) throws IOException {
-        try (PDDocument document = PDDocument.load(file.getInputStream())) {
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            return pdfStripper.getText(document);
+    @Override
+    public List<LostItem> processFile(final Path file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        extractText(file, text -> new LostItemReader(text).forEachRemaining(lostItems::add));
+        return lostItems;
+    }
+
+    /**
+     * Extracts the text of a PDF on the local filesystem and emits every LostItem in it to the sink. Invalid LostItems
+     * are rejected through the sink with their line in the extracted text. The text of every page range is parsed as
+     * soon as the ranges in front of it are, so the text of the whole PDF is never on the heap at once.
+     *
+     * @param file the path of the PDF to process
+     * @param sink receives the LostItems in document order
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink) throws IOException {
+        extractText(file, text -> sink.acceptAll(new LostItemReader(text)));
+    }
+
+    /**
+     * Extracts the text of a PDF on the local filesystem into the sink and hashes the PDF. PDFBox reads the document
+     * through random access in no particular order, which cannot feed a digest. The PDF is hashed in order once its
+     * text is extracted, while its pages are still in the page cache.
+     *
+     * @param file   the path of the PDF to process
+     * @param sink   receives the LostItems in document order
+     * @param digest receives the whole PDF, in order
+     * @throws IOException thrown when the file is invalid
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink, final MessageDigest digest) throws IOException {
+        processFile(file, sink);
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            StreamUtils.drain(inputStream);
+        }
+    }
+
+    /**
+     * Uses PDFBox to open the file and return all found text, the same text the sink of processFile reads.
+     *
+     * @param file the path of the PDF to process
+     * @return all found text within the PDF, the same as a sequential extraction
+     * @throws IOException thrown when the file is invalid
+     */
+    String extractTextFromPdf(final Path file) throws IOException {
+        StringWriter text = new StringWriter();
+        extractText(file, reader -> reader.transferTo(text));
+        return text.toString();
+    }
+
+    /**
+     * Uses PDFBox to open the file and hands all found text to the consumer as one Reader. PDFs with at least
+     * parallel-threshold-pages pages are split in ranges of pages-per-range pages, which are extracted on up to
+     * parallelism threads while the consumer reads the ranges in front of them. PDDocument is not thread-safe, so
+     * every thread has its own copy of the document, and every copy takes one of the max-open-documents permits. The
+     * extra copies share one max-main-memory budget, so a single import buffers less than twice max-main-memory on the
+     * heap.
+     *
+     * @param file     the path of the PDF to process
+     * @param consumer reads the text of the PDF, on the calling thread
+     * @throws IOException thrown when the file is invalid or the consumer failed
+     */
+    private void extractText(final Path file, final TextConsumer consumer) throws IOException {
+        try {
+            openDocuments.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for other PDFs to finish");
+        }
+
+        AtomicLong heapUsed = new AtomicLong(MEMORY.getHeapMemoryUsage().getUsed());
+        int permits = 1;
+        // The page count is needed to plan the ranges, so the first document always gets the full budget
+        try (PDDocument document = PDDocument.load(file.toFile(), memoryUsageSetting(1))) {
+            int pages = document.getNumberOfPages();
+            int rangeSize = pages < parallelThresholdPages ? Math.max(pages, 1) : Math.max(pagesPerRange, 1);
+            int ranges = Math.max(Math.ceilDiv(pages, rangeSize), 1);
+            permits += acquireExtraDocuments(Math.min(Math.max(parallelism, 1), ranges) - 1);
+
+            if (permits < 2) {
+                PDFTextStripper pdfStripper = new PDFTextStripper();
+                AtomicInteger nextRange = new AtomicInteger();
+                consume(consumer, new RangeReader(() -> {
+                    int range = nextRange.getAndIncrement();
+                    if (range >= ranges) {
+                        return null;
+                    }
+                    String text = extractRange(pdfStripper, document, range, rangeSize);
+                    heapUsed.accumulateAndGet(MEMORY.getHeapMemoryUsage().getUsed(), Math::max);
+                    return text;
+                }));
+                return;
+            }
+            extractText(file, document, permits, rangeSize, ranges, consumer, heapUsed);
+        } finally {
+            openDocuments.release(permits);
+            jvmHeapUsed.record(heapUsed.get());
+        }
+    }
+
+    /**
+     * Takes permits for extra document copies, without waiting. Permits are left to waiting imports, so a big PDF
+     * never delays another import for its parallel extraction.
+     *
+     * @param wanted the number of extra documents which would speed up the extraction
+     * @return the number of taken permits, between 0 and wanted
+     */
+    private int acquireExtraDocuments(final int wanted) {
+        int acquired = 0;
+        while (acquired < wanted && !openDocuments.hasQueuedThreads() && openDocuments.tryAcquire()) {
+            acquired++;
+        }
+        return acquired;
+    }
+
+    /**
+     * Extracts the text of all page ranges on worker threads, while the consumer reads them in order on the calling
+     * thread. Workers run at most two ranges per worker ahead of the consumer, so only those ranges are buffered.
+     *
+     * @param file      the path of the PDF, opened once per extra worker
+     * @param document  the document opened by the calling thread, used by the first worker
+     * @param workers   the number of worker threads, each with its own document
+     * @param rangeSize the number of pages per range
+     * @param ranges    the number of ranges
+     * @param consumer  reads the text of the PDF
+     * @param heapUsed  the highest sampled heap usage during this import
+     * @throws IOException thrown when the file is invalid or the consumer failed
+     */
+    private void extractText(
+            final Path file,
+            final PDDocument document,
+            final int workers,
+            final int rangeSize,
+            final int ranges,
+            final TextConsumer consumer,
+            final AtomicLong heapUsed
+    ) throws IOException {
+        AtomicReferenceArray<CompletableFuture<String>> texts = new AtomicReferenceArray<>(ranges);
+        for (int i = 0; i < ranges; i++) {
+            texts.set(i, new CompletableFuture<>());
+        }
+        AtomicInteger nextRange = new AtomicInteger();
+        Semaphore window = new Semaphore(2 * workers);
+        MemoryUsageSetting workerMemoryUsage = memoryUsageSetting(workers - 1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(
+                workers, Thread.ofPlatform().name("pdf-text-extraction-", 0).factory()
+        )) {
+            // The first worker re-uses the already opened document
+            executor.submit(() -> extractRanges(document, rangeSize, texts, nextRange, window, heapUsed));
+            for (int i = 1; i < workers; i++) {
+                executor.submit(() -> {
+                    try (PDDocument copy = PDDocument.load(file.toFile(), workerMemoryUsage)) {
+                        extractRanges(copy, rangeSize, texts, nextRange, window, heapUsed);
+                    } catch (Throwable e) {
+                        // Fails the first range nobody extracts now, the consumer stops there
+                        int range = nextRange.getAndSet(ranges);
+                        if (range < ranges) {
+                            texts.get(range).completeExceptionally(e);
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            AtomicInteger consumed = new AtomicInteger();
+            try {
+                consume(consumer, new RangeReader(() -> {
+                    int range = consumed.getAndIncrement();
+                    if (range > 0) {
+                        // The Reader is done with the previous range, a worker may extract the next one
+                        texts.set(range - 1, null);
+                        window.release();
+                    }
+                    return range < ranges ? awaitRange(texts.get(range)) : null;
+                }));
+            } finally {
+                // Stops the workers once they finish their current range, also when the consumer failed
+                nextRange.set(ranges);
+                window.release(2 * workers);
+            }
+        }
+    }
+
+    /**
+     * Keeps extracting the next unclaimed page range until all ranges are done. A range is only claimed once the
+     * consumer has room for it. On failure the range fails and the remaining ranges are claimed as well, so the other
+     * workers stop early and the consumer stops at the failed range.
+     *
+     * @param document  the document owned by this worker
+     * @param rangeSize the number of pages per range
+     * @param texts     receives the extracted text per range
+     * @param nextRange the next range to extract, shared by all workers
+     * @param window    the number of ranges which may be extracted ahead of the consumer
+     * @param heapUsed  the highest sampled heap usage, updated after every range
+     * @return null, to be submitted as a Callable
+     * @throws InterruptedException thrown when interrupted while waiting for the consumer
+     */
+    private static Void extractRanges(
+            final PDDocument document,
+            final int rangeSize,
+            final AtomicReferenceArray<CompletableFuture<String>> texts,
+            final AtomicInteger nextRange,
+            final Semaphore window,
+            final AtomicLong heapUsed
+    ) throws InterruptedException {
+        PDFTextStripper pdfStripper = new PDFTextStripper();
+        while (true) {
+            window.acquire();
+            int range = nextRange.getAndIncrement();
+            if (range >= texts.length()) {
+                return null;
+            }
+            try {
+                texts.get(range).complete(extractRange(pdfStripper, document, range, rangeSize));
+            } catch (Throwable e) {
+                // Errors as well, the consumer would wait for this range forever otherwise
+                nextRange.set(texts.length());
+                texts.get(range).completeExceptionally(e);
+                return null;
+            }
+            heapUsed.accumulateAndGet(MEMORY.getHeapMemoryUsage().getUsed(), Math::max);
+        }
+    }
+
+    /**
+     * Extracts the text of a single page range.
+     *
+     * @param pdfStripper the PDFTextStripper of the calling thread
+     * @param document    the document owned by the calling thread
+     * @param range       the index of the range
+     * @param rangeSize   the number of pages per range
+     * @return the text of the pages in the range
+     * @throws IOException thrown when the text could not be extracted
+     */
+    private static String extractRange(
+            final PDFTextStripper pdfStripper,
+            final PDDocument document,
+            final int range,
+            final int rangeSize
+    ) throws IOException {
+        pdfStripper.setStartPage(range * rangeSize + 1);
+        pdfStripper.setEndPage((range + 1) * rangeSize);
+        return pdfStripper.getText(document);
+    }
+
+    /**
+     * Hands the text to the consumer. Read errors of the text surface as UncheckedIOException through the iterators
+     * of the consumer, they are thrown as the IOException they were.
+     *
+     * @param consumer reads the text of the PDF
+     * @param text     the text of all page ranges
+     * @throws IOException thrown when the text could not be extracted or the consumer failed
+     */
+    private static void consume(final TextConsumer consumer, final RangeReader text) throws IOException {
+        try {
+            consumer.accept(text);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Waits until a worker extracted the text of a page range.
+     *
+     * @param text the text of the range, completed by a worker
+     * @return the text of the range
+     * @throws IOException thrown when the text could not be extracted
+     */
+    private static String awaitRange(final CompletableFuture<String> text) throws IOException {
+        try {
+            return text.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while extracting text from PDF");
+        }
+    }
+
+    /**
+     * Creates the MemoryUsageSetting for a single document, buffering at most its share of max-main-memory on the
+     * heap and the rest in scratch files.
+     *
+     * @param documents the number of documents sharing the main memory budget
+     * @return the MemoryUsageSetting to load the document with
+     */
+    private MemoryUsageSetting memoryUsageSetting(final int documents) {
+        MemoryUsageSetting setting = MemoryUsageSetting.setupMixed(Math.max(maxMainMemory.toBytes() / documents, 1));
+        if (!scratchDirectory.isBlank()) {
+            setting.setTempDir(new File(scratchDirectory));
+        }
+        return setting;
+    }
+
+    /**
+     * Reads the text of a PDF, see extractText.
+     */
+    @FunctionalInterface
+    private interface TextConsumer {
+        /**
+         * Reads the text of the PDF.
+         *
+         * @param text the text of all pages in order, only valid during this call
+         * @throws IOException thrown when the text could not be read or processed
+         */
+        void accept(Reader text) throws IOException;
+    }
+
+    /**
+     * Supplies the text of the page ranges of a PDF in order.
+     */
+    @FunctionalInterface
+    private interface RangeTexts {
+        /**
+         * Returns the text of the next page range, waiting until it is extracted.
+         *
+         * @return the text of the next range, or null after the last range
+         * @throws IOException thrown when the text could not be extracted
+         */
+        String next() throws IOException;
+    }
+
+    /**
+     * Reads the text of all page ranges as one continuous text, so line numbers count through the whole PDF.
+     * PDFTextStripper ends every page with a line separator, so the ranges are stitched back unchanged. Only the range
+     * which is being read is referenced.
+     */
+    private static final class RangeReader extends Reader {
+        private final RangeTexts ranges;
+        private Reader current = Reader.nullReader();
+        private boolean done;
+
+        /**
+         * Constructs a RangeReader.
+         *
+         * @param ranges supplies the text of every range in order
+         */
+        RangeReader(final RangeTexts ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (!done) {
+                int read = current.read(buffer, offset, length);
+                if (read > 0) {
+                    return read;
+                }
+                String text = ranges.next();
+                if (text == null) {
+                    done = true;
+                    current = Reader.nullReader();
+                } else {
+                    current = new StringReader(text);
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() {
+            done = true;
+            current = Reader.nullReader();
         }
     }
 }
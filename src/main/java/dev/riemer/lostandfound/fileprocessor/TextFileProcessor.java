@@ -1,18 +1,46 @@
 package dev.riemer.lostandfound.fileprocessor;
 
 import dev.riemer.lostandfound.model.LostItem;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
- * Registers a simple text FileProcessor. Read the file as UTF-8 and forward it to LostItemParser for further processing
+ * Registers a simple text FileProcessor. Streams the file as UTF-8 through the LostItemParser, so the upload is never
+ * fully loaded in memory as a String. Big files are parsed in parallel chunks instead.
  */
 @Component
 public class TextFileProcessor implements FileProcessor {
+    private static final DataSize DEFAULT_PARALLEL_THRESHOLD = DataSize.ofMegabytes(4);
+    private static final DataSize DEFAULT_PARALLEL_CHUNK_SIZE = DataSize.ofMegabytes(1);
+
+    @Value("${lostandfound.import.text.parallel-threshold:4MB}")
+    private DataSize parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    @Value("${lostandfound.import.text.parallel-chunk-size:1MB}")
+    private DataSize parallelChunkSize = DEFAULT_PARALLEL_CHUNK_SIZE;
+
+    // A single MappedByteBuffer can address at most 2GB
+    private long maxMappedRegionSize = Integer.MAX_VALUE;
+
     /**
      * This Processor supports plain text files.
      *
@@ -25,7 +53,8 @@ public class TextFileProcessor implements FileProcessor {
     }
 
     /**
-     * Processes a plan text file, returning the LostItems in a List.
+     * Processes a plan text file, returning the LostItems in a List. Files of at least the parallel-threshold are
+     * spooled to a temporary file, which is mapped and parsed in parallel. Smaller files are streamed.
      *
      * @param file the MultipartFile to process
      * @return a List of LostItems
@@ -33,7 +62,171 @@ public class TextFileProcessor implements FileProcessor {
      */
     @Override
     public List<LostItem> processFile(final MultipartFile file) throws IOException {
-        String text = new String(file.getBytes(), StandardCharsets.UTF_8);
-        return LostItemParser.parseLostItemsFromText(text);
+        if (file.getSize() >= parallelThreshold.toBytes()) {
+            return processSpooled(file);
+        }
+
+        try (Stream<LostItem> lostItems = LostItemParser.parseLostItems(file.getInputStream())) {
+            return lostItems.collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Processes a plain text file on the local filesystem. The file is memory-mapped, so the bytes are parsed straight
+     * from the page cache without being copied onto the heap. Files bigger than a single mapping are mapped in regions
+     * which are cut at the last complete LostItem.
+     *
+     * @param file the path of the file to process
+     * @return a List of LostItems
+     * @throws IOException thrown when the file could not be read
+     */
+    @Override
+    public List<LostItem> processFile(final Path file) throws IOException {
+        List<LostItem> lostItems = new ArrayList<>();
+        forEachRegion(file, region -> lostItems.addAll(processBuffer(region)));
+        return lostItems;
+    }
+
+    /**
+     * Streams a plain text file on the local filesystem into the sink. The file is memory-mapped like processFile.
+     * Regions of at least the parallel-threshold are parsed in parallel chunks, which are emitted in file order while
+     * the next chunks are parsed. Smaller regions are scanned sequentially, so each LostItem is emitted as soon as it
+     * is parsed. Invalid LostItems are rejected through the sink with their line in the whole file.
+     *
+     * @param file the path of the file to process
+     * @param sink receives the LostItems in file order
+     * @throws IOException thrown when the file could not be read
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink) throws IOException {
+        processRegions(file, sink, null);
+    }
+
+    /**
+     * Streams a plain text file on the local filesystem into the sink like processFile(Path, LostItemSink). Every
+     * mapped region is hashed once it is parsed, while its pages are still in memory, so the file is read only once.
+     *
+     * @param file   the path of the file to process
+     * @param sink   receives the LostItems in file order
+     * @param digest receives the whole content of the file, in order
+     * @throws IOException thrown when the file could not be read
+     */
+    @Override
+    public void processFile(final Path file, final LostItemSink sink, final MessageDigest digest) throws IOException {
+        processRegions(file, sink, digest);
+    }
+
+    /**
+     * Streams UTF-8 text into the sink, parsing one LostItem at a time. The InputStream is closed afterward.
+     *
+     * @param inputStream the text to process
+     * @param sink        receives the LostItems in file order
+     * @throws IOException thrown when the text could not be read
+     */
+    @Override
+    public void processStream(final InputStream inputStream, final LostItemSink sink) throws IOException {
+        try (LostItemReader reader = new LostItemReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            sink.acceptAll(reader);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses the mapped regions of a file, in parallel chunks or sequentially depending on their size.
+     *
+     * @param file   the path of the file to process
+     * @param sink   receives the LostItems in file order
+     * @param digest receives every region after it is parsed, or null to not hash the file
+     * @throws IOException thrown when the file could not be read
+     */
+    private void processRegions(final Path file, final LostItemSink sink, final MessageDigest digest)
+            throws IOException {
+        long[] linesInFront = {0};
+        forEachRegion(file, region -> {
+            ByteBuffer content = region.duplicate();
+            if (region.remaining() >= parallelThreshold.toBytes()) {
+                linesInFront[0] = ParallelLostItemParser.parseLostItems(
+                        region, chunkSize(), ForkJoinPool.commonPool(), sink, linesInFront[0]
+                );
+            } else {
+                LostItemByteScanner scanner = new LostItemByteScanner(region, linesInFront[0]);
+                sink.acceptAll(scanner);
+                linesInFront[0] = scanner.getLineNumber();
+            }
+            if (digest != null) {
+                digest.update(content);
+            }
+        });
+    }
+
+    /**
+     * Memory-maps the file in regions of at most maxMappedRegionSize bytes, which are cut at the last complete
+     * LostItem.
+     *
+     * @param file     the path of the file to map
+     * @param consumer receives every region in file order
+     * @throws IOException thrown when the file could not be read
+     */
+    private void forEachRegion(final Path file, final RegionConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(size - position, maxMappedRegionSize);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                // Only parse up to the last complete LostItem, the rest is mapped again with the next region
+                if (position + length < size) {
+                    region.limit(ParallelLostItemParser.lastItemStart(region));
+                    if (region.limit() == 0) {
+                        throw new IOException("LostItem at offset " + position + " is too big to be mapped");
+                    }
+                }
+
+                consumer.accept(region);
+                position += region.limit();
+            }
+        }
+    }
+
+    /**
+     * Processes UTF-8 text which is already available as bytes, returning the LostItems in a List. Buffers of at least
+     * the parallel-threshold are split in chunks and parsed concurrently on the common ForkJoinPool, which returns the
+     * same List as the sequential parse.
+     *
+     * @param buffer the UTF-8 encoded text to process, from its position up to its limit
+     * @return a List of LostItems
+     */
+    public List<LostItem> processBuffer(final ByteBuffer buffer) {
+        if (buffer.remaining() >= parallelThreshold.toBytes()) {
+            return ParallelLostItemParser.parseLostItems(buffer, chunkSize(), ForkJoinPool.commonPool());
+        }
+        return LostItemParser.parseLostItems(buffer).collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the configured parallel-chunk-size as an int.
+     *
+     * @return the minimum size of a parallel chunk in bytes
+     */
+    private int chunkSize() {
+        return Math.clamp(parallelChunkSize.toBytes(), 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Processes a single memory-mapped region of a file.
+     */
+    @FunctionalInterface
+    private interface RegionConsumer {
+        /**
+         * Processes the region.
+         *
+         * @param region the mapped bytes, only containing complete LostItems
+         * @throws IOException thrown when the region could not be processed
+         */
+        void accept(ByteBuffer region) throws IOException;
     }
 }
@@ -0,0 +1,95 @@
+package dev.riemer.lostandfound.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.util.Date;
+
+/**
+ * Represents the import of a file, identified by the SHA-256 hash of its content. Used to recognize repeated uploads of
+ * the same file, so retries do not insert the same LostItems again.
+ * <p>
+ * The ImportedFile is stored before the first batch of LostItems. Every batch adds its LostItems to recordsImported in
+ * the transaction which saves them, so the count always matches the committed LostItems. A retry of a failed import
+ * claims the ImportedFile with a new attempt and continues after the counted LostItems, batches of an older attempt
+ * are rejected from then on.
+ * <p>
+ * A file on the local filesystem is hashed while it is imported, so its hash is only stored once the import is done.
+ * Until then its import is identified by the source, the path, size and modification time of the file.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(
+        name = "imported_files",
+        indexes = @Index(name = "ix_imported_files_content_length", columnList = "content_length")
+)
+public class ImportedFile {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true, length = 64)
+    private String sha256;
+
+    @Column(nullable = false)
+    private long contentLength;
+
+    @Column(unique = true, length = 1024)
+    private String source;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(nullable = false)
+    private int attempt;
+
+    @Column(nullable = false)
+    private int recordsImported;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private Date createdAt;
+
+    @UpdateTimestamp
+    private Date updatedAt;
+
+    /**
+     * The state of an import.
+     */
+    public enum Status {
+        /**
+         * The LostItems are being imported, or the application stopped during the import.
+         */
+        IN_PROGRESS,
+        /**
+         * All LostItems of the file are imported.
+         */
+        DONE,
+        /**
+         * The import failed, the LostItems counted by recordsImported are committed.
+         */
+        FAILED
+    }
+
+    /**
+     * Constructs the first attempt to import a file, before any LostItem is imported.
+     *
+     * @param sha256        the hex encoded SHA-256 hash of the file content, or null if it is hashed during the import
+     * @param contentLength the size of the file in bytes
+     * @param source        identifies a local file which is hashed during the import, or null
+     */
+    public ImportedFile(final String sha256, final long contentLength, final String source) {
+        this.sha256 = sha256;
+        this.contentLength = contentLength;
+        this.source = source;
+        this.status = Status.IN_PROGRESS;
+        this.attempt = 1;
+    }
+}
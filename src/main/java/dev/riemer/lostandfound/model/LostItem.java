@@ -10,16 +10,31 @@ import org.hibernate.annotations.UpdateTimestamp;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
 /**
- * Represents a LostItem entry in the database. Has a name, a quantity and a Place
+ * Represents a LostItem entry in the database. Has a name, a quantity and a Place. The Place references a row in the
+ * places table by a foreign key, which is indexed so LostItems can be filtered by Place. The Place is loaded lazily,
+ * queries which convert LostItems to DTOs fetch it together with the LostItems. Parsed LostItems only carry the place
+ * name as spelled in the import, imports resolve it to the stored Place before the LostItem is saved.
+ * <p>
+ * Merging imports add their quantity to the merge target of the same normalized name and Place. The normalized name,
+ * Place and merge target form a unique key, so there is at most one merge target per name and Place. LostItems which
+ * are not a merge target leave it null, which never collides in the key, so imports can still insert any number of
+ * them.
  */
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "lost_items")
+@Table(
+        name = "lost_items",
+        indexes = {
+                @Index(name = "ix_lost_items_place", columnList = "place_id, id"),
+                @Index(name = "ux_lost_items_merge_key", columnList = "item_key, place_id, merge_target", unique = true)
+        }
+)
 public class LostItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -31,8 +46,17 @@ public class LostItem {
     @Column(nullable = false)
     private int quantity;
 
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "place_id", nullable = false, foreignKey = @ForeignKey(name = "fk_lost_items_place"))
+    private Place place;
+
+    @Transient
+    private String placeName;
+
     @Column(nullable = false)
-    private String place;
+    private String itemKey;
+
+    private Boolean mergeTarget;
 
     @OneToMany(fetch = FetchType.LAZY, mappedBy = "lostItem")
     private List<LostItemClaim> claims;
@@ -43,4 +67,53 @@ public class LostItem {
 
     @UpdateTimestamp
     private Date updatedAt;
+
+    /**
+     * Keeps the normalized key in sync with the name, the Place is normalized by the places table.
+     */
+    @PrePersist
+    @PreUpdate
+    void updateKeys() {
+        itemKey = normalizeKey(itemName);
+    }
+
+    /**
+     * Normalizes a name or Place for the indexed key, " Town  Hall" and "town hall" are the same Place. Runs for every
+     * imported LostItem, so the whitespace is collapsed in a single pass instead of with a regex.
+     *
+     * @param value the name or Place to normalize
+     * @return the trimmed, lower-cased value with single spaces, or null
+     */
+    public static String normalizeKey(final String value) {
+        if (value == null) {
+            return null;
+        }
+        String stripped = value.strip();
+        StringBuilder key = new StringBuilder(stripped.length());
+        boolean space = false;
+        for (int i = 0; i < stripped.length(); i++) {
+            char c = stripped.charAt(i);
+            if (isSpace(c)) {
+                if (!space) {
+                    key.append(' ');
+                }
+                space = true;
+            } else {
+                key.append(c);
+                space = false;
+            }
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Checks whether a character is collapsed within a key, the whitespace a regex matches with \s.
+     *
+     * @param c the character to check
+     * @return true for a space, tab, line break, vertical tab or form-feed
+     */
+    private static boolean isSpace(final char c) {
+        // Tab, line-feed, vertical tab, form-feed and carriage return are adjacent in ASCII
+        return c == ' ' || c >= '\t' && c <= '\r';
+    }
 }
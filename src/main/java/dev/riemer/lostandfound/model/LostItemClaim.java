@@ -12,14 +12,18 @@ import java.util.Date;
 
 /**
  * Represents the claim of a LostItem by a User.
- * Note that a LostItem can be claimed multiple times, and a User can claim multiple items.
+ * Note that a LostItem can be claimed multiple times, and a User can claim multiple items. Claims are indexed by
+ * LostItem, so the claims of a page of LostItems are looked up at once.
  */
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "lost_item_claims")
+@Table(
+        name = "lost_item_claims",
+        indexes = @Index(name = "ix_lost_item_claims_lost_item", columnList = "lost_item_id")
+)
 public class LostItemClaim {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,41 @@
+package dev.riemer.lostandfound.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Represents a Place where LostItems are found. LostItems only store the small id of their Place, so the few hundred
+ * station names are stored once instead of on every LostItem row. Places are compared by their normalized name, the
+ * first spelling imported is kept.
+ * <p>
+ * Parsers only carry the name of the Place as spelled in the import, which is resolved to the stored Place by the
+ * PlaceDictionary before the LostItems are saved.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "places")
+public class Place {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(unique = true, nullable = false)
+    private String nameKey;
+
+    /**
+     * Constructs a Place which is not stored yet.
+     *
+     * @param name the name of the Place as spelled in the import
+     */
+    public Place(final String name) {
+        this.name = name;
+        this.nameKey = LostItem.normalizeKey(name);
+    }
+}
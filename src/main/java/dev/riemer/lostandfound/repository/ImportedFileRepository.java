@@ -0,0 +1,102 @@
+package dev.riemer.lostandfound.repository;
+
+import dev.riemer.lostandfound.model.ImportedFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.Optional;
+
+/**
+ * JPA Repository for getting ImportedFile Entities.
+ */
+@Repository
+public interface ImportedFileRepository extends JpaRepository<ImportedFile, Long> {
+    /**
+     * Retrieves the earlier import of a file by the hash of its content.
+     *
+     * @param sha256 the hex encoded SHA-256 hash of the file content
+     * @return returns the ImportedFile if the content was imported before
+     */
+    Optional<ImportedFile> findBySha256(String sha256);
+
+    /**
+     * Retrieves the import of a local file which is hashed during the import, by its path, size and modification time.
+     *
+     * @param source identifies the local file
+     * @return returns the ImportedFile if the file was imported before
+     */
+    Optional<ImportedFile> findBySource(String source);
+
+    /**
+     * Checks whether content of a size was imported before. Only content of the same size can have the same hash.
+     *
+     * @param contentLength the size of the content in bytes
+     * @return true if an import of that size is stored
+     */
+    boolean existsByContentLength(long contentLength);
+
+    /**
+     * Checks whether a local file of a size is being imported, which is only hashed once its import is done. Imports
+     * which committed no batch since staleBefore are not counted.
+     *
+     * @param contentLength the size of the content in bytes
+     * @param staleBefore   imports which committed no batch since then are not counted
+     * @return true if such an import is running
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT COUNT(*) > 0 FROM imported_files
+            WHERE sha256 IS NULL AND content_length = :contentLength
+            AND status = 'IN_PROGRESS' AND updated_at >= :staleBefore""")
+    boolean existsUnhashedInProgress(long contentLength, Date staleBefore);
+
+    /**
+     * Claims an import for a new attempt, if it failed or committed no batch since staleBefore, e.g. because the
+     * application stopped during the import. Only a single caller can claim the same attempt.
+     *
+     * @param id          the id of the ImportedFile
+     * @param attempt     the attempt which was read before the claim
+     * @param staleBefore imports in progress which committed no batch since then are claimed too
+     * @param now         the time of the claim
+     * @return 1 if the import was claimed, else 0
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE imported_files SET status = 'IN_PROGRESS', attempt = attempt + 1, updated_at = :now
+            WHERE id = :id AND attempt = :attempt
+            AND (status = 'FAILED' OR status = 'IN_PROGRESS' AND updated_at < :staleBefore)""")
+    int claim(long id, int attempt, Date staleBefore, Date now);
+
+    /**
+     * Marks an attempt of an import as finished, unless a later attempt claimed the import.
+     *
+     * @param id      the id of the ImportedFile
+     * @param attempt the attempt which finished
+     * @param status  DONE or FAILED
+     * @return 1 if the status was updated, else 0
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportedFile f SET f.status = :status WHERE f.id = :id AND f.attempt = :attempt")
+    int finish(long id, int attempt, ImportedFile.Status status);
+
+    /**
+     * Marks an attempt of an import of a local file as done and stores the hash computed during the import, unless a
+     * later attempt claimed the import.
+     *
+     * @param id      the id of the ImportedFile
+     * @param attempt the attempt which finished
+     * @param sha256  the hex encoded SHA-256 hash of the file content
+     * @return 1 if the import was updated, else 0
+     */
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE imported_files SET sha256 = :sha256, status = 'DONE'
+            WHERE id = :id AND attempt = :attempt""")
+    int finishHashed(long id, int attempt, String sha256);
+}
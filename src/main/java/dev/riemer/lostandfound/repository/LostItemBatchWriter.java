@@ -0,0 +1,323 @@
+package dev.riemer.lostandfound.repository;
+
+import dev.riemer.lostandfound.model.ImportedFile;
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * Saves big amounts of LostItems with JDBC batches. LostItem ids are generated by an IDENTITY column, which makes
+ * Hibernate insert every entity with its own statement. This writer bypasses the persistence context instead, so
+ * nothing is cached per row and every batch is sent to the database in a single round trip.
+ * <p>
+ * LostItems are either inserted as they are, or merged into the existing LostItems. Manifests list the same item at
+ * the same Place many times, so a merged batch is aggregated by the normalized name and Place id first. Every
+ * aggregated row is upserted with a single MERGE on the unique merge key: its quantity is added to the merge target
+ * with the same name and Place, or it is inserted as the new merge target. Sums which do not fit the quantity column
+ * are rejected, instead of wrapping around. Concurrent merges lock the same LostItems in the same order, and a batch
+ * which loses the race to insert a new merge target is retried, so it adds to that merge target instead.
+ * <p>
+ * Every batch is committed in its own transaction, so neither the transaction nor its locks grow with the import. The
+ * batch adds its LostItems to the ImportedFile of the import in the same transaction, a failed import can be resumed
+ * after its last committed batch. The ids are not read back, the saved LostItems are not managed entities either.
+ */
+@Repository
+public class LostItemBatchWriter {
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final String INSERT_SQL = """
+            INSERT INTO lost_items (item_name, quantity, place_id, item_key, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String MERGE_SQL = """
+            MERGE INTO lost_items t
+            USING (VALUES (CAST(? AS VARCHAR), CAST(? AS INT), CAST(? AS INT), CAST(? AS VARCHAR),
+                    CAST(? AS TIMESTAMP))) AS s (item_name, quantity, place_id, item_key, saved_at)
+            ON t.item_key = s.item_key AND t.place_id = s.place_id AND t.merge_target = TRUE
+            WHEN MATCHED AND t.quantity <= %d - s.quantity THEN
+                UPDATE SET quantity = t.quantity + s.quantity, updated_at = s.saved_at
+            WHEN NOT MATCHED THEN
+                INSERT (item_name, quantity, place_id, item_key, merge_target, created_at, updated_at)
+                VALUES (s.item_name, s.quantity, s.place_id, s.item_key, TRUE, s.saved_at, s.saved_at)
+            """.formatted(Integer.MAX_VALUE);
+    private static final String CHECKPOINT_SQL = """
+            UPDATE imported_files SET records_imported = records_imported + ?, updated_at = ?
+            WHERE id = ? AND attempt = ?
+            """;
+    private static final int ITEM_NAME_INDEX = 1;
+    private static final int QUANTITY_INDEX = 2;
+    private static final int PLACE_ID_INDEX = 3;
+    private static final int ITEM_KEY_INDEX = 4;
+    private static final int CREATED_AT_INDEX = 5;
+    private static final int UPDATED_AT_INDEX = 6;
+    private static final int SAVED_AT_INDEX = 5;
+    private static final int MAX_MERGE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PlaceDictionary placeDictionary;
+
+    @Value("${lostandfound.import.batch-size:1000}")
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Constructor of LostItemBatchWriter.
+     *
+     * @param jdbcTemplate       injected JdbcTemplate
+     * @param transactionManager injected PlatformTransactionManager
+     * @param placeDictionary    injected PlaceDictionary
+     */
+    public LostItemBatchWriter(
+            final JdbcTemplate jdbcTemplate,
+            final PlatformTransactionManager transactionManager,
+            final PlaceDictionary placeDictionary
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.placeDictionary = placeDictionary;
+    }
+
+    /**
+     * Returns the configured number of rows per batch, so callers can collect LostItems in batches of the same size.
+     *
+     * @return the batch size
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Inserts all LostItems as new rows in batches of batch-size LostItems, reporting every committed batch.
+     *
+     * @param lostItems    the LostItems to insert
+     * @param importedFile the import which counts the committed LostItems, or null
+     * @param written      called with the number of LostItems in every committed batch
+     * @return the number of inserted LostItems
+     * @throws OptimisticLockingFailureException thrown when a later attempt claimed the import
+     */
+    public int insertAll(final List<LostItem> lostItems, final ImportedFile importedFile, final IntConsumer written) {
+        int size = Math.max(batchSize, 1);
+        for (int start = 0; start < lostItems.size(); start += size) {
+            List<LostItem> batch = lostItems.subList(start, Math.min(start + size, lostItems.size()));
+            List<Row> rows = new ArrayList<>(batch.size());
+            for (LostItem lostItem : batch) {
+                Row row = row(lostItem);
+                row.quantity = lostItem.getQuantity();
+                rows.add(row);
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            transactionTemplate.executeWithoutResult(status -> {
+                insertRows(rows, now);
+                checkpoint(importedFile, batch.size(), now);
+            });
+            written.accept(batch.size());
+        }
+        return lostItems.size();
+    }
+
+    /**
+     * Merges all LostItems in batches of batch-size LostItems, reporting every committed batch.
+     *
+     * @param lostItems    the LostItems to merge
+     * @param importedFile the import which counts the committed LostItems, or null
+     * @param written      called with the number of LostItems in every committed batch, before aggregation
+     * @return the number of merged LostItems, before aggregation
+     * @throws ArithmeticException               thrown when the total quantity of a LostItem does not fit an int
+     * @throws OptimisticLockingFailureException thrown when a later attempt claimed the import
+     */
+    public int mergeAll(final List<LostItem> lostItems, final ImportedFile importedFile, final IntConsumer written) {
+        int size = Math.max(batchSize, 1);
+        for (int start = 0; start < lostItems.size(); start += size) {
+            List<LostItem> batch = lostItems.subList(start, Math.min(start + size, lostItems.size()));
+            List<Row> aggregated = aggregate(batch);
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        mergeRows(aggregated, now);
+                        checkpoint(importedFile, batch.size(), now);
+                    });
+                    break;
+                } catch (DuplicateKeyException | PessimisticLockingFailureException e) {
+                    // A concurrent merge inserted a merge target of this batch first, the retry adds to it instead
+                    if (attempt == MAX_MERGE_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+            written.accept(batch.size());
+        }
+        return lostItems.size();
+    }
+
+    /**
+     * Sums the quantities of LostItems with the same normalized name and Place. The first LostItem of every key keeps
+     * its spelling of the name. The Rows are sorted by key, so concurrent merges lock their LostItems in the same order
+     * and cannot deadlock.
+     *
+     * @param batch the LostItems to aggregate
+     * @return a single Row per key
+     */
+    private List<Row> aggregate(final List<LostItem> batch) {
+        Map<String, Row> aggregated = new LinkedHashMap<>();
+        for (LostItem lostItem : batch) {
+            Row first = row(lostItem);
+            Row row = aggregated.computeIfAbsent(first.key(), key -> first);
+            try {
+                row.quantity = Math.addExact(row.quantity, lostItem.getQuantity());
+            } catch (ArithmeticException e) {
+                throw quantityOverflow(row);
+            }
+        }
+        List<Row> rows = new ArrayList<>(aggregated.values());
+        rows.sort(Comparator.comparing(Row::key));
+        return rows;
+    }
+
+    /**
+     * Creates an empty Row for a LostItem, resolving the place name of a parsed LostItem through the PlaceDictionary.
+     *
+     * @param lostItem the LostItem to save
+     * @return a Row with quantity 0
+     */
+    private Row row(final LostItem lostItem) {
+        Place place = lostItem.getPlace();
+        if (place == null) {
+            place = placeDictionary.resolve(lostItem.getPlaceName());
+        }
+        return new Row(LostItem.normalizeKey(lostItem.getItemName()), place, lostItem.getItemName());
+    }
+
+    /**
+     * Sends a single batch of MERGE statements, which add the quantity of every Row to its merge target or insert the
+     * Row as the new merge target.
+     *
+     * @param rows the aggregated Rows to merge
+     * @param now  the time to save as creation or update time
+     * @throws ArithmeticException thrown when the sum of a Row and its merge target does not fit an int
+     */
+    private void mergeRows(final List<Row> rows, final Timestamp now) {
+        int[][] merged = jdbcTemplate.batchUpdate(MERGE_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setString(ITEM_NAME_INDEX, row.itemName);
+            statement.setInt(QUANTITY_INDEX, row.quantity);
+            statement.setInt(PLACE_ID_INDEX, row.place.getId());
+            statement.setString(ITEM_KEY_INDEX, row.itemKey);
+            statement.setTimestamp(SAVED_AT_INDEX, now);
+        });
+        int index = 0;
+        for (int[] counts : merged) {
+            for (int count : counts) {
+                // A merge target without room for the sum is neither updated nor inserted
+                if (count == 0) {
+                    throw quantityOverflow(rows.get(index));
+                }
+                index++;
+            }
+        }
+    }
+
+    /**
+     * Sends a single batch of INSERT statements.
+     *
+     * @param rows the Rows to insert
+     * @param now  the time to save as creation and update time
+     */
+    private void insertRows(final List<Row> rows, final Timestamp now) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (statement, row) -> {
+            statement.setString(ITEM_NAME_INDEX, row.itemName);
+            statement.setInt(QUANTITY_INDEX, row.quantity);
+            statement.setInt(PLACE_ID_INDEX, row.place.getId());
+            statement.setString(ITEM_KEY_INDEX, row.itemKey);
+            statement.setTimestamp(CREATED_AT_INDEX, now);
+            statement.setTimestamp(UPDATED_AT_INDEX, now);
+        });
+    }
+
+    /**
+     * Adds the LostItems of a batch to the count of the import, in the transaction of the batch.
+     *
+     * @param importedFile the import which counts the committed LostItems, or null
+     * @param count        the number of LostItems in the batch
+     * @param now          the time of the batch
+     * @throws OptimisticLockingFailureException thrown when a later attempt claimed the import, rolling back the batch
+     */
+    private void checkpoint(final ImportedFile importedFile, final int count, final Timestamp now) {
+        if (importedFile == null) {
+            return;
+        }
+        int updated = jdbcTemplate.update(CHECKPOINT_SQL, count, now, importedFile.getId(), importedFile.getAttempt());
+        if (updated == 0) {
+            throw new OptimisticLockingFailureException("Import of " + importedFile.getSha256()
+                    + " was claimed by a later attempt");
+        }
+    }
+
+    /**
+     * Builds the aggregation key of a name and Place.
+     *
+     * @param itemKey the normalized item name
+     * @param placeId the id of the Place
+     * @return the key
+     */
+    private static String key(final String itemKey, final int placeId) {
+        // A null char cannot occur in the item key, so it separates the key and the Place id unambiguously
+        return itemKey + '\0' + placeId;
+    }
+
+    /**
+     * Creates the error for a total quantity which does not fit the quantity column.
+     *
+     * @param row the Row whose quantity overflows
+     * @return the exception to throw
+     */
+    private static ArithmeticException quantityOverflow(final Row row) {
+        return new ArithmeticException("Total quantity of " + row.itemName + " at " + row.place.getName()
+                + " exceeds " + Integer.MAX_VALUE);
+    }
+
+    /**
+     * The quantity of a single name and Place within a batch.
+     */
+    private static final class Row {
+        private final String itemKey;
+        private final Place place;
+        private final String itemName;
+        private int quantity;
+
+        /**
+         * Constructs an empty Row.
+         *
+         * @param itemKey  the normalized item name
+         * @param place    the stored Place
+         * @param itemName the item name as spelled by the first LostItem
+         */
+        Row(final String itemKey, final Place place, final String itemName) {
+            this.itemKey = itemKey;
+            this.place = place;
+            this.itemName = itemName;
+        }
+
+        /**
+         * Returns the aggregation key of this Row.
+         *
+         * @return the key
+         */
+        String key() {
+            return LostItemBatchWriter.key(itemKey, place.getId());
+        }
+    }
+}
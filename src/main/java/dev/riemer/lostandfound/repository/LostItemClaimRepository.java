@@ -4,8 +4,12 @@ import dev.riemer.lostandfound.model.LostItem;
 import dev.riemer.lostandfound.model.LostItemClaim;
 import dev.riemer.lostandfound.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * JPA Repository for getting LostItemClaim Entities.
  */
@@ -19,4 +23,44 @@ public interface LostItemClaimRepository extends JpaRepository<LostItemClaim, Lo
      * @return true if there is a LostItemClaim already for this User+LostItem combination
      */
     boolean existsByUserAndLostItem(User user, LostItem lostItem);
+
+    /**
+     * Finds the claims on the given LostItems together with the username of the claiming User, in a single query
+     * instead of loading every claim and User Entity.
+     *
+     * @param lostItemIds the ids of the LostItems
+     * @return the claims in order of LostItem and claim
+     */
+    @Query("""
+            SELECT c.lostItem.id AS lostItemId, u.username AS username, c.quantity AS quantity
+            FROM LostItemClaim c JOIN c.user u
+            WHERE c.lostItem.id IN :lostItemIds
+            ORDER BY c.lostItem.id, c.id""")
+    List<ClaimSummary> findSummariesByLostItemIdIn(Collection<Long> lostItemIds);
+
+    /**
+     * Projection of a LostItemClaim with the username of its User.
+     */
+    interface ClaimSummary {
+        /**
+         * Returns the id of the claimed LostItem.
+         *
+         * @return the LostItem id
+         */
+        Long getLostItemId();
+
+        /**
+         * Returns the username of the User who made the claim.
+         *
+         * @return the username
+         */
+        String getUsername();
+
+        /**
+         * Returns the claimed quantity.
+         *
+         * @return the quantity
+         */
+        int getQuantity();
+    }
 }
@@ -1,12 +1,61 @@
 package dev.riemer.lostandfound.repository;
 
 import dev.riemer.lostandfound.model.LostItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * JPA Repository for getting LostItem Entities.
  */
 @Repository
 public interface LostItemRepository extends JpaRepository<LostItem, Long> {
+    /**
+     * The number of rows fetched per round trip when streaming LostItems.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Finds a page of LostItems after the given id, in order of id. Reads a range of the primary key index, so every
+     * page takes the same time however deep it is.
+     *
+     * @param afterId the id of the last LostItem of the previous page, 0 for the first page
+     * @param limit   the maximum number of LostItems
+     * @return the LostItems of the page, with their Place
+     */
+    @EntityGraph(attributePaths = "place")
+    List<LostItem> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    /**
+     * Finds a page of LostItems at a Place after the given id, in order of id. Reads a range of the Place index.
+     *
+     * @param placeId the id of the Place
+     * @param afterId the id of the last LostItem of the previous page, 0 for the first page
+     * @param limit   the maximum number of LostItems
+     * @return the LostItems of the page, with their Place
+     */
+    @EntityGraph(attributePaths = "place")
+    List<LostItem> findByPlaceIdAndIdGreaterThanOrderByIdAsc(int placeId, long afterId, Limit limit);
+
+    /**
+     * Streams all LostItems with their Place in order of id over a forward-only cursor, fetching STREAM_FETCH_SIZE
+     * rows per round trip. The LostItems are loaded read-only, so Hibernate keeps no snapshots of them. Must be called
+     * within a transaction and the Stream must be closed.
+     *
+     * @return a Stream of all LostItems
+     */
+    @Query("SELECT i FROM LostItem i JOIN FETCH i.place ORDER BY i.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LostItem> streamAllByOrderByIdAsc();
 }
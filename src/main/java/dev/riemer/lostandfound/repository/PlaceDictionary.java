@@ -0,0 +1,161 @@
+package dev.riemer.lostandfound.repository;
+
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory dictionary of the places table, mapping Place names to their stored Place and back from their id. Names
+ * are looked up by their normalized form, and every Place is represented by a single canonical instance. Imports
+ * resolve the Places of parsed LostItems through this dictionary, so millions of LostItems share a few hundred Places
+ * on the heap and the writer only needs their ids.
+ * <p>
+ * Places never change once created. Unknown Places are only inserted by resolve, which imports call explicitly before
+ * their LostItems are saved, reads never create a Place. A Place which is looked up or created within a transaction is
+ * only cached once that transaction commits, so a rolled back import never leaves an id in the dictionary which does
+ * not exist in the database. At most max-cached Places are cached, further Places are read from the database on every
+ * lookup.
+ */
+@Repository
+public class PlaceDictionary {
+    private static final int DEFAULT_MAX_CACHED = 10_000;
+    private static final String MERGE_SQL = """
+            MERGE INTO places t
+            USING (VALUES (CAST(? AS VARCHAR), CAST(? AS VARCHAR))) AS s (name, name_key)
+            ON t.name_key = s.name_key
+            WHEN NOT MATCHED THEN INSERT (name, name_key) VALUES (s.name, s.name_key)
+            """;
+    private static final String SELECT_SQL = "SELECT id, name, name_key FROM places WHERE name_key = ?";
+    private static final String SELECT_BY_ID_SQL = "SELECT id, name, name_key FROM places WHERE id = ?";
+    private static final RowMapper<Place> PLACE_MAPPER = (resultSet, rowNum) -> {
+        Place place = new Place();
+        place.setId(resultSet.getInt("id"));
+        place.setName(resultSet.getString("name"));
+        place.setNameKey(resultSet.getString("name_key"));
+        return place;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<String, Place> placesByKey = new ConcurrentHashMap<>();
+    private final Map<Integer, Place> placesById = new ConcurrentHashMap<>();
+
+    @Value("${lostandfound.places.max-cached:10000}")
+    private int maxCached = DEFAULT_MAX_CACHED;
+
+    /**
+     * Constructor of PlaceDictionary.
+     *
+     * @param jdbcTemplate injected JdbcTemplate
+     */
+    public PlaceDictionary(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Returns the stored Place for a name, inserting the Place if it does not exist yet. Takes part in the current
+     * transaction, if any. Concurrent calls for the same new Place insert it only once: the MERGE matches on the
+     * unique normalized name, and a call whose insert collides with a concurrent insert reads the Place that won.
+     *
+     * @param name the name of the Place, in any spelling
+     * @return the stored Place, shared by all LostItems of this Place and not to be modified
+     */
+    public Place resolve(final String name) {
+        String key = LostItem.normalizeKey(name);
+        Place cached = placesByKey.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            jdbcTemplate.update(MERGE_SQL, name.strip(), key);
+        } catch (DuplicateKeyException e) {
+            // A concurrent call inserted the same Place after this MERGE found no match
+        }
+        return load(key).map(this::cache).orElseThrow();
+    }
+
+    /**
+     * Looks up an existing Place, without creating it.
+     *
+     * @param name the name of the Place, in any spelling
+     * @return the stored Place, or empty if there is no such Place
+     */
+    public Optional<Place> find(final String name) {
+        String key = LostItem.normalizeKey(name);
+        Place cached = placesByKey.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return load(key).map(this::cache);
+    }
+
+    /**
+     * Looks up an existing Place by its id, like the place_id of a stored LostItem.
+     *
+     * @param id the id of the Place
+     * @return the stored Place, or empty if there is no such Place
+     */
+    public Optional<Place> findById(final int id) {
+        Place cached = placesById.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return jdbcTemplate.query(SELECT_BY_ID_SQL, PLACE_MAPPER, id).stream().findFirst().map(this::cache);
+    }
+
+    /**
+     * Reads a Place from the database.
+     *
+     * @param key the normalized name
+     * @return the Place, or empty if there is no such Place
+     */
+    private Optional<Place> load(final String key) {
+        return jdbcTemplate.query(SELECT_SQL, PLACE_MAPPER, key).stream().findFirst();
+    }
+
+    /**
+     * Caches a Place read from the database, right away or once the current transaction commits.
+     *
+     * @param place the Place read from the database
+     * @return the canonical instance of the Place if it is cached already, else the given Place
+     */
+    private Place cache(final Place place) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putIfAbsent(place);
+                }
+            });
+            return place;
+        }
+        return putIfAbsent(place);
+    }
+
+    /**
+     * Adds a Place to the cache under its name and its id, unless it holds max-cached Places already.
+     *
+     * @param place the committed Place
+     * @return the canonical instance of the Place
+     */
+    private Place putIfAbsent(final Place place) {
+        Place existing = placesByKey.get(place.getNameKey());
+        if (existing != null || placesByKey.size() >= maxCached) {
+            return existing != null ? existing : place;
+        }
+        existing = placesByKey.putIfAbsent(place.getNameKey(), place);
+        Place canonical = existing != null ? existing : place;
+        placesById.putIfAbsent(canonical.getId(), canonical);
+        return canonical;
+    }
+}
@@ -1,6 +1,7 @@
 package dev.riemer.lostandfound.security;
 
 import dev.riemer.lostandfound.model.Role;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -47,6 +48,9 @@ public class SecurityConfig {
         http.csrf()
                 .disable()
                 .authorizeHttpRequests()
+                // Streamed responses are written in an async dispatch of a request which has been authorized already
+                .dispatcherTypeMatchers(DispatcherType.ASYNC)
+                .permitAll()
                 .requestMatchers("/auth/**")
                 .permitAll()
                 .requestMatchers("/h2-console/**")
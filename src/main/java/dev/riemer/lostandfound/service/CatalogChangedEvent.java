@@ -0,0 +1,10 @@
+package dev.riemer.lostandfound.service;
+
+/**
+ * Published when LostItems were imported or claimed, so the LostItemCatalogCache builds a new snapshot. Events
+ * published within a transaction are handled once it commits.
+ *
+ * @param cause short description of the change, for logging
+ */
+public record CatalogChangedEvent(String cause) {
+}
@@ -0,0 +1,204 @@
+package dev.riemer.lostandfound.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Server-side ingestion of LostItem files which are too big to upload. Watches a configured drop directory, imports
+ * every file placed in it and moves it to the "done" or "failed" subdirectory together with a summary report. Files
+ * are imported as ImportJobs, so they share the import slots and the duplicate detection with the uploads.
+ * <p>
+ * Files are picked up as soon as they appear, so depots should write them under a temporary name ending with ".part"
+ * (or starting with a dot) and rename them when complete. Only enabled when lostandfound.ingest.directory is set.
+ */
+@Service
+@ConditionalOnProperty("lostandfound.ingest.directory")
+public class DropDirectoryIngestionService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DropDirectoryIngestionService.class);
+    private static final String REPORT_SUFFIX = ".report.txt";
+
+    private final ImportJobService importJobService;
+    private final Path directory;
+    private final Path doneDirectory;
+    private final Path failedDirectory;
+    private Thread watcherThread;
+
+    /**
+     * Constructor of DropDirectoryIngestionService.
+     *
+     * @param importJobService injected ImportJobService
+     * @param directory        the drop directory to watch, configured by lostandfound.ingest.directory
+     */
+    public DropDirectoryIngestionService(
+            final ImportJobService importJobService,
+            final @Value("${lostandfound.ingest.directory}") Path directory
+    ) {
+        this.importJobService = importJobService;
+        this.directory = directory;
+        this.doneDirectory = directory.resolve("done");
+        this.failedDirectory = directory.resolve("failed");
+    }
+
+    /**
+     * Creates the directories and starts watching the drop directory once the application is ready.
+     *
+     * @throws IOException thrown when the directories could not be created
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        Files.createDirectories(doneDirectory);
+        Files.createDirectories(failedDirectory);
+
+        watcherThread = Thread.ofPlatform()
+                .name("drop-directory-ingestion")
+                .daemon()
+                .start(this::watch);
+    }
+
+    /**
+     * Stops watching the drop directory. A file which is being imported stays in the drop directory and is ingested
+     * again after a restart, where its earlier import is recognized if it completed.
+     */
+    @PreDestroy
+    public void stop() {
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+
+    /**
+     * Imports a single file from the drop directory and moves it with its report to the done or failed directory, once
+     * its ImportJob finished. Directories, hidden files and files still being written (ending with .part) are skipped.
+     *
+     * @param file the file to import
+     */
+    public void ingest(final Path file) {
+        String fileName = file.getFileName().toString();
+        if (!Files.isRegularFile(file) || fileName.startsWith(".") || fileName.endsWith(".part")
+                || Thread.currentThread().isInterrupted()) {
+            return;
+        }
+
+        Instant started = Instant.now();
+        StringBuilder report = new StringBuilder();
+        report.append("File: ").append(fileName).append('\n');
+        Path targetDirectory;
+
+        try {
+            report.append("Bytes: ").append(Files.size(file)).append('\n');
+            ImportJob job = importJobService.submitLocalFile(file);
+            job.awaitFinished();
+
+            report.append("Job: ").append(job.getId()).append('\n');
+            if (job.getState() == ImportJob.State.DONE) {
+                report.append("Status: DONE\n");
+                report.append("Items: ").append(job.getRecordsSaved()).append('\n');
+                report.append("Rejected: ").append(job.getRecordsRejected()).append('\n');
+                if (job.isDuplicate()) {
+                    report.append("DuplicateOf: ").append(job.getOriginalImportedAt()).append('\n');
+                }
+                targetDirectory = doneDirectory;
+            } else {
+                report.append("Status: FAILED\n");
+                report.append("Error: ").append(job.getError()).append('\n');
+                targetDirectory = failedDirectory;
+            }
+        } catch (InterruptedException e) {
+            // The job may still be reading the file, so it is left in place
+            Thread.currentThread().interrupt();
+            return;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to ingest {}", file, e);
+            report.append("Status: FAILED\n");
+            report.append("Error: ").append(e.getMessage()).append('\n');
+            targetDirectory = failedDirectory;
+        }
+        report.append("Started: ").append(started).append('\n');
+        report.append("DurationMs: ").append(Duration.between(started, Instant.now()).toMillis()).append('\n');
+
+        try {
+            Path target = uniqueTarget(targetDirectory, fileName);
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.writeString(target.resolveSibling(target.getFileName() + REPORT_SUFFIX), report);
+        } catch (IOException e) {
+            LOGGER.error("Failed to move {} to {}", file, targetDirectory, e);
+        }
+    }
+
+    /**
+     * Watches the drop directory and ingests every new file. Files which were already present are ingested first.
+     */
+    private void watch() {
+        try (WatchService watchService = directory.getFileSystem().newWatchService()) {
+            directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE);
+            ingestExistingFiles();
+
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Events were lost, fall back to scanning the whole directory
+                        ingestExistingFiles();
+                    } else {
+                        ingest(directory.resolve((Path) event.context()));
+                    }
+                }
+                if (!key.reset()) {
+                    LOGGER.error("Drop directory {} is no longer accessible, stopped watching", directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            LOGGER.error("Failed to watch drop directory {}", directory, e);
+        }
+    }
+
+    /**
+     * Ingests all files currently in the drop directory.
+     *
+     * @throws IOException thrown when the directory could not be listed
+     */
+    private void ingestExistingFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                ingest(file);
+            }
+        }
+    }
+
+    /**
+     * Picks a file name in the target directory which is not used yet, so earlier imports are never overwritten.
+     *
+     * @param targetDirectory the done or failed directory
+     * @param fileName        the original file name
+     * @return a path in the target directory which does not exist yet
+     */
+    private static Path uniqueTarget(final Path targetDirectory, final String fileName) {
+        Path target = targetDirectory.resolve(fileName);
+        for (int i = 1; Files.exists(target); i++) {
+            target = targetDirectory.resolve(fileName + "." + i);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,331 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import dev.riemer.lostandfound.model.ImportedFile;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bulk import which runs in the background. Keeps track of its state and progress, which are updated by the import
+ * thread and read by the status endpoint at the same time.
+ */
+public final class ImportJob implements ImportProgress {
+    /**
+     * The states an ImportJob goes through.
+     */
+    public enum State {
+        /**
+         * Waiting for a free import slot.
+         */
+        QUEUED,
+        /**
+         * Parsing and saving the file.
+         */
+        RUNNING,
+        /**
+         * All LostItems are saved.
+         */
+        DONE,
+        /**
+         * The import stopped with an error, see the error message.
+         */
+        FAILED
+    }
+
+    /**
+     * A record which was skipped by a lenient import.
+     *
+     * @param lineNumber the line on which the record starts
+     * @param reason     why the record is invalid
+     */
+    public record RejectedRecord(long lineNumber, String reason) {
+    }
+
+    private final String id;
+    private final String fileName;
+    private final String sha256;
+    private final boolean lenient;
+    private final boolean merge;
+    private final int maxRejectedRecords;
+    private final Instant createdAt = Instant.now();
+    private final AtomicLong recordsParsed = new AtomicLong();
+    private final AtomicLong recordsSaved = new AtomicLong();
+    private final AtomicLong recordsRejected = new AtomicLong();
+    private final List<RejectedRecord> rejectedRecords = new ArrayList<>();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Instant originalImportedAt;
+
+    /**
+     * Constructs a new queued strict ImportJob, which stops at the first invalid record and inserts the LostItems.
+     *
+     * @param id       the unique id of the job
+     * @param fileName the original name of the imported file
+     * @param sha256   the hex encoded SHA-256 hash of the file content
+     */
+    public ImportJob(final String id, final String fileName, final String sha256) {
+        this(id, fileName, sha256, false, false, 0);
+    }
+
+    /**
+     * Constructs a new queued ImportJob.
+     *
+     * @param id                 the unique id of the job
+     * @param fileName           the original name of the imported file
+     * @param sha256             the hex encoded SHA-256 hash of the file content, or null for a local file which is
+     *                           hashed during the import
+     * @param lenient            whether invalid records are skipped instead of failing the job
+     * @param merge              whether LostItems are merged into the existing LostItems instead of inserted
+     * @param maxRejectedRecords the maximum number of skipped records to report, all of them are counted
+     */
+    public ImportJob(
+            final String id,
+            final String fileName,
+            final String sha256,
+            final boolean lenient,
+            final boolean merge,
+            final int maxRejectedRecords
+    ) {
+        this.id = id;
+        this.fileName = fileName;
+        this.sha256 = sha256;
+        this.lenient = lenient;
+        this.merge = merge;
+        this.maxRejectedRecords = maxRejectedRecords;
+    }
+
+    @Override
+    public void parsed(final int count) {
+        recordsParsed.addAndGet(count);
+    }
+
+    @Override
+    public void saved(final int count) {
+        recordsSaved.addAndGet(count);
+    }
+
+    @Override
+    public void rejected(final LostItemParseException rejection) {
+        recordsRejected.incrementAndGet();
+        synchronized (rejectedRecords) {
+            if (rejectedRecords.size() < maxRejectedRecords) {
+                rejectedRecords.add(new RejectedRecord(rejection.getLineNumber(), rejection.getMessage()));
+            }
+        }
+    }
+
+    @Override
+    public void duplicateOf(final ImportedFile original) {
+        originalImportedAt = original.getCreatedAt().toInstant();
+        recordsParsed.set(original.getRecordsImported());
+        recordsSaved.set(original.getRecordsImported());
+    }
+
+    /**
+     * Marks the job as running.
+     */
+    void start() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    /**
+     * Marks the job as successfully finished.
+     */
+    void finish() {
+        finishedAt = Instant.now();
+        state = State.DONE;
+        finished.countDown();
+    }
+
+    /**
+     * Marks the job as failed.
+     *
+     * @param message the error message to report
+     */
+    void fail(final String message) {
+        error = message;
+        finishedAt = Instant.now();
+        state = State.FAILED;
+        finished.countDown();
+    }
+
+    /**
+     * Waits until the job is DONE or FAILED.
+     *
+     * @throws InterruptedException thrown when interrupted while waiting
+     */
+    public void awaitFinished() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Returns the unique id of the job.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the original name of the imported file.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the SHA-256 hash of the imported file.
+     *
+     * @return the hex encoded hash, or null for a local file which is hashed during the import
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    /**
+     * Returns whether invalid records are skipped instead of failing the job.
+     *
+     * @return true for a lenient import
+     */
+    public boolean isLenient() {
+        return lenient;
+    }
+
+    /**
+     * Returns whether LostItems are merged into the existing LostItems instead of inserted.
+     *
+     * @return true for a merging import
+     */
+    public boolean isMerge() {
+        return merge;
+    }
+
+    /**
+     * Returns whether the file was imported before, in which case the records of the earlier import are reported.
+     *
+     * @return true if nothing was imported because the file is a duplicate
+     */
+    public boolean isDuplicate() {
+        return originalImportedAt != null;
+    }
+
+    /**
+     * Returns when the file was imported before.
+     *
+     * @return the time of the earlier import, or null if the file is not a duplicate
+     */
+    public Instant getOriginalImportedAt() {
+        return originalImportedAt;
+    }
+
+    /**
+     * Returns the current state of the job.
+     *
+     * @return the state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of LostItems parsed so far.
+     *
+     * @return the parsed LostItems
+     */
+    public long getRecordsParsed() {
+        return recordsParsed.get();
+    }
+
+    /**
+     * Returns the number of LostItems saved so far. Every batch is committed as soon as it is saved.
+     *
+     * @return the saved LostItems
+     */
+    public long getRecordsSaved() {
+        return recordsSaved.get();
+    }
+
+    /**
+     * Returns the number of invalid records skipped so far.
+     *
+     * @return the skipped records, including the ones not reported
+     */
+    public long getRecordsRejected() {
+        return recordsRejected.get();
+    }
+
+    /**
+     * Returns the first skipped records, at most max-rejected-records of them.
+     *
+     * @return a copy of the reported records in file order
+     */
+    public List<RejectedRecord> getRejectedRecords() {
+        synchronized (rejectedRecords) {
+            return List.copyOf(rejectedRecords);
+        }
+    }
+
+    /**
+     * Returns the error message of a failed job.
+     *
+     * @return the error message, or null if the job did not fail
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Returns when the job was submitted.
+     *
+     * @return the creation time
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns when the job started running.
+     *
+     * @return the start time, or null if the job is still queued
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Returns when the job finished.
+     *
+     * @return the finish time, or null if the job did not finish yet
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Calculates the number of LostItems saved per second since the job started.
+     *
+     * @return the throughput, or 0 if the job did not start yet or the file is a duplicate
+     */
+    public double getRecordsPerSecond() {
+        Instant started = startedAt;
+        if (started == null || isDuplicate()) {
+            return 0;
+        }
+        Instant finished = finishedAt;
+        Duration elapsed = Duration.between(started, finished != null ? finished : Instant.now());
+        double seconds = Math.max(elapsed.toNanos(), 1) / (double) Duration.ofSeconds(1).toNanos();
+        return recordsSaved.get() / seconds;
+    }
+}
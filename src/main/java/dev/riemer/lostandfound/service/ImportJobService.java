@@ -0,0 +1,349 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.exceptions.ConflictException;
+import dev.riemer.lostandfound.fileprocessor.ContentTypes;
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs bulk imports in the background, so uploads return immediately instead of blocking the request thread until
+ * all LostItems are saved. Uploads are spooled to a temporary file and imported on virtual threads. At most
+ * max-concurrent-jobs imports run at once, the rest stay queued, so imports cannot take all database connections.
+ * <p>
+ * The SHA-256 hash of an upload is computed while it is spooled. Submitting a file while the same content is still
+ * being imported returns the running ImportJob, files imported before are recognized by the LostItemService. The same
+ * content submitted with other lenient or merge options is rejected, instead of silently returning the other result.
+ * Local files are hashed by the LostItemService while they are imported, so they are not read twice.
+ */
+@Service
+public class ImportJobService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportJobService.class);
+    private static final Duration DEFAULT_JOB_RETENTION = Duration.ofHours(1);
+    private static final int MAX_SPOOL_SUFFIX_LENGTH = 100;
+    private static final int DEFAULT_MAX_REJECTED_RECORDS = 100;
+
+    private final LostItemService lostItemService;
+    private final Semaphore runningJobs;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("import-job-", 0).factory()
+    );
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ImportJob> jobsBySha256 = new ConcurrentHashMap<>();
+
+    @Value("${lostandfound.import.job-retention:1h}")
+    private Duration jobRetention = DEFAULT_JOB_RETENTION;
+
+    @Value("${lostandfound.import.lenient:false}")
+    private boolean lenientByDefault;
+
+    @Value("${lostandfound.import.merge:false}")
+    private boolean mergeByDefault;
+
+    @Value("${lostandfound.import.max-rejected-records:100}")
+    private int maxRejectedRecords = DEFAULT_MAX_REJECTED_RECORDS;
+
+    /**
+     * Constructor of ImportJobService.
+     *
+     * @param lostItemService   injected LostItemService
+     * @param maxConcurrentJobs the maximum number of imports running at once, configured by
+     *                          lostandfound.import.max-concurrent-jobs
+     */
+    public ImportJobService(
+            final LostItemService lostItemService,
+            final @Value("${lostandfound.import.max-concurrent-jobs:2}") int maxConcurrentJobs
+    ) {
+        this.lostItemService = lostItemService;
+        this.runningJobs = new Semaphore(maxConcurrentJobs, true);
+    }
+
+    /**
+     * Spools the uploaded file to a temporary file and queues its import, in the configured default mode.
+     *
+     * @param file the uploaded MultipartFile
+     * @return the queued or earlier ImportJob
+     * @throws IOException thrown when the upload could not be spooled
+     */
+    public ImportJob submit(final MultipartFile file) throws IOException {
+        return submit(file, null, null);
+    }
+
+    /**
+     * Spools the uploaded file to a temporary file and queues its import. If a file with the same content is queued,
+     * running or finished successfully within the job-retention, that ImportJob is returned instead, or a
+     * ConflictException is thrown if that ImportJob has other options.
+     *
+     * @param file    the uploaded MultipartFile
+     * @param lenient whether invalid records are skipped instead of failing the import, or null for the configured
+     *                lostandfound.import.lenient
+     * @param merge   whether LostItems are merged into the existing LostItems instead of inserted, or null for the
+     *                configured lostandfound.import.merge
+     * @return the queued or earlier ImportJob
+     * @throws IOException thrown when the upload could not be spooled
+     */
+    public ImportJob submit(final MultipartFile file, final Boolean lenient, final Boolean merge) throws IOException {
+        Path spool = createSpoolFile(file.getOriginalFilename());
+        String sha256;
+        try {
+            sha256 = spool(file, spool);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+
+        return submit(spool, file.getOriginalFilename(), file.getContentType(), sha256, lenient, merge);
+    }
+
+    /**
+     * Queues the import of a file which is already spooled, like a finished chunked upload. The ImportJobService takes
+     * over the spooled file and deletes it once it is imported, or right away if the same content is imported already.
+     *
+     * @param spool       the spooled file, created with createSpoolFile
+     * @param fileName    the original name of the file
+     * @param contentType the MIME type sent by the client, may be null
+     * @param sha256      the hex encoded SHA-256 hash of the content
+     * @param lenient     whether invalid records are skipped instead of failing the import, or null for the configured
+     *                    lostandfound.import.lenient
+     * @param merge       whether LostItems are merged into the existing LostItems instead of inserted, or null for the
+     *                    configured lostandfound.import.merge
+     * @return the queued or earlier ImportJob
+     * @throws IOException       thrown when the spooled file of a duplicate could not be deleted
+     * @throws ConflictException thrown when the same content is imported with other options
+     */
+    public ImportJob submit(
+            final Path spool,
+            final String fileName,
+            final String contentType,
+            final String sha256,
+            final Boolean lenient,
+            final Boolean merge
+    ) throws IOException {
+        return submit(spool, true, fileName, contentType, sha256, lenient, merge);
+    }
+
+    /**
+     * Queues the import of a file on the local filesystem, like a file in the drop directory, in the configured default
+     * mode. The content-type is derived from the file extension. The file is only read, it must stay in place until
+     * the returned ImportJob finished. It is hashed while it is imported, so earlier imports of the same content are
+     * recognized by the LostItemService instead of by the ImportJobService.
+     *
+     * @param file the path of the file to import
+     * @return the queued ImportJob
+     * @throws IOException thrown when the file could not be read
+     */
+    public ImportJob submitLocalFile(final Path file) throws IOException {
+        String fileName = file.getFileName().toString();
+        return submit(file, false, fileName, ContentTypes.fromFileName(fileName), null, null, null);
+    }
+
+    /**
+     * Queues the import of a file, unless the same content is imported already.
+     *
+     * @param file        the file to import
+     * @param ownsFile    whether the file is deleted once it is imported, or right away for a duplicate
+     * @param fileName    the original name of the file
+     * @param contentType the MIME type of the file, may be null
+     * @param sha256      the hex encoded SHA-256 hash of the content, or null to hash a local file during the import
+     * @param lenient     whether invalid records are skipped, or null for the configured lostandfound.import.lenient
+     * @param merge       whether LostItems are merged, or null for the configured lostandfound.import.merge
+     * @return the queued or earlier ImportJob
+     * @throws IOException thrown when the file of a duplicate could not be deleted
+     */
+    private ImportJob submit(
+            final Path file,
+            final boolean ownsFile,
+            final String fileName,
+            final String contentType,
+            final String sha256,
+            final Boolean lenient,
+            final Boolean merge
+    ) throws IOException {
+        evictFinishedJobs();
+
+        ImportJob job = new ImportJob(
+                UUID.randomUUID().toString(),
+                fileName,
+                sha256,
+                lenient != null ? lenient : lenientByDefault,
+                merge != null ? merge : mergeByDefault,
+                maxRejectedRecords
+        );
+        ImportJob current = sha256 == null ? job : jobsBySha256.merge(sha256, job,
+                (earlier, submitted) -> earlier.getState() == ImportJob.State.FAILED ? submitted : earlier);
+        if (current != job) {
+            if (ownsFile) {
+                Files.deleteIfExists(file);
+            }
+            if (current.isLenient() != job.isLenient() || current.isMerge() != job.isMerge()) {
+                throw new ConflictException("The same content is imported by job " + current.getId()
+                        + " with lenient=" + current.isLenient() + " and merge=" + current.isMerge());
+            }
+            return current;
+        }
+
+        jobs.put(job.getId(), job);
+        executor.execute(() -> run(job, file, ownsFile, contentType));
+        return job;
+    }
+
+    /**
+     * Creates an empty temporary file to spool an upload to. The original file name is kept as suffix, because
+     * compressed files are processed based on the name of their content.
+     *
+     * @param originalFilename the file name sent by the client, may be null
+     * @return the path of the spool file
+     * @throws IOException thrown when the file could not be created
+     */
+    public static Path createSpoolFile(final String originalFilename) throws IOException {
+        return Files.createTempFile("lostandfound-import-", spoolSuffix(originalFilename));
+    }
+
+    /**
+     * Creates a MessageDigest for the SHA-256 hash which identifies the content of an upload.
+     *
+     * @return a new MessageDigest
+     */
+    static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Gets an ImportJob by ID. Finished jobs are kept for the configured job-retention.
+     *
+     * @param id the ID of the ImportJob requested
+     * @return the ImportJob if found
+     */
+    public Optional<ImportJob> findById(final String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Stops accepting new imports and interrupts the running ones.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a single import once an import slot is free, and removes the spooled file afterward. The job always ends as
+     * DONE or FAILED, also when the import thread dies of an Error.
+     *
+     * @param job         the ImportJob to run
+     * @param file        the spooled upload or local file
+     * @param ownsFile    whether the file is deleted afterward
+     * @param contentType the MIME type of the upload
+     */
+    private void run(final ImportJob job, final Path file, final boolean ownsFile, final String contentType) {
+        try {
+            runningJobs.acquire();
+            try {
+                job.start();
+                if (job.getSha256() != null) {
+                    lostItemService.processLostItemsFile(
+                            file, contentType, job.getSha256(), job.isLenient(), job.isMerge(), job
+                    );
+                } else {
+                    lostItemService.processLocalLostItemsFile(file, contentType, job.isLenient(), job.isMerge(), job);
+                }
+                job.finish();
+            } finally {
+                runningJobs.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import was interrupted");
+        } catch (LostItemParseException e) {
+            LOGGER.info("Import job {} of {} stopped at invalid line {}", job.getId(), job.getFileName(),
+                    e.getLineNumber());
+            job.fail("Line " + e.getLineNumber() + ": " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Import job {} of {} failed", job.getId(), job.getFileName(), e);
+            job.fail(e.getMessage());
+        } finally {
+            // An Error like OutOfMemoryError passes the catches, the job must not stay RUNNING and never be evicted
+            if (job.getFinishedAt() == null) {
+                job.fail("Import stopped unexpectedly");
+            }
+            if (ownsFile) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    LOGGER.warn("Failed to delete spooled upload {}", file, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the upload to the spool file and computes the SHA-256 hash of its content in the same pass.
+     *
+     * @param file  the uploaded MultipartFile
+     * @param spool the temporary file to copy the upload to
+     * @return the hex encoded SHA-256 hash of the upload
+     * @throws IOException thrown when the upload could not be copied
+     */
+    private static String spool(final MultipartFile file, final Path spool) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        try (InputStream inputStream = file.getInputStream();
+             OutputStream outputStream = new DigestOutputStream(Files.newOutputStream(spool), digest)) {
+            inputStream.transferTo(outputStream);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Builds a safe temporary file suffix from the original file name of an upload.
+     *
+     * @param originalFilename the file name sent by the client, may be null
+     * @return the suffix for the spooled file
+     */
+    private static String spoolSuffix(final String originalFilename) {
+        if (originalFilename == null || originalFilename.isBlank()) {
+            return ".upload";
+        }
+        String name = originalFilename.substring(Math.max(
+                originalFilename.lastIndexOf('/'), originalFilename.lastIndexOf('\\')) + 1
+        );
+        // Keep the end of long names, which holds the extensions
+        String suffix = "-" + name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return suffix.substring(Math.max(suffix.length() - MAX_SPOOL_SUFFIX_LENGTH, 0));
+    }
+
+    /**
+     * Forgets jobs which finished longer than job-retention ago, so the registry does not grow unbounded.
+     */
+    private void evictFinishedJobs() {
+        Instant threshold = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(threshold));
+        jobsBySha256.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(threshold));
+    }
+}
@@ -0,0 +1,298 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.fileprocessor.FileProcessor;
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import dev.riemer.lostandfound.fileprocessor.LostItemSink;
+import dev.riemer.lostandfound.model.ImportedFile;
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
+import dev.riemer.lostandfound.repository.LostItemBatchWriter;
+import dev.riemer.lostandfound.repository.PlaceDictionary;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Imports a file as a two stage pipeline. A parser thread lets the FileProcessor emit LostItems into a bounded queue,
+ * while the calling thread drains the queue in batches into the LostItemBatchWriter. Parsing and saving overlap, and a
+ * full queue blocks the parser, so memory is bounded by the queue capacity instead of by the file size. Every batch is
+ * committed on its own, the parser thread does not touch the database.
+ * <p>
+ * Parsed LostItems carry their place name as spelled in the file. The parser thread interns every spelling, so the
+ * queued LostItems share a single String per Place. The writer resolves every spelling to the stored Place through the
+ * PlaceDictionary once per import, looking it up by that same String instance.
+ * <p>
+ * An import of a known file counts its committed LostItems in the ImportedFile. A retry of a failed import parses the
+ * file again, but skips as many LostItems as were committed before, so every LostItem is saved once.
+ * <p>
+ * A file which is not hashed yet is fed to a MessageDigest by the FileProcessor, in the same pass as it is parsed.
+ * <p>
+ * A strict pipeline stops at the first invalid record. A lenient pipeline reports invalid records to the ImportProgress
+ * and continues, so all valid records are saved. LostItems are inserted as new rows, or merged into the existing
+ * LostItems with the same name and Place.
+ */
+final class ImportPipeline {
+    // Marks the end of the file. Compared by identity, so it never clashes with a parsed LostItem
+    private static final LostItem END_OF_FILE = new LostItem();
+
+    private final BlockingQueue<LostItem> queue;
+    private final LostItemBatchWriter batchWriter;
+    private final PlaceDictionary placeDictionary;
+    private final ImportProgress progress;
+    private final boolean lenient;
+    private final boolean merge;
+    private final ImportedFile importedFile;
+    private final int committedBefore;
+    private final MessageDigest digest;
+    private final Map<String, String> placeNames = new HashMap<>();
+    private final Map<String, Place> places = new HashMap<>();
+    private volatile Exception parseError;
+    private int skipped;
+    private int saved;
+
+    /**
+     * Constructs a pipeline for a single import.
+     *
+     * @param queueCapacity   the maximum number of parsed LostItems waiting to be saved
+     * @param batchWriter     the writer stage
+     * @param placeDictionary resolves the Places of parsed LostItems
+     * @param progress        receives the number of parsed and saved LostItems
+     * @param lenient         whether invalid records are skipped instead of stopping the import
+     * @param merge           whether LostItems are merged into the existing LostItems instead of inserted
+     * @param importedFile    the import which counts the committed LostItems, or null for an unknown file
+     * @param digest          receives the content of the file while it is parsed, or null if it is not hashed
+     */
+    ImportPipeline(
+            final int queueCapacity,
+            final LostItemBatchWriter batchWriter,
+            final PlaceDictionary placeDictionary,
+            final ImportProgress progress,
+            final boolean lenient,
+            final boolean merge,
+            final ImportedFile importedFile,
+            final MessageDigest digest
+    ) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+        this.batchWriter = batchWriter;
+        this.placeDictionary = placeDictionary;
+        this.progress = progress;
+        this.lenient = lenient;
+        this.merge = merge;
+        this.importedFile = importedFile;
+        this.committedBefore = importedFile != null ? importedFile.getRecordsImported() : 0;
+        this.digest = digest;
+    }
+
+    /**
+     * Runs the import. A failure in either stage stops the other stage and is rethrown, the batches which were
+     * committed before stay saved.
+     *
+     * @param processor the FileProcessor for the file
+     * @param file      the path of the file to import
+     * @return the number of imported LostItems, including those committed by an earlier attempt
+     * @throws IOException thrown when the file could not be processed
+     */
+    int run(final FileProcessor processor, final Path file) throws IOException {
+        Thread parser = Thread.ofVirtual().name("import-parser").start(() -> parse(processor, file));
+
+        try {
+            write();
+        } finally {
+            // Stops a parser which is still running because the writer failed
+            parser.interrupt();
+            joinUninterruptibly(parser);
+        }
+
+        switch (parseError) {
+            case null -> {
+                return skipped + saved;
+            }
+            case IOException e -> throw e;
+            case RuntimeException e -> throw e;
+            default -> throw new IOException(parseError);
+        }
+    }
+
+    /**
+     * Returns the number of LostItems committed by this attempt so far, also after a failed run.
+     *
+     * @return the saved LostItems
+     */
+    int getSaved() {
+        return saved;
+    }
+
+    /**
+     * The parser stage, emits all LostItems into the queue followed by END_OF_FILE. The digest is complete once
+     * END_OF_FILE is queued without a parse error.
+     *
+     * @param processor the FileProcessor for the file
+     * @param file      the path of the file to import
+     */
+    private void parse(final FileProcessor processor, final Path file) {
+        try {
+            LostItemSink sink = new LostItemSink() {
+                @Override
+                public void accept(final LostItem lostItem) throws IOException {
+                    if (skipped < committedBefore) {
+                        // Committed by an earlier attempt of this import
+                        skipped++;
+                        progress.parsed(1);
+                        progress.saved(1);
+                        return;
+                    }
+                    // The queued LostItems share a single String per spelling of their Place
+                    String placeName = placeNames.putIfAbsent(lostItem.getPlaceName(), lostItem.getPlaceName());
+                    if (placeName != null) {
+                        lostItem.setPlaceName(placeName);
+                    }
+                    put(lostItem);
+                    progress.parsed(1);
+                }
+
+                @Override
+                public void reject(final LostItemParseException error) throws IOException {
+                    if (!lenient) {
+                        throw error;
+                    }
+                    progress.rejected(error);
+                }
+            };
+            if (digest != null) {
+                processor.processFile(file, sink, digest);
+            } else {
+                processor.processFile(file, sink);
+            }
+        } catch (UncheckedIOException e) {
+            parseError = e.getCause();
+        } catch (IOException | RuntimeException e) {
+            parseError = e;
+        }
+
+        try {
+            put(END_OF_FILE);
+        } catch (InterruptedIOException e) {
+            // The writer stopped already, nobody is waiting for the end of the file
+        }
+    }
+
+    /**
+     * The writer stage, saves batches of queued LostItems until END_OF_FILE is taken. It waits for the parser until a
+     * batch is full, so every batch but the last holds exactly batch-size LostItems, whatever the pace of the parser.
+     *
+     * @throws IOException thrown when interrupted while waiting for the parser
+     */
+    private void write() throws IOException {
+        int batchSize = Math.max(batchWriter.getBatchSize(), 1);
+        List<LostItem> batch = new ArrayList<>(batchSize);
+
+        while (true) {
+            LostItem next = take();
+            if (next == END_OF_FILE) {
+                save(batch);
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+            if (batch.getLast() == END_OF_FILE) {
+                batch.removeLast();
+                save(batch);
+                return;
+            }
+            if (batch.size() == batchSize) {
+                save(batch);
+            }
+        }
+    }
+
+    /**
+     * Saves a batch in its own transaction and clears it.
+     *
+     * @param batch the parsed LostItems, at most batch-size
+     */
+    private void save(final List<LostItem> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (LostItem lostItem : batch) {
+            lostItem.setPlace(resolve(lostItem.getPlaceName()));
+        }
+        saved += merge
+                ? batchWriter.mergeAll(batch, importedFile, progress::saved)
+                : batchWriter.insertAll(batch, importedFile, progress::saved);
+        batch.clear();
+    }
+
+    /**
+     * Resolves an interned place name to the stored Place, looking up every spelling only once per import.
+     *
+     * @param placeName the place name as spelled in the file
+     * @return the stored Place
+     */
+    private Place resolve(final String placeName) {
+        Place place = places.get(placeName);
+        if (place == null) {
+            place = placeDictionary.resolve(placeName);
+            places.put(placeName, place);
+        }
+        return place;
+    }
+
+    /**
+     * Puts a LostItem in the queue, waiting while the queue is full.
+     *
+     * @param lostItem the LostItem to queue
+     * @throws InterruptedIOException thrown when interrupted while waiting
+     */
+    private void put(final LostItem lostItem) throws InterruptedIOException {
+        try {
+            queue.put(lostItem);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the writer");
+        }
+    }
+
+    /**
+     * Takes the next LostItem from the queue, waiting while the queue is empty.
+     *
+     * @return the next LostItem or END_OF_FILE
+     * @throws InterruptedIOException thrown when interrupted while waiting
+     */
+    private LostItem take() throws InterruptedIOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the parser");
+        }
+    }
+
+    /**
+     * Waits for the parser thread to stop, keeping the interrupt status of the calling thread.
+     *
+     * @param parser the parser thread
+     */
+    private static void joinUninterruptibly(final Thread parser) {
+        boolean interrupted = false;
+        while (parser.isAlive()) {
+            try {
+                parser.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
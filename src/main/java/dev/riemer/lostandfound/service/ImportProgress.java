@@ -0,0 +1,53 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import dev.riemer.lostandfound.model.ImportedFile;
+
+/**
+ * Receives the progress of a bulk import, so long-running imports can be followed while they run.
+ */
+public interface ImportProgress {
+    /**
+     * Progress listener which ignores all progress.
+     */
+    ImportProgress NONE = new ImportProgress() {
+        @Override
+        public void parsed(final int count) {
+        }
+
+        @Override
+        public void saved(final int count) {
+        }
+    };
+
+    /**
+     * Called when LostItems have been parsed from the file.
+     *
+     * @param count the number of LostItems parsed since the last call
+     */
+    void parsed(int count);
+
+    /**
+     * Called when a batch of LostItems has been committed, it stays saved if the import fails later on. A retry of a
+     * failed import reports the LostItems committed by the earlier attempt as saved again.
+     *
+     * @param count the number of LostItems saved since the last call
+     */
+    void saved(int count);
+
+    /**
+     * Called when an invalid record was skipped by a lenient import.
+     *
+     * @param error the reason and line of the invalid record
+     */
+    default void rejected(final LostItemParseException error) {
+    }
+
+    /**
+     * Called instead of parsed and saved when the file was imported before, so nothing is imported again.
+     *
+     * @param original the earlier import of the same file content
+     */
+    default void duplicateOf(final ImportedFile original) {
+    }
+}
@@ -0,0 +1,330 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.dto.LostItemDto;
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.repository.LostItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Read-through cache of the LostItem catalog, holding an immutable snapshot of all LostItems as LostItemDtos. The
+ * catalog only changes on imports and claims, which publish a CatalogChangedEvent. Every event bumps the version of
+ * the catalog and starts a rebuild in the background, the new snapshot is swapped in atomically once it is complete.
+ * <p>
+ * Readers never wait for a rebuild, they keep being served the previous snapshot until the new one is ready. Until
+ * the first snapshot is built, readers are told to query the database instead. At most one rebuild runs at a time,
+ * changes made during a rebuild are picked up by building again right after.
+ */
+@Component
+public class LostItemCatalogCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LostItemCatalogCache.class);
+    private static final int DEFAULT_MAX_RESPONSES = 1000;
+
+    private final LostItemRepository lostItemRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("catalog-cache-", 0).factory()
+    );
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer rebuildTime;
+    private volatile Snapshot snapshot;
+
+    @Value("${lostandfound.lost-items.cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${lostandfound.lost-items.cache.max-responses:1000}")
+    private int maxResponses = DEFAULT_MAX_RESPONSES;
+
+    /**
+     * Constructor of LostItemCatalogCache.
+     *
+     * @param lostItemRepository injected LostItemRepository
+     * @param entityManager      injected EntityManager
+     * @param transactionManager injected PlatformTransactionManager
+     * @param meterRegistry      injected MeterRegistry
+     */
+    public LostItemCatalogCache(
+            final LostItemRepository lostItemRepository,
+            final EntityManager entityManager,
+            final PlatformTransactionManager transactionManager,
+            final MeterRegistry meterRegistry
+    ) {
+        this.lostItemRepository = lostItemRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.hits = Counter.builder("lostandfound.catalog.cache.requests")
+                .description("Catalog requests served from the snapshot")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("lostandfound.catalog.cache.requests")
+                .description("Catalog requests served from the database, as no snapshot was built yet")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rebuildTime = Timer.builder("lostandfound.catalog.cache.rebuild")
+                .description("Time taken to build a snapshot of the catalog")
+                .register(meterRegistry);
+        Gauge.builder("lostandfound.catalog.cache.size", this, LostItemCatalogCache::size)
+                .description("Number of LostItems in the current snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the current snapshot, which may lag behind the latest changes while it is rebuilt. Starts building a
+     * snapshot when there is none yet, or when the current one is outdated and no rebuild is running, like after a
+     * failed rebuild.
+     *
+     * @return the current snapshot, or empty if the catalog must be read from the database
+     */
+    public Optional<Snapshot> snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        if (enabled && (current == null || current.version() != version.get())) {
+            scheduleRebuild();
+        }
+        return Optional.ofNullable(current);
+    }
+
+    /**
+     * Bumps the version of the catalog and rebuilds the snapshot in the background. Changes made in a transaction are
+     * handled after the commit, so the rebuild sees them.
+     *
+     * @param event the change to the catalog
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(final CatalogChangedEvent event) {
+        long changed = version.incrementAndGet();
+        LOGGER.debug("Catalog changed to version {}: {}", changed, event.cause());
+        if (enabled) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Stops rebuilding snapshots.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a rebuild unless one is running already.
+     */
+    private void scheduleRebuild() {
+        if (rebuilding.compareAndSet(false, true)) {
+            executor.execute(this::rebuild);
+        }
+    }
+
+    /**
+     * Builds snapshots until the latest version is built. A failed rebuild keeps the previous snapshot, the next read
+     * tries again.
+     */
+    private void rebuild() {
+        try {
+            long target;
+            do {
+                long building = version.get();
+                snapshot = rebuildTime.record(() -> load(building));
+                target = building;
+            } while (version.get() != target);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to rebuild the catalog snapshot", e);
+            return;
+        } finally {
+            rebuilding.set(false);
+        }
+
+        // A change after the last check and before releasing the flag did not start a rebuild of its own
+        if (snapshot.version() != version.get()) {
+            scheduleRebuild();
+        }
+    }
+
+    /**
+     * Reads all LostItems into a new snapshot, detaching every LostItem once it is converted.
+     *
+     * @param building the version of the catalog being built
+     * @return the new snapshot
+     */
+    private Snapshot load(final long building) {
+        return readOnlyTransaction.execute(status -> {
+            List<LostItemDto> lostItems = new ArrayList<>();
+            try (Stream<LostItem> stream = lostItemRepository.streamAllByOrderByIdAsc()) {
+                stream.forEach(lostItem -> {
+                    lostItems.add(new LostItemDto(lostItem));
+                    entityManager.detach(lostItem);
+                });
+            }
+            return new Snapshot(building, lostItems, maxResponses);
+        });
+    }
+
+    /**
+     * Returns the number of LostItems in the current snapshot, for the size gauge.
+     *
+     * @return the size of the snapshot, 0 if there is none
+     */
+    private double size() {
+        Snapshot current = snapshot;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * Immutable snapshot of the catalog at a version. The LostItems are kept in order of id, together with an index
+     * per Place, so pages are found by binary search on the id. The LostItemDtos are shared between all readers and
+     * must not be modified.
+     * <p>
+     * Responses rendered from the snapshot are kept with it, so every response is serialized and compressed once per
+     * version. They are dropped together with the snapshot when the catalog changes.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Slice all;
+        private final Map<String, Slice> byPlace;
+        private final Map<Object, SerializedResponse> responses = new ConcurrentHashMap<>();
+        private final int maxResponses;
+
+        /**
+         * Constructs a snapshot of LostItems.
+         *
+         * @param version      the version of the catalog
+         * @param lostItems    the LostItems in order of id
+         * @param maxResponses the maximum number of rendered responses kept with the snapshot
+         */
+        Snapshot(final long version, final List<LostItemDto> lostItems, final int maxResponses) {
+            this.version = version;
+            this.all = new Slice(lostItems);
+            this.maxResponses = maxResponses;
+
+            Map<String, List<LostItemDto>> grouped = new HashMap<>();
+            for (LostItemDto lostItem : lostItems) {
+                grouped.computeIfAbsent(LostItem.normalizeKey(lostItem.getPlace()), key -> new ArrayList<>())
+                        .add(lostItem);
+            }
+            Map<String, Slice> slices = new HashMap<>();
+            grouped.forEach((place, items) -> slices.put(place, new Slice(items)));
+            this.byPlace = Map.copyOf(slices);
+        }
+
+        /**
+         * Returns the version of the catalog this snapshot was built at.
+         *
+         * @return the version
+         */
+        public long version() {
+            return version;
+        }
+
+        /**
+         * Returns the number of LostItems in the snapshot.
+         *
+         * @return the number of LostItems
+         */
+        public int size() {
+            return all.ids.length;
+        }
+
+        /**
+         * Returns a page of the LostItems in order of id, optionally only those at a Place, like the database query.
+         *
+         * @param place    the name of the Place in any spelling, or null for all Places
+         * @param afterId  the id of the last LostItem of the previous page, 0 for the first page
+         * @param pageSize the maximum number of LostItems
+         * @return the page, with the cursor of the next page if there are more LostItems
+         */
+        public LostItemService.Page<LostItemDto> page(final String place, final long afterId, final int pageSize) {
+            Slice slice = place == null ? all : byPlace.get(LostItem.normalizeKey(place));
+            if (slice == null) {
+                return new LostItemService.Page<>(List.of(), null);
+            }
+            return slice.page(afterId, pageSize);
+        }
+
+        /**
+         * Returns the response rendered from this snapshot for a key, rendering it on first use. Once max-responses
+         * responses are kept, further responses are rendered on every request instead of evicting others.
+         *
+         * @param key    identifies the response, like the parameters of a page
+         * @param render renders the response from this snapshot
+         * @return the rendered response
+         */
+        public SerializedResponse response(final Object key, final Supplier<SerializedResponse> render) {
+            SerializedResponse response = responses.get(key);
+            if (response != null) {
+                return response;
+            }
+            if (responses.size() >= maxResponses) {
+                return render.get();
+            }
+            return responses.computeIfAbsent(key, ignored -> render.get());
+        }
+    }
+
+    /**
+     * LostItems in order of id, with their ids in an array for binary search.
+     */
+    private static final class Slice {
+        private final List<LostItemDto> lostItems;
+        private final long[] ids;
+
+        /**
+         * Constructs a slice.
+         *
+         * @param lostItems the LostItems in order of id
+         */
+        Slice(final List<LostItemDto> lostItems) {
+            this.lostItems = List.copyOf(lostItems);
+            this.ids = lostItems.stream().mapToLong(LostItemDto::getId).toArray();
+        }
+
+        /**
+         * Returns the LostItems after an id.
+         *
+         * @param afterId  the id of the last LostItem of the previous page
+         * @param pageSize the maximum number of LostItems
+         * @return the page
+         */
+        LostItemService.Page<LostItemDto> page(final long afterId, final int pageSize) {
+            int found = Arrays.binarySearch(ids, afterId);
+            int from = found >= 0 ? found + 1 : -found - 1;
+            int to = (int) Math.min((long) from + pageSize, ids.length);
+            Long next = to < ids.length ? ids[to - 1] : null;
+            return new LostItemService.Page<>(lostItems.subList(from, to), next);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package dev.riemer.lostandfound.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.riemer.lostandfound.dto.LostItemDto;
+import dev.riemer.lostandfound.dto.LostItemPageDto;
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.repository.LostItemRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Service which renders the catalog of LostItems as JSON, as pages and as a whole. Once the LostItemCatalogCache has a
+ * snapshot, pages are served pre-serialized from it, their size is bounded by max-page-size. The whole catalog is never
+ * buffered: it is read over a forward-only cursor and written one by one with a JsonGenerator, every LostItem is
+ * detached once it is written. The first bytes are sent as soon as the first rows are read, and the heap used does not
+ * grow with the number of LostItems.
+ */
+@Service
+public class LostItemCatalogService {
+    private final LostItemRepository lostItemRepository;
+    private final EntityManager entityManager;
+    private final LostItemCatalogCache catalogCache;
+    private final LostItemService lostItemService;
+    private final ObjectWriter objectWriter;
+    private final ObjectWriter pageWriter;
+
+    /**
+     * Identifies a rendered page of the catalog. Pages are cached per normalized Place, so every spelling shares one.
+     *
+     * @param placeKey the normalized Place, or null for all Places
+     * @param afterId  the id of the last LostItem of the previous page
+     * @param pageSize the maximum number of LostItems
+     */
+    private record PageKey(String placeKey, long afterId, int pageSize) {
+    }
+
+    /**
+     * Constructor of LostItemCatalogService.
+     *
+     * @param lostItemRepository Injected LostItemRepository
+     * @param entityManager      Injected EntityManager
+     * @param catalogCache       Injected LostItemCatalogCache
+     * @param lostItemService    Injected LostItemService
+     * @param objectMapper       Injected ObjectMapper, so the LostItemDtos are written like other responses
+     */
+    public LostItemCatalogService(
+            final LostItemRepository lostItemRepository,
+            final EntityManager entityManager,
+            final LostItemCatalogCache catalogCache,
+            final LostItemService lostItemService,
+            final ObjectMapper objectMapper
+    ) {
+        this.lostItemRepository = lostItemRepository;
+        this.entityManager = entityManager;
+        this.catalogCache = catalogCache;
+        this.lostItemService = lostItemService;
+        this.pageWriter = objectMapper.writerFor(LostItemPageDto.class);
+        // Flushing after every LostItem would send every LostItem in its own chunk
+        this.objectWriter = objectMapper.writerFor(LostItemDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Returns a page of the catalog like LostItemService.getLostItems as a LostItemPageDto serialized to JSON, served
+     * from the LostItemCatalogCache. The catalog only changes on imports and claims, so the database is only read while
+     * the first snapshot is built. Every page is serialized and compressed once per catalog version and then sent
+     * as-is. A page may lag behind a change while the snapshot is rebuilt.
+     *
+     * @param place the name of the Place in any spelling, or null for all Places
+     * @param after the next cursor of the previous page, or null for the first page
+     * @param limit the maximum number of LostItems, capped at max-page-size
+     * @return the serialized page, with the cursor of the next page if there are more LostItems
+     */
+    public SerializedResponse getCatalogPage(final String place, final Long after, final int limit) {
+        int pageSize = lostItemService.pageSize(limit);
+        long afterId = after != null ? after : 0L;
+        Optional<LostItemCatalogCache.Snapshot> snapshot = catalogCache.snapshot();
+        if (snapshot.isEmpty()) {
+            LostItemService.Page<LostItem> page = lostItemService.getLostItems(place, afterId, pageSize);
+            LostItemService.Page<LostItemDto> dtos = new LostItemService.Page<>(
+                    page.lostItems().stream().map(LostItemDto::new).toList(), page.next()
+            );
+            return SerializedResponse.uncompressed(pageWriter, new LostItemPageDto(dtos));
+        }
+
+        LostItemCatalogCache.Snapshot current = snapshot.get();
+        PageKey key = new PageKey(place == null ? null : LostItem.normalizeKey(place), afterId, pageSize);
+        return current.response(key, () -> SerializedResponse.compressed(
+                pageWriter, new LostItemPageDto(current.page(place, afterId, pageSize))
+        ));
+    }
+
+    /**
+     * Writes all LostItems in order of id as a JSON array of LostItemDtos. The cursor stays open in a read-only
+     * transaction until the whole array is written. The OutputStream is not closed.
+     *
+     * @param outputStream the stream to write the JSON to, usually the response body
+     * @throws IOException thrown when the JSON could not be written, like when the client disconnects
+     */
+    @Transactional(readOnly = true)
+    public void writeCatalog(final OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectWriter.createGenerator(outputStream);
+             Stream<LostItem> lostItems = lostItemRepository.streamAllByOrderByIdAsc()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            lostItems.forEach(lostItem -> {
+                write(generator, lostItem);
+                entityManager.detach(lostItem);
+            });
+            generator.writeEndArray();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Writes a single LostItem as LostItemDto.
+     *
+     * @param generator the JsonGenerator of the catalog
+     * @param lostItem  the LostItem to write
+     */
+    private void write(final JsonGenerator generator, final LostItem lostItem) {
+        try {
+            objectWriter.writeValue(generator, new LostItemDto(lostItem));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
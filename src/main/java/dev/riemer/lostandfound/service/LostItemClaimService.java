@@ -4,23 +4,35 @@ import dev.riemer.lostandfound.model.LostItem;
 import dev.riemer.lostandfound.model.LostItemClaim;
 import dev.riemer.lostandfound.model.User;
 import dev.riemer.lostandfound.repository.LostItemClaimRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * Service for helping with Claiming a LostItem.
  */
 @Service
 public class LostItemClaimService {
     private final LostItemClaimRepository lostItemClaimRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructor of LostItemClaimService.
      *
      * @param lostItemClaimRepository Injected LostItemClaimRepository
+     * @param eventPublisher          Injected ApplicationEventPublisher
      */
-    public LostItemClaimService(final LostItemClaimRepository lostItemClaimRepository) {
+    public LostItemClaimService(
+            final LostItemClaimRepository lostItemClaimRepository,
+            final ApplicationEventPublisher eventPublisher
+    ) {
         this.lostItemClaimRepository = lostItemClaimRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -45,6 +57,25 @@ public class LostItemClaimService {
         claim.setLostItem(lostItem);
         claim.setQuantity(quantity);
 
-        return lostItemClaimRepository.save(claim);
+        LostItemClaim saved = lostItemClaimRepository.save(claim);
+        // Handled once the claim is committed
+        eventPublisher.publishEvent(new CatalogChangedEvent("Claim of LostItem " + lostItem.getId()));
+        return saved;
+    }
+
+    /**
+     * Gets the claims on a page of LostItems with the usernames of the claiming Users, with one query for the whole
+     * page.
+     *
+     * @param lostItemIds the ids of the LostItems
+     * @return the claims per LostItem id, LostItems without claims are left out
+     */
+    public Map<Long, List<LostItemClaimRepository.ClaimSummary>> getClaimsByLostItemId(
+            final Collection<Long> lostItemIds) {
+        if (lostItemIds.isEmpty()) {
+            return Map.of();
+        }
+        return lostItemClaimRepository.findSummariesByLostItemIdIn(lostItemIds).stream()
+                .collect(Collectors.groupingBy(LostItemClaimRepository.ClaimSummary::getLostItemId));
     }
 }
@@ -1,34 +1,103 @@
 package dev.riemer.lostandfound.service;
 
+import dev.riemer.lostandfound.exceptions.ConflictException;
+import dev.riemer.lostandfound.exceptions.InvalidRequestException;
+import dev.riemer.lostandfound.fileprocessor.ContentTypes;
 import dev.riemer.lostandfound.fileprocessor.FileProcessor;
 import dev.riemer.lostandfound.fileprocessor.FileProcessorFactory;
+import dev.riemer.lostandfound.model.ImportedFile;
 import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
+import dev.riemer.lostandfound.repository.ImportedFileRepository;
+import dev.riemer.lostandfound.repository.LostItemBatchWriter;
 import dev.riemer.lostandfound.repository.LostItemRepository;
+import dev.riemer.lostandfound.repository.PlaceDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 
 /**
- * Service for LostItems; Providing a few getters and a way to bulk-import new LostItems.
+ * Service for LostItems; Providing a few getters and a way to bulk-import new LostItems. Imports commit their LostItems
+ * batch by batch. Imports of a known file are recorded as ImportedFile before the first batch, so a retry of a failed
+ * import continues after the batches it committed. Local files are hashed in the same pass as they are parsed.
  */
 @Service
 public class LostItemService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LostItemService.class);
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final int DEFAULT_MAX_PAGE_SIZE = 500;
+    private static final Duration DEFAULT_STALE_AFTER = Duration.ofMinutes(10);
+
     private final LostItemRepository repository;
     private final FileProcessorFactory fileProcessorFactory;
+    private final LostItemBatchWriter batchWriter;
+    private final ImportedFileRepository importedFileRepository;
+    private final PlaceDictionary placeDictionary;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${lostandfound.import.merge:false}")
+    private boolean mergeByDefault;
+
+    @Value("${lostandfound.lost-items.max-page-size:500}")
+    private int maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+
+    @Value("${lostandfound.import.queue-capacity:10000}")
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    @Value("${lostandfound.import.stale-after:10m}")
+    private Duration staleAfter = DEFAULT_STALE_AFTER;
+
+    /**
+     * A page of LostItems.
+     *
+     * @param lostItems the LostItems of the page, in order of id
+     * @param next      the cursor of the next page, or null if this is the last page
+     * @param <T>       the type of the LostItems, Entities or LostItemDtos
+     */
+    public record Page<T>(List<T> lostItems, Long next) {
+    }
 
     /**
      * Constructor of LostItemService.
      *
-     * @param lostItemRepository   Injected LostItemRepository
-     * @param fileProcessorFactory Injected FileProcessorFactory
+     * @param lostItemRepository     Injected LostItemRepository
+     * @param fileProcessorFactory   Injected FileProcessorFactory
+     * @param batchWriter            Injected LostItemBatchWriter
+     * @param importedFileRepository Injected ImportedFileRepository
+     * @param placeDictionary        Injected PlaceDictionary
+     * @param eventPublisher         Injected ApplicationEventPublisher
      */
     public LostItemService(
-            final LostItemRepository lostItemRepository, final FileProcessorFactory fileProcessorFactory) {
+            final LostItemRepository lostItemRepository,
+            final FileProcessorFactory fileProcessorFactory,
+            final LostItemBatchWriter batchWriter,
+            final ImportedFileRepository importedFileRepository,
+            final PlaceDictionary placeDictionary,
+            final ApplicationEventPublisher eventPublisher
+    ) {
         this.repository = lostItemRepository;
         this.fileProcessorFactory = fileProcessorFactory;
+        this.batchWriter = batchWriter;
+        this.importedFileRepository = importedFileRepository;
+        this.placeDictionary = placeDictionary;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -42,26 +111,319 @@ public class LostItemService {
     }
 
     /**
-     * Returns all current LostItems.
+     * Returns a page of the current LostItems in order of id, optionally only those at a Place. Pages are addressed by
+     * the id of the last LostItem of the previous page instead of an offset, so every page is read from an index
+     * range.
      *
-     * @return the current LostItems
+     * @param place the name of the Place in any spelling, or null for all Places
+     * @param after the next cursor of the previous page, or null for the first page
+     * @param limit the maximum number of LostItems, capped at max-page-size
+     * @return the page, with the cursor of the next page if there are more LostItems
      */
-    public List<LostItem> getAllLostItems() {
-        return repository.findAll();
+    public Page<LostItem> getLostItems(final String place, final Long after, final int limit) {
+        int pageSize = pageSize(limit);
+        long afterId = after != null ? after : 0L;
+        // One extra LostItem tells whether there is a next page
+        Limit fetch = Limit.of(pageSize + 1);
+
+        List<LostItem> lostItems;
+        if (place == null) {
+            lostItems = repository.findByIdGreaterThanOrderByIdAsc(afterId, fetch);
+        } else {
+            Optional<Place> found = placeDictionary.find(place);
+            if (found.isEmpty()) {
+                return new Page<>(List.of(), null);
+            }
+            lostItems = repository.findByPlaceIdAndIdGreaterThanOrderByIdAsc(found.get().getId(), afterId, fetch);
+        }
+
+        if (lostItems.size() <= pageSize) {
+            return new Page<>(lostItems, null);
+        }
+        List<LostItem> page = lostItems.subList(0, pageSize);
+        return new Page<>(page, page.getLast().getId());
     }
 
     /**
-     * Bulk-import new LostItem, requests the right FileProcessor to parse it and save all found LostItems.
+     * Bulk-import new LostItems from a file on the local filesystem. The content-type is derived from the file
+     * extension, the right FileProcessor parses it and all found LostItems are saved in the configured
+     * lostandfound.import.merge mode.
      *
-     * @param file the uploaded MultipartFile
+     * @param file the path of the file to import
+     * @return the number of imported LostItems
      * @throws IOException exception when something went wrong
      */
-    public void processLostItemsFile(final MultipartFile file) throws IOException {
-        String contentType = file.getContentType();
+    public int processLostItemsFile(final Path file) throws IOException {
+        String contentType = ContentTypes.fromFileName(file.getFileName().toString());
+        return processLostItemsFile(file, contentType, ImportProgress.NONE);
+    }
 
-        FileProcessor processor = fileProcessorFactory.getProcessor(contentType);
-        List<LostItem> lostItems = processor.processFile(file);
+    /**
+     * Bulk-import new LostItems from a file on the local filesystem with a known content-type, reporting the progress
+     * while the LostItems are parsed and saved. Parsing and saving run as a pipeline, with at most queue-capacity
+     * parsed LostItems waiting to be saved. The LostItems are saved in the configured lostandfound.import.merge mode.
+     *
+     * @param file        the path of the file to import
+     * @param contentType the MIME type of the file
+     * @param progress    receives the number of parsed and saved LostItems
+     * @return the number of imported LostItems
+     * @throws IOException exception when something went wrong
+     */
+    public int processLostItemsFile(
+            final Path file, final String contentType, final ImportProgress progress) throws IOException {
+        return processLostItemsFile(file, contentType, null, false, mergeByDefault, progress);
+    }
 
-        repository.saveAll(lostItems);
+    /**
+     * Bulk-import new LostItems from a file on the local filesystem, unless a file with the same content was imported
+     * before. Uploads are retried on timeouts, the hash makes those retries idempotent. The import is recorded by the
+     * hash before the first batch, and every batch counts its LostItems in that record when it is committed.
+     * <p>
+     * A strict import stops at the first invalid record, a lenient import skips invalid records and reports them to
+     * the progress instead. The batches committed before a failure stay saved. A retry of the same content continues
+     * after them, so no LostItem is saved twice. An import of the same content which is still running is not retried,
+     * unless it committed no batch for the stale-after duration. Neither is new content while a local file of the same
+     * size is being imported, whose hash is only known once it is done.
+     * <p>
+     * LostItems are inserted as new rows, or merged: their quantity is added to the merge target with the same name
+     * and Place, which is upserted by the database. Any number of imports can merge and insert at the same time.
+     *
+     * @param file        the path of the file to import
+     * @param contentType the MIME type of the file
+     * @param sha256      the hex encoded SHA-256 hash of the file content, or null to always import the file
+     * @param lenient     whether invalid records are skipped instead of stopping the import
+     * @param merge       whether LostItems are merged into the existing LostItems instead of inserted
+     * @param progress    receives the number of parsed, saved and rejected LostItems, or the earlier import of a
+     *                    duplicate
+     * @return the number of imported LostItems, or the number imported by the earlier import of a duplicate
+     * @throws IOException       exception when something went wrong
+     * @throws ConflictException thrown when the same content is being imported already
+     */
+    public int processLostItemsFile(
+            final Path file,
+            final String contentType,
+            final String sha256,
+            final boolean lenient,
+            final boolean merge,
+            final ImportProgress progress
+    ) throws IOException {
+        ImportedFile original = null;
+        if (sha256 != null) {
+            original = importedFileRepository.findBySha256(sha256).orElse(null);
+            if (original != null && original.getStatus() == ImportedFile.Status.DONE) {
+                progress.duplicateOf(original);
+                return original.getRecordsImported();
+            }
+        }
+
+        FileProcessor processor = fileProcessorFactory.getProcessor(contentType, file);
+        ImportedFile importedFile = null;
+        if (original != null) {
+            importedFile = claimImport(original);
+        } else if (sha256 != null) {
+            long contentLength = Files.size(file);
+            if (importedFileRepository.existsUnhashedInProgress(contentLength, staleBefore(new Date()))) {
+                // The running import may be of the same content, which is only known once it is done
+                throw new ConflictException("A local file of the same size is being imported already");
+            }
+            importedFile = insertImport(new ImportedFile(sha256, contentLength, null));
+        }
+        int imported = runImport(file, processor, importedFile, null, lenient, merge, progress);
+        if (importedFile != null) {
+            importedFileRepository.finish(importedFile.getId(), importedFile.getAttempt(), ImportedFile.Status.DONE);
+        }
+        return imported;
+    }
+
+    /**
+     * Bulk-import new LostItems from a file on the local filesystem, like a file in the drop directory, which is hashed
+     * while it is parsed instead of in an extra pass. Only content of the same size can have been imported before, so
+     * if an import of that size is stored, the file is hashed up front and imported like an upload instead.
+     * <p>
+     * Otherwise the import is recorded by the source of the file, its path, size and modification time, and the hash
+     * is stored once the import is done, so later uploads of the same content are recognized. A retry of the same
+     * unchanged file continues after the batches it committed, like a retry of an upload.
+     *
+     * @param file        the path of the file to import
+     * @param contentType the MIME type of the file
+     * @param lenient     whether invalid records are skipped instead of stopping the import
+     * @param merge       whether LostItems are merged into the existing LostItems instead of inserted
+     * @param progress    receives the number of parsed, saved and rejected LostItems, or the earlier import of a
+     *                    duplicate
+     * @return the number of imported LostItems, or the number imported by the earlier import of a duplicate
+     * @throws IOException       exception when something went wrong
+     * @throws ConflictException thrown when the same file is being imported already
+     */
+    public int processLocalLostItemsFile(
+            final Path file,
+            final String contentType,
+            final boolean lenient,
+            final boolean merge,
+            final ImportProgress progress
+    ) throws IOException {
+        long contentLength = Files.size(file);
+        String source = file.toAbsolutePath() + "|" + contentLength + "|" + Files.getLastModifiedTime(file).toMillis();
+        ImportedFile original = importedFileRepository.findBySource(source).orElse(null);
+        if (original == null && importedFileRepository.existsByContentLength(contentLength)) {
+            return processLostItemsFile(file, contentType, sha256(file), lenient, merge, progress);
+        }
+        if (original != null && original.getStatus() == ImportedFile.Status.DONE) {
+            progress.duplicateOf(original);
+            return original.getRecordsImported();
+        }
+
+        FileProcessor processor = fileProcessorFactory.getProcessor(contentType, file);
+        ImportedFile importedFile = original != null
+                ? claimImport(original)
+                : insertImport(new ImportedFile(null, contentLength, source));
+        MessageDigest digest = ImportJobService.newSha256Digest();
+        int imported = runImport(file, processor, importedFile, digest, lenient, merge, progress);
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        try {
+            importedFileRepository.finishHashed(importedFile.getId(), importedFile.getAttempt(), sha256);
+        } catch (DataIntegrityViolationException e) {
+            // The same content was imported from another source meanwhile, the hash stays with that import
+            LOGGER.warn("Content of {} was imported twice, it has the same hash as an earlier import: {}",
+                    file, sha256);
+            importedFileRepository.finish(importedFile.getId(), importedFile.getAttempt(), ImportedFile.Status.DONE);
+        }
+        return imported;
+    }
+
+    /**
+     * Runs the import pipeline and publishes a CatalogChangedEvent if it committed any batch, also on failure. A failed
+     * import is marked as such.
+     *
+     * @param file         the path of the file to import
+     * @param processor    the FileProcessor for the file
+     * @param importedFile the ImportedFile of this attempt, or null for an unknown file
+     * @param digest       receives the content of the file while it is parsed, or null
+     * @param lenient      whether invalid records are skipped instead of stopping the import
+     * @param merge        whether LostItems are merged into the existing LostItems instead of inserted
+     * @param progress     receives the number of parsed, saved and rejected LostItems
+     * @return the number of imported LostItems
+     * @throws IOException thrown when the file could not be processed
+     */
+    private int runImport(
+            final Path file,
+            final FileProcessor processor,
+            final ImportedFile importedFile,
+            final MessageDigest digest,
+            final boolean lenient,
+            final boolean merge,
+            final ImportProgress progress
+    ) throws IOException {
+        ImportPipeline pipeline = new ImportPipeline(
+                queueCapacity, batchWriter, placeDictionary, progress, lenient, merge, importedFile, digest
+        );
+        try {
+            return pipeline.run(processor, file);
+        } catch (IOException | RuntimeException e) {
+            failImport(importedFile, e);
+            throw e;
+        } finally {
+            // Batches committed before a failure changed the catalog too
+            if (pipeline.getSaved() > 0) {
+                eventPublisher.publishEvent(new CatalogChangedEvent("Import of " + file.getFileName()));
+            }
+        }
+    }
+
+    /**
+     * Records the start of an import of a new file as its first attempt.
+     *
+     * @param importedFile the first attempt, identified by its hash or source
+     * @return the stored ImportedFile
+     * @throws ConflictException thrown when the same content is being imported already
+     */
+    private ImportedFile insertImport(final ImportedFile importedFile) {
+        try {
+            return importedFileRepository.saveAndFlush(importedFile);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("The same content is being imported already: " + identify(importedFile));
+        }
+    }
+
+    /**
+     * Claims an earlier import which failed or went stale for a new attempt, which continues after its committed
+     * LostItems.
+     *
+     * @param original the earlier import of the same content
+     * @return the ImportedFile of this attempt
+     * @throws ConflictException thrown when the same content is being imported already
+     */
+    private ImportedFile claimImport(final ImportedFile original) {
+        Date now = new Date();
+        if (importedFileRepository.claim(original.getId(), original.getAttempt(), staleBefore(now), now) == 0) {
+            throw new ConflictException("The same content is being imported already: " + identify(original));
+        }
+        return importedFileRepository.findById(original.getId()).orElseThrow();
+    }
+
+    /**
+     * Returns the time before which an import which committed no batch is stale.
+     *
+     * @param now the current time
+     * @return now minus the stale-after duration
+     */
+    private Date staleBefore(final Date now) {
+        return Date.from(now.toInstant().minus(staleAfter));
+    }
+
+    /**
+     * Describes an import for error messages.
+     *
+     * @param importedFile the import
+     * @return the hash of the content, or the source of a local file which is not hashed yet
+     */
+    private static String identify(final ImportedFile importedFile) {
+        return importedFile.getSha256() != null ? importedFile.getSha256() : importedFile.getSource();
+    }
+
+    /**
+     * Computes the SHA-256 hash of a file on the local filesystem.
+     *
+     * @param file the file to hash
+     * @return the hex encoded SHA-256 hash of the file
+     * @throws IOException thrown when the file could not be read
+     */
+    private static String sha256(final Path file) throws IOException {
+        MessageDigest digest = ImportJobService.newSha256Digest();
+        try (InputStream inputStream = new DigestInputStream(Files.newInputStream(file), digest)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Marks the attempt of an import as failed, so a retry can claim it right away. A failure to do so is added to the
+     * cause, the import is claimable once it went stale either way.
+     *
+     * @param importedFile the ImportedFile of the attempt, or null for an unknown file
+     * @param cause        the reason the import failed
+     */
+    private void failImport(final ImportedFile importedFile, final Exception cause) {
+        if (importedFile == null) {
+            return;
+        }
+        try {
+            importedFileRepository.finish(importedFile.getId(), importedFile.getAttempt(), ImportedFile.Status.FAILED);
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Validates the requested page size and caps it at max-page-size.
+     *
+     * @param limit the requested maximum number of LostItems
+     * @return the page size
+     */
+    public int pageSize(final int limit) {
+        if (limit < 1) {
+            throw new InvalidRequestException("Limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
     }
 }
@@ -0,0 +1,63 @@
+package dev.riemer.lostandfound.service;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A JSON response body which is serialized ahead of time, together with its gzip compressed variant. Cached responses
+ * are sent as-is, so Jackson and the compressor only run once per catalog version instead of on every request. The
+ * arrays are shared between all requests and must not be modified.
+ *
+ * @param json the UTF-8 encoded JSON
+ * @param gzip the gzip compressed JSON, or null if it is only sent uncompressed
+ */
+public record SerializedResponse(byte[] json, byte[] gzip) {
+    /**
+     * Serializes a value and compresses it, for responses which are cached.
+     *
+     * @param writer the ObjectWriter for the value
+     * @param value  the value to serialize
+     * @return the serialized and compressed response
+     */
+    public static SerializedResponse compressed(final ObjectWriter writer, final Object value) {
+        byte[] json = serialize(writer, value);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new UncheckedIOException(e);
+        }
+        return new SerializedResponse(json, compressed.toByteArray());
+    }
+
+    /**
+     * Serializes a value without compressing it, for responses which are sent only once.
+     *
+     * @param writer the ObjectWriter for the value
+     * @param value  the value to serialize
+     * @return the serialized response
+     */
+    public static SerializedResponse uncompressed(final ObjectWriter writer, final Object value) {
+        return new SerializedResponse(serialize(writer, value), null);
+    }
+
+    /**
+     * Serializes a value to JSON bytes.
+     *
+     * @param writer the ObjectWriter for the value
+     * @param value  the value to serialize
+     * @return the UTF-8 encoded JSON
+     */
+    private static byte[] serialize(final ObjectWriter writer, final Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.exceptions.InvalidRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A chunked upload of a single file. Chunks are written at their offset into a spool file with positional writes, so
+ * chunks can arrive out of order and in parallel. The received byte ranges are tracked, so a client can resume an
+ * interrupted upload by sending only the missing ranges.
+ * <p>
+ * Chunks are written under a shared lock, finishing and aborting take the exclusive lock, so a chunk never lands in a
+ * file which is already handed to the import.
+ */
+public final class UploadSession {
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * A received range of bytes.
+     *
+     * @param start the offset of the first byte
+     * @param end   the offset after the last byte
+     */
+    public record Range(long start, long end) {
+    }
+
+    private final String id;
+    private final String fileName;
+    private final String contentType;
+    private final long size;
+    private final Path spool;
+    private final FileChannel channel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Start offset to end offset of the received ranges, adjacent and overlapping ranges are merged
+    private final TreeMap<Long, Long> receivedRanges = new TreeMap<>();
+    private final Instant createdAt = Instant.now();
+    private volatile Instant lastActivityAt = createdAt;
+    private volatile boolean closed;
+
+    /**
+     * Opens a chunked upload.
+     *
+     * @param id          the unique ID of the upload
+     * @param fileName    the original name of the file
+     * @param contentType the MIME type sent by the client, may be null
+     * @param size        the size of the file in bytes
+     * @param spool       the empty file to write the chunks to
+     * @throws IOException thrown when the spool file could not be opened
+     */
+    UploadSession(
+            final String id,
+            final String fileName,
+            final String contentType,
+            final long size,
+            final Path spool
+    ) throws IOException {
+        this.id = id;
+        this.fileName = fileName;
+        this.contentType = contentType;
+        this.size = size;
+        this.spool = spool;
+        this.channel = FileChannel.open(spool, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Writes a chunk at its offset. Chunks may overlap earlier chunks, the last write wins. A chunk only counts as
+     * received once it is written completely, an interrupted chunk has to be sent again.
+     *
+     * @param offset the offset of the first byte of the chunk
+     * @param chunk  the content of the chunk
+     * @return the number of bytes written
+     * @throws IOException thrown when the chunk could not be read or written
+     */
+    long write(final long offset, final InputStream chunk) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            if (offset < 0 || offset > size) {
+                throw new InvalidRequestException("Offset " + offset + " is outside the upload of " + size + " bytes");
+            }
+
+            ReadableByteChannel source = Channels.newChannel(chunk);
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long position = offset;
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                if (position + buffer.remaining() > size) {
+                    throw new InvalidRequestException("Chunk at offset " + offset + " ends beyond the upload of "
+                            + size + " bytes");
+                }
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                buffer.clear();
+            }
+
+            addReceivedRange(offset, position);
+            lastActivityAt = Instant.now();
+            return position - offset;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completes the upload. Checks that every byte is received, flushes the spool file to disk and verifies the
+     * SHA-256 hash of its content. The session stays open when the hash does not match, so corrupted chunks can be
+     * sent again.
+     *
+     * @param expectedSha256 the hex encoded SHA-256 hash of the file, computed by the client
+     * @throws IOException thrown when the spool file could not be flushed or read
+     */
+    void finish(final String expectedSha256) throws IOException {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            long missing = size - getBytesReceived();
+            if (missing > 0) {
+                throw new InvalidRequestException("Upload is incomplete, " + missing + " bytes are missing");
+            }
+
+            channel.force(true);
+            String sha256 = sha256();
+            if (!sha256.equalsIgnoreCase(expectedSha256)) {
+                throw new InvalidRequestException("Checksum mismatch, the received content has SHA-256 " + sha256);
+            }
+
+            channel.close();
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aborts the upload and deletes the spool file. Does nothing for a finished upload, its spool file is owned by the
+     * import.
+     *
+     * @throws IOException thrown when the spool file could not be deleted
+     */
+    void abort() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            channel.close();
+            Files.deleteIfExists(spool);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the received ranges in order of their offset.
+     *
+     * @return a snapshot of the received ranges
+     */
+    public List<Range> getReceivedRanges() {
+        synchronized (receivedRanges) {
+            List<Range> ranges = new ArrayList<>(receivedRanges.size());
+            receivedRanges.forEach((start, end) -> ranges.add(new Range(start, end)));
+            return ranges;
+        }
+    }
+
+    /**
+     * Returns the number of distinct bytes received.
+     *
+     * @return the number of bytes received
+     */
+    public long getBytesReceived() {
+        synchronized (receivedRanges) {
+            return receivedRanges.entrySet().stream().mapToLong(range -> range.getValue() - range.getKey()).sum();
+        }
+    }
+
+    /**
+     * Checks whether every byte is received.
+     *
+     * @return true if the upload can be finished
+     */
+    public boolean isComplete() {
+        return getBytesReceived() == size;
+    }
+
+    /**
+     * Returns the unique id of the upload.
+     *
+     * @return the id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Returns the original name of the uploaded file.
+     *
+     * @return the file name
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the MIME type sent by the client.
+     *
+     * @return the content-type, may be null
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * Returns the size of the uploaded file.
+     *
+     * @return the size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the file the chunks are written to.
+     *
+     * @return the path of the spool file
+     */
+    public Path getSpool() {
+        return spool;
+    }
+
+    /**
+     * Returns when the upload was created.
+     *
+     * @return the creation time
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Returns when the last chunk was received.
+     *
+     * @return the time of the last chunk, or the creation time
+     */
+    public Instant getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    /**
+     * Records a written range, merging it with the ranges it overlaps or touches.
+     *
+     * @param start the offset of the first written byte
+     * @param end   the offset after the last written byte
+     */
+    private void addReceivedRange(final long start, final long end) {
+        if (start == end) {
+            return;
+        }
+        synchronized (receivedRanges) {
+            long mergedStart = start;
+            long mergedEnd = end;
+            Map.Entry<Long, Long> before = receivedRanges.floorEntry(start);
+            if (before != null && before.getValue() >= start) {
+                mergedStart = before.getKey();
+                mergedEnd = Math.max(mergedEnd, before.getValue());
+            }
+            Map.Entry<Long, Long> after;
+            while ((after = receivedRanges.ceilingEntry(mergedStart)) != null && after.getKey() <= mergedEnd) {
+                mergedEnd = Math.max(mergedEnd, after.getValue());
+                receivedRanges.remove(after.getKey());
+            }
+            receivedRanges.put(mergedStart, mergedEnd);
+        }
+    }
+
+    /**
+     * Computes the SHA-256 hash of the spool file.
+     *
+     * @return the hex encoded hash
+     * @throws IOException thrown when the spool file could not be read
+     */
+    private String sha256() throws IOException {
+        MessageDigest digest = ImportJobService.newSha256Digest();
+        try (FileChannel reader = FileChannel.open(spool, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (reader.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Rejects changes to a finished or aborted upload.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new InvalidRequestException("Upload " + id + " is already finished or aborted");
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.exceptions.InvalidRequestException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Receives large files as resumable chunked uploads. An upload is created with the size of the file, its chunks are
+ * PUT at their offset in any order, possibly in parallel, and the upload is finished with the SHA-256 hash of the file.
+ * A failed chunk is simply sent again, instead of restarting the whole upload. The finished file is imported by the
+ * ImportJobService like a regular upload.
+ * <p>
+ * Uploads without a chunk for longer than session-retention are aborted and their spool file is deleted, by a sweep
+ * which runs every sweep-interval.
+ */
+@Service
+public class UploadSessionService implements SchedulingConfigurer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UploadSessionService.class);
+    private static final DataSize DEFAULT_MAX_SIZE = DataSize.ofGigabytes(10);
+    private static final Duration DEFAULT_SESSION_RETENTION = Duration.ofHours(24);
+    private static final Duration DEFAULT_SWEEP_INTERVAL = Duration.ofMinutes(15);
+
+    private final ImportJobService importJobService;
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${lostandfound.upload.max-size:10GB}")
+    private DataSize maxSize = DEFAULT_MAX_SIZE;
+
+    @Value("${lostandfound.upload.session-retention:24h}")
+    private Duration sessionRetention = DEFAULT_SESSION_RETENTION;
+
+    @Value("${lostandfound.upload.sweep-interval:15m}")
+    private Duration sweepInterval = DEFAULT_SWEEP_INTERVAL;
+
+    /**
+     * Constructor of UploadSessionService.
+     *
+     * @param importJobService injected ImportJobService
+     */
+    public UploadSessionService(final ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    /**
+     * Creates a chunked upload with an empty spool file.
+     *
+     * @param fileName    the original name of the file
+     * @param contentType the MIME type of the file, may be null to detect it from the name and content
+     * @param size        the size of the file in bytes
+     * @return the new UploadSession
+     * @throws IOException thrown when the spool file could not be created
+     */
+    public UploadSession create(final String fileName, final String contentType, final long size) throws IOException {
+        if (size < 0 || size > maxSize.toBytes()) {
+            throw new InvalidRequestException("Upload size must be between 0 and " + maxSize.toBytes() + " bytes");
+        }
+        Path spool = ImportJobService.createSpoolFile(fileName);
+        UploadSession session;
+        try {
+            session = new UploadSession(UUID.randomUUID().toString(), fileName, contentType, size, spool);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * Gets an open UploadSession by ID.
+     *
+     * @param id the ID of the upload
+     * @return the UploadSession if it is still open
+     */
+    public Optional<UploadSession> findById(final String id) {
+        return Optional.ofNullable(sessions.get(id));
+    }
+
+    /**
+     * Writes a chunk of an upload at its offset.
+     *
+     * @param id     the ID of the upload
+     * @param offset the offset of the first byte of the chunk
+     * @param chunk  the content of the chunk
+     * @return the UploadSession with the chunk received
+     * @throws IOException thrown when the chunk could not be read or written
+     */
+    public UploadSession writeChunk(final String id, final long offset, final InputStream chunk) throws IOException {
+        UploadSession session = get(id);
+        session.write(offset, chunk);
+        return session;
+    }
+
+    /**
+     * Finishes an upload once all chunks are received and queues the import of the file. The spool file is flushed to
+     * disk and its SHA-256 hash is verified before it is handed to the ImportJobService.
+     *
+     * @param id      the ID of the upload
+     * @param sha256  the hex encoded SHA-256 hash of the file, computed by the client
+     * @param lenient whether invalid records are skipped instead of failing the import, or null for the configured
+     *                lostandfound.import.lenient
+     * @param merge   whether LostItems are merged into the existing LostItems instead of inserted, or null for the
+     *                configured lostandfound.import.merge
+     * @return the queued or earlier ImportJob
+     * @throws IOException thrown when the spool file could not be flushed or read
+     */
+    public ImportJob finish(final String id, final String sha256, final Boolean lenient, final Boolean merge)
+            throws IOException {
+        UploadSession session = get(id);
+        session.finish(sha256);
+        sessions.remove(id);
+        return importJobService.submit(
+                session.getSpool(), session.getFileName(), session.getContentType(),
+                sha256.toLowerCase(Locale.ROOT), lenient, merge
+        );
+    }
+
+    /**
+     * Aborts an upload and deletes the received chunks.
+     *
+     * @param id the ID of the upload
+     * @throws IOException thrown when the spool file could not be deleted
+     */
+    public void abort(final String id) throws IOException {
+        UploadSession session = sessions.remove(id);
+        if (session == null) {
+            throw new NoSuchElementException("Unknown upload: " + id);
+        }
+        session.abort();
+    }
+
+    /**
+     * Aborts all open uploads, so no spool files are left behind.
+     */
+    @PreDestroy
+    public void shutdown() {
+        sessions.keySet().forEach(this::abortQuietly);
+    }
+
+    /**
+     * Gets an open UploadSession by ID.
+     *
+     * @param id the ID of the upload
+     * @return the UploadSession
+     * @throws NoSuchElementException when there is no open upload with this ID
+     */
+    private UploadSession get(final String id) {
+        return findById(id).orElseThrow(() -> new NoSuchElementException("Unknown upload: " + id));
+    }
+
+    /**
+     * Schedules the sweep of idle uploads every sweep-interval. It is registered here instead of with @Scheduled, so
+     * the interval is bound as Duration like the other properties, e.g. "15m".
+     *
+     * @param taskRegistrar the registrar of the scheduled tasks
+     */
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::abortIdleSessions, sweepInterval, sweepInterval));
+    }
+
+    /**
+     * Aborts the uploads which received no chunk for longer than session-retention.
+     */
+    public void abortIdleSessions() {
+        Instant threshold = Instant.now().minus(sessionRetention);
+        sessions.values().stream()
+                .filter(session -> session.getLastActivityAt().isBefore(threshold))
+                .map(UploadSession::getId)
+                .forEach(this::abortQuietly);
+    }
+
+    /**
+     * Aborts an upload, logging instead of throwing failures.
+     *
+     * @param id the ID of the upload
+     */
+    private void abortQuietly(final String id) {
+        UploadSession session = sessions.remove(id);
+        if (session == null) {
+            return;
+        }
+        try {
+            session.abort();
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete spooled upload {}", session.getSpool(), e);
+        }
+    }
+}
@@ -6,10 +6,20 @@ INSERT INTO users (username, password, role, created_at, updated_at) VALUES
 ('user2', '$2a$10$/N.h2vKRRwmsMGe4r1vvX.wiWCAgcgq3aOwPYlnM1IiAChmdT1blS', 'ROLE_USER', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
 
 -- Add some example data
-INSERT INTO lost_items (item_name, quantity, place, created_at, updated_at) VALUES
-('computer', 1, 'Cafe', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('laptop', 6, 'Town hall', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
-('printer', 2, 'Bank', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP);
+INSERT INTO places (name, name_key) VALUES
+('Cafe', 'cafe'),
+('Town hall', 'town hall'),
+('Bank', 'bank');
+
+INSERT INTO lost_items (item_name, quantity, place_id, item_key, merge_target, created_at, updated_at)
+SELECT v.item_name, v.quantity, p.id, v.item_key, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM (VALUES
+    ('computer', 1, 'cafe', 'computer'),
+    ('laptop', 6, 'town hall', 'laptop'),
+    ('printer', 2, 'bank', 'printer')
+) AS v (item_name, quantity, place_key, item_key)
+JOIN places p ON p.name_key = v.place_key
+ORDER BY v.item_key;
 
 INSERT INTO lost_item_claims (user_id, lost_item_id, quantity, created_at, updated_at) VALUES
 (2, 1, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP),
@@ -0,0 +1,34 @@
+package dev.riemer.lostandfound;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads the context with the application.properties shipped in src/main, which the test resources otherwise shadow.
+ */
+@SpringBootTest
+@TestPropertySource(locations = "file:src/main/resources/application.properties")
+class LostandfoundApplicationPropertiesTests {
+
+	@Autowired
+	private ScheduledTaskHolder scheduledTaskHolder;
+
+	@Test
+	void contextLoadsWithShippedProperties() {
+		assertTrue(scheduledTaskHolder.getScheduledTasks().stream()
+				.map(ScheduledTask::getTask)
+				.anyMatch(task -> task instanceof FixedDelayTask sweep
+						&& Duration.ofMinutes(15).equals(sweep.getIntervalDuration())),
+				"Should schedule the upload sweep every lostandfound.upload.sweep-interval");
+	}
+
+}
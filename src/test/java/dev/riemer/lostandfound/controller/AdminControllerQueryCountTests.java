@@ -0,0 +1,84 @@
+package dev.riemer.lostandfound.controller;
+
+import dev.riemer.lostandfound.dataset.DatabaseSeeder;
+import dev.riemer.lostandfound.dto.LostItemAdminDto;
+import dev.riemer.lostandfound.dto.LostItemAdminPageDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+public class AdminControllerQueryCountTests {
+
+    @Autowired
+    private AdminController adminController;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void testGetLostItemClaims_shouldUseTwoStatementsPerPage() {
+        long seededStatements = countStatements(100);
+
+        new DatabaseSeeder(23).seed(jdbcTemplate, 50, 1_000, 2_000);
+        long grownStatements = countStatements(100);
+
+        assertEquals(2, seededStatements);
+        assertEquals(seededStatements, grownStatements);
+    }
+
+    @Test
+    public void testGetLostItemClaims_shouldPageThroughAllClaims() {
+        new DatabaseSeeder(23).seed(jdbcTemplate, 10, 250, 500);
+        long expectedClaims = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lost_item_claims", Long.class);
+
+        long claims = 0;
+        Long after = null;
+        do {
+            LostItemAdminPageDto page = adminController.getLostItemClaims(after, 100).getBody();
+            assertNotNull(page);
+            claims += page.getItems().stream().mapToLong(item -> item.getClaims().size()).sum();
+            after = page.getNext();
+        } while (after != null);
+
+        assertEquals(expectedClaims, claims);
+    }
+
+    private long countStatements(int limit) {
+        // Start from an empty persistence context, like a new request
+        entityManager.clear();
+        statistics.clear();
+
+        LostItemAdminPageDto page = adminController.getLostItemClaims(null, limit).getBody();
+        assertNotNull(page);
+        // Reading the claims must not trigger further queries
+        page.getItems().stream().map(LostItemAdminDto::getClaims).forEach(claims -> claims.forEach(claim -> {
+            assertNotNull(claim.getUsername());
+        }));
+
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -1,12 +1,20 @@
 package dev.riemer.lostandfound.controller;
 
+import dev.riemer.lostandfound.dto.ImportJobDto;
 import dev.riemer.lostandfound.dto.LostItemAdminDto;
+import dev.riemer.lostandfound.dto.LostItemAdminPageDto;
+import dev.riemer.lostandfound.dto.NewUploadSession;
+import dev.riemer.lostandfound.dto.UploadSessionDto;
 import dev.riemer.lostandfound.dto.UserInfoDto;
 import dev.riemer.lostandfound.model.LostItem;
-import dev.riemer.lostandfound.model.LostItemClaim;
-import dev.riemer.lostandfound.model.Role;
-import dev.riemer.lostandfound.model.User;
+import dev.riemer.lostandfound.model.Place;
+import dev.riemer.lostandfound.repository.LostItemClaimRepository;
+import dev.riemer.lostandfound.service.ImportJob;
+import dev.riemer.lostandfound.service.ImportJobService;
+import dev.riemer.lostandfound.service.LostItemClaimService;
 import dev.riemer.lostandfound.service.LostItemService;
+import dev.riemer.lostandfound.service.UploadSession;
+import dev.riemer.lostandfound.service.UploadSessionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -15,9 +23,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -26,60 +39,66 @@ public class AdminControllerTests {
 
     private AdminController adminController;
     private LostItemService lostItemService;
+    private LostItemClaimService lostItemClaimService;
+    private ImportJobService importJobService;
+    private UploadSessionService uploadSessionService;
 
     @BeforeEach
     public void setUp() {
         lostItemService = mock(LostItemService.class);
-        adminController = new AdminController(lostItemService);
+        lostItemClaimService = mock(LostItemClaimService.class);
+        importJobService = mock(ImportJobService.class);
+        uploadSessionService = mock(UploadSessionService.class);
+        adminController = new AdminController(
+                lostItemService, lostItemClaimService, importJobService, uploadSessionService
+        );
     }
 
     @Test
     public void testGetLostItemClaims() {
         // Prepare mock data
-        User user = new User();
-        user.setId(1L);
-        user.setUsername("username");
-        user.setPassword("password");
-        user.setRole(Role.ROLE_USER);
-
-        LostItemClaim lostItemClaim1 = new LostItemClaim();
-        lostItemClaim1.setId(1L);
-        lostItemClaim1.setUser(user);
-
         LostItem item1 = new LostItem();
         item1.setId(1L);
         item1.setItemName("Wallet");
-        item1.setPlace("Lobby");
+        item1.setPlace(new Place("Lobby"));
         item1.setQuantity(1);
-        item1.setClaims(List.of(lostItemClaim1));
 
         LostItem item2 = new LostItem();
         item2.setId(2L);
         item2.setItemName("Umbrella");
-        item2.setPlace("Entrance");
+        item2.setPlace(new Place("Entrance"));
         item2.setQuantity(2);
-        item2.setClaims(List.of(lostItemClaim1));
+
+        LostItemClaimRepository.ClaimSummary claim = mock(LostItemClaimRepository.ClaimSummary.class);
+        when(claim.getLostItemId()).thenReturn(1L);
+        when(claim.getUsername()).thenReturn("username");
+        when(claim.getQuantity()).thenReturn(1);
 
         List<LostItem> lostItems = Arrays.asList(item1, item2);
 
-        when(lostItemService.getAllLostItems()).thenReturn(lostItems);
+        when(lostItemService.getLostItems(null, null, 100)).thenReturn(new LostItemService.Page<>(lostItems, 2L));
+        when(lostItemClaimService.getClaimsByLostItemId(List.of(1L, 2L))).thenReturn(Map.of(1L, List.of(claim)));
 
         // Call the method under test
-        ResponseEntity<List<LostItemAdminDto>> response = adminController.getLostItemClaims();
+        ResponseEntity<LostItemAdminPageDto> response = adminController.getLostItemClaims(null, 100);
 
         // Verify
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
 
-        List<LostItemAdminDto> body = response.getBody();
+        LostItemAdminPageDto body = response.getBody();
         assertNotNull(body);
-        assertEquals(2, body.size());
+        assertEquals(2, body.getItems().size());
+        assertEquals(2L, body.getNext());
+
+        List<Long> itemIds = body.getItems().stream().map(LostItemAdminDto::getId).toList();
+        assertEquals(List.of(1L, 2L), itemIds);
 
-        List<Long> itemIds = body.stream().map(LostItemAdminDto::getId).toList();
-        assertTrue(itemIds.contains(1L));
-        assertTrue(itemIds.contains(2L));
+        assertEquals(1, body.getItems().get(0).getClaims().size());
+        assertEquals("username", body.getItems().get(0).getClaims().getFirst().getUsername());
+        assertTrue(body.getItems().get(1).getClaims().isEmpty());
 
-        verify(lostItemService, times(1)).getAllLostItems();
+        verify(lostItemClaimService, times(1)).getClaimsByLostItemId(List.of(1L, 2L));
     }
 
     @Test
@@ -92,17 +111,22 @@ public class AdminControllerTests {
                 "text/plain",
                 content.getBytes()
         );
+        ImportJob job = new ImportJob("job-1", "test.txt", "0a1b");
+        when(importJobService.submit(multipartFile, null, null)).thenReturn(job);
 
         // Call the method under test
-        ResponseEntity<?> response = adminController.uploadLostItemsFile(multipartFile);
+        ResponseEntity<ImportJobDto> response = adminController.uploadLostItemsFile(multipartFile, null, null);
 
         // Verify
         assertNotNull(response);
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals("File processed successfully.", response.getBody());
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/admin/imports/job-1", response.getHeaders().getLocation().toString());
+        assertNotNull(response.getBody());
+        assertEquals("job-1", response.getBody().getId());
+        assertEquals(ImportJob.State.QUEUED, response.getBody().getState());
 
         ArgumentCaptor<MultipartFile> fileCaptor = ArgumentCaptor.forClass(MultipartFile.class);
-        verify(lostItemService, times(1)).processLostItemsFile(fileCaptor.capture());
+        verify(importJobService, times(1)).submit(fileCaptor.capture(), isNull(), isNull());
         assertEquals(multipartFile, fileCaptor.getValue());
     }
 
@@ -117,16 +141,98 @@ public class AdminControllerTests {
         );
 
         // Mock behavior to throw IOException
-        doThrow(new IOException("File read error")).when(lostItemService).processLostItemsFile(multipartFile);
+        doThrow(new IOException("File read error")).when(importJobService).submit(multipartFile, null, null);
 
         // Call the method under test and expect an exception
         IOException exception = assertThrows(IOException.class, () -> {
-            adminController.uploadLostItemsFile(multipartFile);
+            adminController.uploadLostItemsFile(multipartFile, null, null);
         });
 
         assertEquals("File read error", exception.getMessage());
 
-        verify(lostItemService, times(1)).processLostItemsFile(multipartFile);
+        verify(importJobService, times(1)).submit(multipartFile, null, null);
+    }
+
+    @Test
+    public void testCreateUpload() throws IOException {
+        NewUploadSession newUploadSession = new NewUploadSession();
+        newUploadSession.setFileName("items.txt");
+        newUploadSession.setSize(100L);
+        UploadSession session = mock(UploadSession.class);
+        when(session.getId()).thenReturn("upload-1");
+        when(session.getSize()).thenReturn(100L);
+        when(session.getReceivedRanges()).thenReturn(List.of());
+        when(uploadSessionService.create("items.txt", null, 100L)).thenReturn(session);
+
+        ResponseEntity<UploadSessionDto> response = adminController.createUpload(newUploadSession);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals("/admin/uploads/upload-1", response.getHeaders().getLocation().toString());
+        assertNotNull(response.getBody());
+        assertEquals(0, response.getBody().getBytesReceived());
+        assertFalse(response.getBody().isComplete());
+    }
+
+    @Test
+    public void testUploadChunk() throws IOException {
+        InputStream chunk = new ByteArrayInputStream(new byte[40]);
+        UploadSession session = mock(UploadSession.class);
+        when(session.getId()).thenReturn("upload-1");
+        when(session.getSize()).thenReturn(100L);
+        when(session.getReceivedRanges()).thenReturn(
+                List.of(new UploadSession.Range(0, 20), new UploadSession.Range(60, 100)));
+        when(uploadSessionService.writeChunk("upload-1", 60, chunk)).thenReturn(session);
+
+        ResponseEntity<UploadSessionDto> response = adminController.uploadChunk("upload-1", 60, chunk);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(60, response.getBody().getBytesReceived());
+        assertEquals(2, response.getBody().getReceivedRanges().size());
+    }
+
+    @Test
+    public void testFinishUpload() throws IOException {
+        ImportJob job = new ImportJob("job-1", "items.txt", "0a1b");
+        when(uploadSessionService.finish("upload-1", "0a1b", true, true)).thenReturn(job);
+
+        ResponseEntity<ImportJobDto> response = adminController.finishUpload("upload-1", "0a1b", true, true);
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals("/admin/imports/job-1", response.getHeaders().getLocation().toString());
+        assertNotNull(response.getBody());
+        assertEquals("job-1", response.getBody().getId());
+    }
+
+    @Test
+    public void testAbortUpload() throws IOException {
+        ResponseEntity<Void> response = adminController.abortUpload("upload-1");
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(uploadSessionService).abort("upload-1");
+    }
+
+    @Test
+    public void testGetImportJob() {
+        ImportJob job = new ImportJob("job-1", "test.txt", "0a1b");
+        job.parsed(10);
+        job.saved(5);
+        when(importJobService.findById("job-1")).thenReturn(Optional.of(job));
+
+        ResponseEntity<ImportJobDto> response = adminController.getImportJob("job-1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("test.txt", response.getBody().getFileName());
+        assertEquals(10, response.getBody().getRecordsParsed());
+        assertEquals(5, response.getBody().getRecordsSaved());
+    }
+
+    @Test
+    public void testGetImportJob_NotFound() {
+        when(importJobService.findById("unknown")).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> adminController.getImportJob("unknown"));
     }
 
     @Test
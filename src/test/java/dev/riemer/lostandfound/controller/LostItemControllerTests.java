@@ -1,73 +1,155 @@
 package dev.riemer.lostandfound.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import dev.riemer.lostandfound.dto.LostItemDto;
+import dev.riemer.lostandfound.dto.LostItemPageDto;
 import dev.riemer.lostandfound.dto.NewLostItemClaim;
 import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
 import dev.riemer.lostandfound.model.User;
+import dev.riemer.lostandfound.service.LostItemCatalogService;
 import dev.riemer.lostandfound.service.LostItemClaimService;
 import dev.riemer.lostandfound.service.LostItemService;
+import dev.riemer.lostandfound.service.SerializedResponse;
 import dev.riemer.lostandfound.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class LostItemControllerTests {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
 
     private LostItemController lostItemController;
     private LostItemService lostItemService;
     private UserService userService;
     private LostItemClaimService lostItemClaimService;
+    private LostItemCatalogService lostItemCatalogService;
 
     @BeforeEach
     public void setUp() {
         lostItemService = mock(LostItemService.class);
         userService = mock(UserService.class);
         lostItemClaimService = mock(LostItemClaimService.class);
-        lostItemController = new LostItemController(lostItemService, userService, lostItemClaimService);
+        lostItemCatalogService = mock(LostItemCatalogService.class);
+        lostItemController = new LostItemController(
+                lostItemService, userService, lostItemClaimService, lostItemCatalogService
+        );
     }
 
     @Test
-    public void testGetLostItems() {
+    public void testGetLostItems() throws IOException {
         // Prepare mock data
         LostItem item1 = new LostItem();
         item1.setItemName("Wallet");
-        item1.setPlace("Lobby");
+        item1.setPlace(new Place("Lobby"));
         item1.setQuantity(1);
 
         LostItem item2 = new LostItem();
         item2.setItemName("Umbrella");
-        item2.setPlace("Entrance");
+        item2.setPlace(new Place("Entrance"));
         item2.setQuantity(2);
 
-        List<LostItem> lostItems = Arrays.asList(item1, item2);
+        List<LostItemDto> lostItems = Arrays.asList(new LostItemDto(item1), new LostItemDto(item2));
 
-        when(lostItemService.getAllLostItems()).thenReturn(lostItems);
+        when(lostItemCatalogService.getCatalogPage(null, null, 100))
+                .thenReturn(serialize(new LostItemService.Page<>(lostItems, 2L)));
 
         // Call the method under test
-        ResponseEntity<List<LostItemDto>> response = lostItemController.getLostItems();
+        ResponseEntity<byte[]> response = lostItemController.getLostItems(null, null, 100, null);
 
         // Verify
         assertNotNull(response);
         assertEquals(200, response.getStatusCode().value());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
 
-        List<LostItemDto> body = response.getBody();
-        assertNotNull(body);
-        assertEquals(2, body.size());
+        LostItemPageDto body = OBJECT_MAPPER.readValue(response.getBody(), LostItemPageDto.class);
+        assertEquals(2, body.getItems().size());
+        assertEquals(2L, body.getNext());
 
-        List<String> itemNames = body.stream().map(LostItemDto::getItemName).toList();
+        List<String> itemNames = body.getItems().stream().map(LostItemDto::getItemName).toList();
         assertTrue(itemNames.contains("Wallet"));
         assertTrue(itemNames.contains("Umbrella"));
 
-        verify(lostItemService, times(1)).getAllLostItems();
+        verify(lostItemCatalogService, times(1)).getCatalogPage(null, null, 100);
+    }
+
+    @Test
+    public void testGetLostItemsAtPlace() throws IOException {
+        LostItem item = new LostItem();
+        item.setItemName("Wallet");
+        item.setPlace(new Place("Lobby"));
+        item.setQuantity(1);
+
+        when(lostItemCatalogService.getCatalogPage("lobby", 10L, 5))
+                .thenReturn(serialize(new LostItemService.Page<>(List.of(new LostItemDto(item)), null)));
+
+        ResponseEntity<byte[]> response = lostItemController.getLostItems("lobby", 10L, 5, "gzip, deflate, br");
+
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaders().getFirst(HttpHeaders.VARY));
+        LostItemPageDto body;
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(response.getBody()))) {
+            body = OBJECT_MAPPER.readValue(inputStream, LostItemPageDto.class);
+        }
+        assertEquals(1, body.getItems().size());
+        assertEquals("Lobby", body.getItems().getFirst().getPlace());
+        assertNull(body.getNext());
+    }
+
+    @Test
+    public void testGetLostItems_shouldNegotiateGzip() {
+        SerializedResponse page = serialize(new LostItemService.Page<>(List.of(), null));
+        when(lostItemCatalogService.getCatalogPage(null, null, 100)).thenReturn(page);
+
+        assertSame(page.gzip(), lostItemController.getLostItems(null, null, 100, "br;q=1.0, GZIP;q=0.5").getBody());
+        assertSame(page.gzip(), lostItemController.getLostItems(null, null, 100, "*").getBody());
+        assertSame(page.json(), lostItemController.getLostItems(null, null, 100, "gzip;q=0, *").getBody());
+        assertSame(page.json(), lostItemController.getLostItems(null, null, 100, "identity").getBody());
+        assertSame(page.json(), lostItemController.getLostItems(null, null, 100, "br").getBody());
+    }
+
+    @Test
+    public void testGetLostItems_shouldNotCompressUncachedPage() {
+        SerializedResponse page = SerializedResponse.uncompressed(
+                OBJECT_MAPPER.writer(), new LostItemPageDto(new LostItemService.Page<>(List.of(), null))
+        );
+        when(lostItemCatalogService.getCatalogPage(null, null, 100)).thenReturn(page);
+
+        ResponseEntity<byte[]> response = lostItemController.getLostItems(null, null, 100, "gzip");
+
+        assertSame(page.json(), response.getBody());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+    }
+
+    @Test
+    public void testGetCatalog_shouldStream() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = lostItemController.getCatalog();
+
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+        verify(lostItemCatalogService, times(1)).writeCatalog(body);
+        verify(lostItemCatalogService, never()).getCatalogPage(any(), any(), anyInt());
     }
 
     @Test
@@ -162,4 +244,8 @@ public class LostItemControllerTests {
         verify(userService, times(1)).findByUsername("testuser");
         verify(lostItemClaimService, never()).createLostItemClaim(any(), any(), anyInt());
     }
+
+    private SerializedResponse serialize(LostItemService.Page<LostItemDto> page) {
+        return SerializedResponse.compressed(OBJECT_MAPPER.writerFor(LostItemPageDto.class), new LostItemPageDto(page));
+    }
 }
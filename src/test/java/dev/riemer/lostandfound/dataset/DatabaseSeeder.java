@@ -0,0 +1,207 @@
+package dev.riemer.lostandfound.dataset;
+
+import dev.riemer.lostandfound.model.LostItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+/**
+ * Seeds the places, users, lost_items and lost_item_claims tables with rows of a LostItemDataset, either directly
+ * through a JdbcTemplate or as a SQL script. Rows are generated and inserted in multi-row statements of
+ * ROWS_PER_STATEMENT rows, so millions of rows are seeded without holding them in memory.
+ * <p>
+ * Foreign keys are resolved by joining on the natural keys, so the seed can be added to a database which already holds
+ * data. Seeded users are named "loaduser1", "loaduser2" and so on, their password is "password".
+ */
+public final class DatabaseSeeder {
+    /**
+     * The number of rows inserted per statement.
+     */
+    public static final int ROWS_PER_STATEMENT = 1000;
+
+    /**
+     * The password of all seeded users.
+     */
+    public static final String PASSWORD = "password";
+
+    private static final String USERNAME_PREFIX = "loaduser";
+
+    private final LostItemDataset dataset;
+    private final long seed;
+
+    /**
+     * Receives the generated SQL statements.
+     */
+    @FunctionalInterface
+    public interface StatementSink {
+        /**
+         * Executes or writes a single statement.
+         *
+         * @param sql the statement, without a terminating semicolon
+         * @throws IOException thrown when the statement could not be written
+         */
+        void accept(String sql) throws IOException;
+    }
+
+    /**
+     * Constructs a seeder.
+     *
+     * @param seed the seed of the dataset, the same seed generates the same rows
+     */
+    public DatabaseSeeder(final long seed) {
+        this.dataset = new LostItemDataset(seed, 0);
+        this.seed = seed;
+    }
+
+    /**
+     * Inserts the rows through the JdbcTemplate, taking part in its current transaction.
+     *
+     * @param jdbcTemplate the JdbcTemplate of the database to seed
+     * @param users        the number of users
+     * @param lostItems    the number of LostItems
+     * @param claims       the number of claims, each by a random user on a random LostItem
+     */
+    public void seed(final JdbcTemplate jdbcTemplate, final long users, final long lostItems, final long claims) {
+        try {
+            generate(jdbcTemplate::execute, users, lostItems, claims);
+        } catch (IOException e) {
+            // Executing through the JdbcTemplate does not throw IOExceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes the rows as a SQL script, one statement per line.
+     *
+     * @param out       receives the SQL, is not closed
+     * @param users     the number of users
+     * @param lostItems the number of LostItems
+     * @param claims    the number of claims, each by a random user on a random LostItem
+     * @throws IOException thrown when the script could not be written
+     */
+    public void writeSql(final Writer out, final long users, final long lostItems, final long claims)
+            throws IOException {
+        generate(sql -> out.write(sql + ";\n"), users, lostItems, claims);
+        out.flush();
+    }
+
+    /**
+     * Generates all statements, places first, claims last.
+     *
+     * @param sink      receives the statements
+     * @param users     the number of users
+     * @param lostItems the number of LostItems
+     * @param claims    the number of claims
+     * @throws IOException thrown when the sink failed
+     */
+    private void generate(final StatementSink sink, final long users, final long lostItems, final long claims)
+            throws IOException {
+        if (claims > 0 && (users <= 0 || lostItems <= 0)) {
+            throw new IllegalArgumentException("Claims need at least one user and one LostItem");
+        }
+
+        StringJoiner places = new StringJoiner(", ",
+                "MERGE INTO places (name, name_key) KEY (name_key) VALUES ", "");
+        for (String place : LostItemDataset.places()) {
+            places.add(row(quote(place), quote(LostItem.normalizeKey(place))));
+        }
+        sink.accept(places.toString());
+
+        String password = quote(new BCryptPasswordEncoder().encode(PASSWORD));
+        insert(sink, users, """
+                INSERT INTO users (username, password, role, created_at, updated_at) VALUES\s""", "", i ->
+                row(quote(USERNAME_PREFIX + (i + 1)), password, "'ROLE_USER'", "CURRENT_TIMESTAMP", "CURRENT_TIMESTAMP")
+        );
+
+        insert(sink, lostItems, """
+                INSERT INTO lost_items (item_name, quantity, place_id, item_key, merge_target, created_at, updated_at)
+                SELECT v.item_name, v.quantity, p.id, v.item_key, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM (VALUES\s""", """
+                ) AS v (item_name, quantity, place_key, item_key)
+                JOIN places p ON p.name_key = v.place_key""", i -> {
+                LostItemDataset.Record record = dataset.row(i);
+                return row(quote(record.itemName()), record.quantity(),
+                        quote(LostItem.normalizeKey(record.place())), quote(LostItem.normalizeKey(record.itemName())));
+            }
+        );
+
+        SplittableRandom random = new SplittableRandom(seed);
+        insert(sink, claims, """
+                INSERT INTO lost_item_claims (user_id, lost_item_id, quantity, created_at, updated_at)
+                SELECT u.id, i.id, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+                FROM (VALUES\s""", """
+                ) AS v (username, item_key, place_key)
+                JOIN users u ON u.username = v.username
+                JOIN places p ON p.name_key = v.place_key
+                JOIN lost_items i ON i.item_key = v.item_key AND i.place_id = p.id""", i -> {
+                LostItemDataset.Record record = dataset.row(random.nextLong(lostItems));
+                return row(quote(USERNAME_PREFIX + (random.nextLong(users) + 1)),
+                        quote(LostItem.normalizeKey(record.itemName())), quote(LostItem.normalizeKey(record.place())));
+            }
+        );
+    }
+
+    /**
+     * Generates the rows of a table in statements of ROWS_PER_STATEMENT rows.
+     *
+     * @param sink   receives the statements
+     * @param rows   the number of rows
+     * @param prefix the statement up to the first row
+     * @param suffix the statement after the last row
+     * @param values generates the VALUES row with the given index
+     * @throws IOException thrown when the sink failed
+     */
+    private static void insert(
+            final StatementSink sink,
+            final long rows,
+            final String prefix,
+            final String suffix,
+            final RowGenerator values
+    ) throws IOException {
+        for (long first = 0; first < rows; first += ROWS_PER_STATEMENT) {
+            StringJoiner statement = new StringJoiner(", ", prefix, suffix);
+            for (long i = first; i < Math.min(first + ROWS_PER_STATEMENT, rows); i++) {
+                statement.add(values.row(i));
+            }
+            sink.accept(statement.toString());
+        }
+    }
+
+    /**
+     * Formats a VALUES row.
+     *
+     * @param values the SQL literals of the row
+     * @return the row
+     */
+    private static String row(final String... values) {
+        return "(" + String.join(", ", values) + ")";
+    }
+
+    /**
+     * Formats a String as SQL literal.
+     *
+     * @param value the String
+     * @return the quoted and escaped literal
+     */
+    private static String quote(final String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * Generates a single VALUES row.
+     */
+    @FunctionalInterface
+    private interface RowGenerator {
+        /**
+         * Generates the row with the given index.
+         *
+         * @param index the index of the row
+         * @return the VALUES row
+         */
+        String row(long index);
+    }
+}
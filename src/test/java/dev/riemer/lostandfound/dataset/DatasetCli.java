@@ -0,0 +1,65 @@
+package dev.riemer.lostandfound.dataset;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Command line entry point of the dataset generator. Run it from the test classpath, for example:
+ * <pre>
+ * ./mvnw test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=dev.riemer.lostandfound.dataset.DatasetCli \
+ *     -Dexec.args="text 10000000 target/manifest.txt"
+ * </pre>
+ * Arguments are the format (text, csv, pdf or sql), the number of records, the output file and optionally the seed.
+ * Manifests contain 1% invalid records. The sql format seeds the given number of LostItems, with a user per 100 and a
+ * claim per 10 LostItems.
+ */
+public final class DatasetCli {
+    private static final long DEFAULT_SEED = 42L;
+    private static final double INVALID_RATE = 0.01;
+    private static final int LOST_ITEMS_PER_USER = 100;
+    private static final int LOST_ITEMS_PER_CLAIM = 10;
+    private static final int SEED_ARGUMENT = 3;
+
+    private DatasetCli() {
+    }
+
+    /**
+     * Generates a dataset.
+     *
+     * @param args the format, the number of records, the output file and optionally the seed
+     * @throws IOException thrown when the output could not be written
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length < SEED_ARGUMENT) {
+            System.err.println("Usage: DatasetCli <text|csv|pdf|sql> <records> <output file> [seed]");
+            System.exit(1);
+        }
+
+        String format = args[0].toLowerCase(Locale.ROOT);
+        long records = Long.parseLong(args[1].replace("_", ""));
+        Path output = Path.of(args[2]);
+        long seed = args.length > SEED_ARGUMENT ? Long.parseLong(args[SEED_ARGUMENT]) : DEFAULT_SEED;
+        ManifestWriter manifestWriter = new ManifestWriter(new LostItemDataset(seed, INVALID_RATE));
+
+        long invalid = 0;
+        if ("pdf".equals(format)) {
+            invalid = manifestWriter.writePdf(output, records);
+        } else {
+            try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                switch (format) {
+                    case "text" -> invalid = manifestWriter.writeText(out, records);
+                    case "csv" -> invalid = manifestWriter.writeCsv(out, records);
+                    case "sql" -> new DatabaseSeeder(seed).writeSql(out, Math.max(records / LOST_ITEMS_PER_USER, 1),
+                            records, records / LOST_ITEMS_PER_CLAIM);
+                    default -> throw new IllegalArgumentException("Unknown format: " + format);
+                }
+            }
+        }
+        System.out.printf("Wrote %d records (%d invalid) to %s%n", records, invalid, output);
+    }
+}
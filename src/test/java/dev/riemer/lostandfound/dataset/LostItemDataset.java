@@ -0,0 +1,175 @@
+package dev.riemer.lostandfound.dataset;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a seeded, reproducible stream of synthetic LostItem records for load and benchmark testing. Item names and
+ * Places follow a Zipf distribution, so a few items and stations make up most of the records, like in real manifests.
+ * The same seed always generates the same records, and records are generated one at a time, so datasets of any size
+ * can be streamed.
+ * <p>
+ * Manifest records repeat items at the same Place, sometimes spelled differently, and a configurable fraction is
+ * invalid. Database rows are unique per item name and Place instead, they are seeded as the merge targets of the
+ * lost_items table.
+ */
+public final class LostItemDataset {
+    private static final String[] ITEM_NAMES = {
+        "Umbrella", "Phone", "Wallet", "Keys", "Backpack", "Jacket", "Sunglasses", "Headphones", "Water bottle",
+        "Scarf", "Glove", "Book", "Laptop", "Charger", "Hat", "Earbuds", "Tablet", "Watch", "Passport", "ID card",
+        "Bicycle helmet", "Stroller", "Suitcase", "Teddy bear", "Camera", "Ring", "Necklace", "Skateboard",
+        "Guitar", "Walking stick"
+    };
+    private static final String[] CITIES = {
+        "Amsterdam", "Rotterdam", "Utrecht", "The Hague", "Eindhoven", "Groningen", "Tilburg", "Almere", "Breda",
+        "Nijmegen", "Haarlem", "Arnhem", "Zwolle", "Leiden", "Maastricht", "Delft"
+    };
+    private static final String[] STATION_KINDS = {
+        "Central Station", "South", "North", "Airport", "Bus station", "Ferry terminal", "Town hall", "Library",
+        "Stadium", "Park and Ride"
+    };
+    private static final String[] PLACES = Arrays.stream(STATION_KINDS)
+            .flatMap(kind -> Arrays.stream(CITIES).map(city -> city + " " + kind))
+            .toArray(String[]::new);
+    private static final double ITEM_EXPONENT = 1.1;
+    private static final double PLACE_EXPONENT = 1.0;
+    private static final double RESPELLED_RATE = 0.05;
+    private static final double SINGLE_ITEM_RATE = 0.8;
+    private static final int MAX_QUANTITY = 20;
+    private static final int INVALID_KINDS = 3;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final double invalidRate;
+    private final SplittableRandom random;
+    private final Zipf items = new Zipf(ITEM_NAMES.length, ITEM_EXPONENT);
+    private final Zipf places = new Zipf(PLACES.length, PLACE_EXPONENT);
+
+    /**
+     * A single generated record. Fields of invalid records may be missing or unparsable.
+     *
+     * @param itemName the item name
+     * @param quantity the quantity as written in a manifest, null if missing
+     * @param place    the Place
+     * @param valid    whether the record is a valid LostItem
+     */
+    public record Record(String itemName, String quantity, String place, boolean valid) {
+    }
+
+    /**
+     * Constructs a dataset.
+     *
+     * @param seed        the seed, the same seed generates the same records
+     * @param invalidRate the fraction of manifest records which are invalid, between 0 and 1
+     */
+    public LostItemDataset(final long seed, final double invalidRate) {
+        if (invalidRate < 0 || invalidRate > 1) {
+            throw new IllegalArgumentException("Invalid rate must be between 0 and 1: " + invalidRate);
+        }
+        this.seed = seed;
+        this.invalidRate = invalidRate;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Generates the next manifest record.
+     *
+     * @return the record, invalid with the configured invalid rate
+     */
+    public Record next() {
+        String itemName = respell(ITEM_NAMES[items.sample(random)]);
+        String place = respell(PLACES[places.sample(random)]);
+        String quantity = Integer.toString(quantity(random));
+        if (random.nextDouble() >= invalidRate) {
+            return new Record(itemName, quantity, place, true);
+        }
+
+        return switch (random.nextInt(INVALID_KINDS)) {
+            case 0 -> new Record(itemName, null, place, false);
+            case 1 -> new Record(itemName, "0", place, false);
+            default -> new Record(itemName, "a few", place, false);
+        };
+    }
+
+    /**
+     * Generates the database row with the given index. Rows only depend on the seed and their index, so rows can be
+     * generated again, for example to claim them, without keeping them in memory. The item name ends with the index,
+     * which keeps every row unique.
+     *
+     * @param index the index of the row, starting at 0
+     * @return a valid record
+     */
+    public Record row(final long index) {
+        SplittableRandom rowRandom = new SplittableRandom(seed + (index + 1) * GOLDEN_GAMMA);
+        String itemName = ITEM_NAMES[items.sample(rowRandom)] + " " + (index + 1);
+        String place = PLACES[places.sample(rowRandom)];
+        return new Record(itemName, Integer.toString(quantity(rowRandom)), place, true);
+    }
+
+    /**
+     * Returns all Places rows refer to, in order of popularity.
+     *
+     * @return the Place names
+     */
+    public static String[] places() {
+        return PLACES.clone();
+    }
+
+    /**
+     * Picks a quantity, most LostItems are single items.
+     *
+     * @param source the random source
+     * @return the quantity, at least 1
+     */
+    private static int quantity(final SplittableRandom source) {
+        return source.nextDouble() < SINGLE_ITEM_RATE ? 1 : source.nextInt(2, MAX_QUANTITY + 1);
+    }
+
+    /**
+     * Occasionally spells a name differently, the way it is typed in by hand. The respelled name normalizes to the
+     * same key, so it is a duplicate of the original.
+     *
+     * @param name the name
+     * @return the name, or a differently cased or spaced spelling of it
+     */
+    private String respell(final String name) {
+        if (random.nextDouble() >= RESPELLED_RATE) {
+            return name;
+        }
+        return random.nextBoolean() ? name.toLowerCase() : name.toUpperCase().replace(" ", "  ");
+    }
+
+    /**
+     * Samples ranks from a Zipf distribution, rank 0 is the most frequent.
+     */
+    private static final class Zipf {
+        private final double[] cumulative;
+
+        /**
+         * Precomputes the cumulative weights of all ranks.
+         *
+         * @param size     the number of ranks
+         * @param exponent the skew, higher exponents favour the first ranks more
+         */
+        Zipf(final int size, final double exponent) {
+            cumulative = new double[size];
+            double total = 0;
+            for (int rank = 0; rank < size; rank++) {
+                total += 1 / Math.pow(rank + 1, exponent);
+                cumulative[rank] = total;
+            }
+        }
+
+        /**
+         * Samples a rank.
+         *
+         * @param source the random source
+         * @return the rank, between 0 and size
+         */
+        int sample(final SplittableRandom source) {
+            double value = source.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, value);
+            return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+        }
+    }
+}
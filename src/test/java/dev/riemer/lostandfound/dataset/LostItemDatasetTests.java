@@ -0,0 +1,153 @@
+package dev.riemer.lostandfound.dataset;
+
+import dev.riemer.lostandfound.fileprocessor.CsvFileProcessor;
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import dev.riemer.lostandfound.fileprocessor.LostItemSink;
+import dev.riemer.lostandfound.fileprocessor.PdfFileProcessor;
+import dev.riemer.lostandfound.fileprocessor.TextFileProcessor;
+import dev.riemer.lostandfound.model.LostItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class LostItemDatasetTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testSameSeed_shouldGenerateSameRecords() {
+        LostItemDataset first = new LostItemDataset(7, 0.1);
+        LostItemDataset second = new LostItemDataset(7, 0.1);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(first.next(), second.next());
+        }
+        assertEquals(first.row(12345), second.row(12345));
+        assertNotEquals(new LostItemDataset(8, 0.1).next(), new LostItemDataset(7, 0.1).next());
+    }
+
+    @Test
+    public void testPlaces_shouldFollowZipfDistribution() {
+        LostItemDataset dataset = new LostItemDataset(1, 0);
+        String[] places = LostItemDataset.places();
+
+        Map<String, Long> counts = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            counts.merge(LostItem.normalizeKey(dataset.next().place()), 1L, Long::sum);
+        }
+
+        long mostPopular = counts.get(LostItem.normalizeKey(places[0]));
+        long tenthPopular = counts.get(LostItem.normalizeKey(places[9]));
+        // Zipf with exponent 1: the first place is about ten times as frequent as the tenth
+        assertTrue(mostPopular > 7 * tenthPopular && mostPopular < 13 * tenthPopular,
+                "Expected a Zipf distribution, got " + mostPopular + " and " + tenthPopular);
+    }
+
+    @Test
+    public void testTextManifest_shouldParseWithExpectedRejections() throws IOException {
+        Path file = tempDir.resolve("manifest.txt");
+        long invalid;
+        try (Writer out = Files.newBufferedWriter(file)) {
+            invalid = new ManifestWriter(new LostItemDataset(3, 0.05)).writeText(out, 10_000);
+        }
+
+        CountingSink sink = new CountingSink();
+        new TextFileProcessor().processFile(file, sink);
+
+        assertTrue(invalid > 0, "Expected invalid records");
+        assertEquals(10_000 - invalid, sink.accepted);
+        assertEquals(invalid, sink.rejected);
+    }
+
+    @Test
+    public void testCsvManifest_shouldParseWithExpectedRejections() throws IOException {
+        Path file = tempDir.resolve("manifest.csv");
+        long invalid;
+        try (Writer out = Files.newBufferedWriter(file)) {
+            invalid = new ManifestWriter(new LostItemDataset(3, 0.05)).writeCsv(out, 10_000);
+        }
+
+        CountingSink sink = new CountingSink();
+        new CsvFileProcessor().processFile(file, sink);
+
+        assertEquals(10_000 - invalid, sink.accepted);
+        assertEquals(invalid, sink.rejected);
+    }
+
+    @Test
+    public void testPdfManifest_shouldParseWithExpectedRejections() throws IOException {
+        Path file = tempDir.resolve("manifest.pdf");
+        long invalid = new ManifestWriter(new LostItemDataset(3, 0.05)).writePdf(file, 500);
+
+        CountingSink sink = new CountingSink();
+        new PdfFileProcessor(new SimpleMeterRegistry(), 1).processFile(file, sink);
+
+        assertEquals(500 - invalid, sink.accepted);
+        assertEquals(invalid, sink.rejected);
+    }
+
+    @Test
+    @Transactional
+    public void testSeed_shouldInsertAllRows() {
+        long lostItemsBefore = count("lost_items");
+
+        new DatabaseSeeder(5).seed(jdbcTemplate, 20, 2500, 300);
+
+        assertEquals(20, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE username LIKE 'loaduser%'", Long.class));
+        assertEquals(lostItemsBefore + 2500, count("lost_items"));
+        assertEquals(300, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM lost_item_claims c JOIN users u ON u.id = c.user_id "
+                        + "WHERE u.username LIKE 'loaduser%'", Long.class));
+    }
+
+    @Test
+    public void testWriteSql_shouldBatchRows() throws IOException {
+        StringWriter out = new StringWriter();
+
+        new DatabaseSeeder(5).writeSql(out, 1, 2500, 0);
+
+        String[] statements = out.toString().split(";\n");
+        assertTrue(statements[0].startsWith("MERGE INTO places"));
+        // The places, one for the user and three for the LostItems
+        assertEquals(5, statements.length);
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private static class CountingSink implements LostItemSink {
+        private long accepted;
+        private long rejected;
+
+        @Override
+        public void accept(LostItem lostItem) {
+            accepted++;
+        }
+
+        @Override
+        public void reject(LostItemParseException error) {
+            rejected++;
+        }
+    }
+}
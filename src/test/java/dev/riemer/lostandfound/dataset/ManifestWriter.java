@@ -0,0 +1,165 @@
+package dev.riemer.lostandfound.dataset;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes LostItemDataset records as import manifests in the text, CSV and PDF formats. Records are written as they are
+ * generated, so the size of a manifest is only limited by the disk.
+ */
+public final class ManifestWriter {
+    private static final int LINES_PER_PAGE = 44;
+    private static final float FONT_SIZE = 12;
+    private static final float LEFT_MARGIN = 50;
+    private static final float TOP = 700;
+    private static final float LINE_HEIGHT = -15;
+
+    private final LostItemDataset dataset;
+
+    /**
+     * Constructs a writer for the records of a dataset.
+     *
+     * @param dataset generates the records
+     */
+    public ManifestWriter(final LostItemDataset dataset) {
+        this.dataset = dataset;
+    }
+
+    /**
+     * Writes records in the text format of the upload examples, separated by blank lines.
+     *
+     * @param out     receives the text, is not closed
+     * @param records the number of records to write
+     * @return the number of invalid records written
+     * @throws IOException thrown when the text could not be written
+     */
+    public long writeText(final Writer out, final long records) throws IOException {
+        long invalid = 0;
+        for (long i = 0; i < records; i++) {
+            LostItemDataset.Record record = dataset.next();
+            invalid += record.valid() ? 0 : 1;
+            out.write(String.join("\n", textLines(record)));
+            out.write("\n\n");
+        }
+        out.flush();
+        return invalid;
+    }
+
+    /**
+     * Writes records as CSV with an ItemName, Quantity and Place header. A missing quantity is written as an empty
+     * field.
+     *
+     * @param out     receives the CSV, is not closed
+     * @param records the number of records to write
+     * @return the number of invalid records written
+     * @throws IOException thrown when the CSV could not be written
+     */
+    public long writeCsv(final Writer out, final long records) throws IOException {
+        long invalid = 0;
+        out.write("ItemName,Quantity,Place\n");
+        for (long i = 0; i < records; i++) {
+            LostItemDataset.Record record = dataset.next();
+            invalid += record.valid() ? 0 : 1;
+            out.write(csvField(record.itemName()) + "," + csvField(record.quantity()) + "," + csvField(record.place()));
+            out.write('\n');
+        }
+        out.flush();
+        return invalid;
+    }
+
+    /**
+     * Writes records in the text format as the lines of a PDF. Page content is kept in a temporary scratch file
+     * instead of on the heap while the PDF is written.
+     *
+     * @param file    the PDF file to write
+     * @param records the number of records to write
+     * @return the number of invalid records written
+     * @throws IOException thrown when the PDF could not be written
+     */
+    public long writePdf(final Path file, final long records) throws IOException {
+        long invalid = 0;
+        try (PDDocument document = new PDDocument(MemoryUsageSetting.setupTempFileOnly())) {
+            List<String> page = new ArrayList<>(LINES_PER_PAGE);
+            for (long i = 0; i < records; i++) {
+                LostItemDataset.Record record = dataset.next();
+                invalid += record.valid() ? 0 : 1;
+                for (String line : textLines(record)) {
+                    page.add(line);
+                    if (page.size() == LINES_PER_PAGE) {
+                        addPage(document, page);
+                        page.clear();
+                    }
+                }
+                page.add("");
+            }
+            if (!page.isEmpty()) {
+                addPage(document, page);
+            }
+            document.save(file.toFile());
+        }
+        return invalid;
+    }
+
+    /**
+     * Formats a record as the lines of the text format, leaving out a missing quantity.
+     *
+     * @param record the record
+     * @return the lines of the record
+     */
+    private static List<String> textLines(final LostItemDataset.Record record) {
+        List<String> lines = new ArrayList<>();
+        lines.add("ItemName: " + record.itemName());
+        if (record.quantity() != null) {
+            lines.add("Quantity: " + record.quantity());
+        }
+        lines.add("Place: " + record.place());
+        return lines;
+    }
+
+    /**
+     * Quotes a CSV field if it contains a delimiter, quote or line break.
+     *
+     * @param value the field value, may be null
+     * @return the field as written in the CSV
+     */
+    private static String csvField(final String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    /**
+     * Adds a page with the given lines to the PDF.
+     *
+     * @param document the PDF
+     * @param lines    the lines of the page
+     * @throws IOException thrown when the page could not be written
+     */
+    private static void addPage(final PDDocument document, final List<String> lines) throws IOException {
+        PDPage page = new PDPage();
+        document.addPage(page);
+        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+            contentStream.beginText();
+            contentStream.setFont(PDType1Font.HELVETICA, FONT_SIZE);
+            contentStream.newLineAtOffset(LEFT_MARGIN, TOP);
+            for (String line : lines) {
+                contentStream.showText(line);
+                contentStream.newLineAtOffset(0, LINE_HEIGHT);
+            }
+            contentStream.endText();
+        }
+    }
+}
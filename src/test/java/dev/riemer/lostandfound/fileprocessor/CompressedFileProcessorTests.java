@@ -0,0 +1,200 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class CompressedFileProcessorTests {
+
+    private CompressedFileProcessor compressedFileProcessor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        ObjectProvider<FileProcessorFactory> factoryProvider = mock(ObjectProvider.class);
+        compressedFileProcessor = new CompressedFileProcessor(factoryProvider);
+        FileProcessorFactory factory = new FileProcessorFactory(
+                List.of(new TextFileProcessor(), new CsvFileProcessor(), compressedFileProcessor)
+        );
+        when(factoryProvider.getObject()).thenReturn(factory);
+    }
+
+    @Test
+    public void testSupports_withArchives_shouldReturnTrue() {
+        assertTrue(compressedFileProcessor.supports("application/gzip"));
+        assertTrue(compressedFileProcessor.supports("application/x-gzip"));
+        assertTrue(compressedFileProcessor.supports("application/zip"));
+        assertFalse(compressedFileProcessor.supports("text/plain"));
+    }
+
+    @Test
+    public void testProcessFile_withGzip_shouldProcessContentByName() throws IOException {
+        byte[] gzip = gzip("ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+        MultipartFile file = new MockMultipartFile("file", "items.txt.gz", "application/x-gzip", gzip);
+
+        List<LostItem> lostItems = compressedFileProcessor.processFile(file);
+
+        assertEquals(1, lostItems.size(), "Should parse one lost item");
+        assertEquals("Wallet", lostItems.get(0).getItemName());
+    }
+
+    @Test
+    public void testProcessFile_withZip_shouldProcessEveryEntry(@TempDir Path directory) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            addEntry(zip, "depot-1/items.txt", "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+            addEntry(zip, "__MACOSX/depot-1/._items.txt", "binary metadata");
+            addEntry(zip, "depot-2/items.csv", "ItemName,Quantity,Place\nUmbrella,2,Entrance\nKeys,3,Bus\n");
+        }
+        Path file = Files.write(directory.resolve("items.zip"), bytes.toByteArray());
+
+        List<LostItem> lostItems = new ArrayList<>();
+        compressedFileProcessor.processFile(file, lostItems::add);
+
+        assertEquals(3, lostItems.size(), "Should parse the lost items of both entries");
+        assertEquals("Wallet", lostItems.get(0).getItemName());
+        assertEquals("Umbrella", lostItems.get(1).getItemName());
+        assertEquals("Keys", lostItems.get(2).getItemName());
+    }
+
+    @Test
+    public void testProcessFile_withZipAndDigest_shouldHashWholeArchive(@TempDir Path directory)
+            throws IOException, NoSuchAlgorithmException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            addEntry(zip, "items.txt", "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+        }
+        Path file = Files.write(directory.resolve("items.zip"), bytes.toByteArray());
+
+        List<LostItem> lostItems = new ArrayList<>();
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        compressedFileProcessor.processFile(file, lostItems::add, digest);
+
+        assertEquals(1, lostItems.size(), "Should parse the lost item while hashing");
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(bytes.toByteArray()), digest.digest(),
+                "Should hash the central directory behind the entries too");
+    }
+
+    @Test
+    public void testProcessFile_withUnsupportedEntries_shouldThrowException() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            addEntry(zip, "items.txt.gz", "nested");
+            addEntry(zip, "items.doc", "unknown");
+        }
+        MultipartFile file = new MockMultipartFile("file", "items.zip", "application/zip", bytes.toByteArray());
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> compressedFileProcessor.processFile(file));
+        assertEquals("Nested archives are not supported: items.txt.gz", exception.getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withUnknownFormat_shouldThrowZipException() {
+        MultipartFile file = new MockMultipartFile("file", "items.zip", "application/zip",
+                "ItemName: Wallet\nQuantity: 1\nPlace: Lobby".getBytes(StandardCharsets.UTF_8));
+
+        Exception exception = assertThrows(ZipException.class, () -> compressedFileProcessor.processFile(file));
+        assertEquals("Not a gzip file or zip archive: items.zip", exception.getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withEmptyZip_shouldThrowZipException() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new ZipOutputStream(bytes).close();
+        MultipartFile file = new MockMultipartFile("file", "items.zip", "application/zip", bytes.toByteArray());
+
+        Exception exception = assertThrows(ZipException.class, () -> compressedFileProcessor.processFile(file));
+        assertEquals("Zip archive contains no file to import: items.zip", exception.getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withOnlyMetadataEntries_shouldThrowZipException() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            addEntry(zip, "__MACOSX/._items.txt", "binary metadata");
+            addEntry(zip, ".DS_Store", "binary metadata");
+        }
+        MultipartFile file = new MockMultipartFile("file", "items.zip", "application/zip", bytes.toByteArray());
+
+        assertThrows(ZipException.class, () -> compressedFileProcessor.processFile(file));
+    }
+
+    @Test
+    public void testProcessFile_withGzipBomb_shouldThrowZipException() throws IOException {
+        ReflectionTestUtils.setField(compressedFileProcessor, "maxDecompressedBytes", DataSize.ofMegabytes(1));
+        // 16 MB of blank lines compress to a few KB
+        byte[] gzip = gzip("\n".repeat(16 * 1024 * 1024));
+        assertTrue(gzip.length < 100 * 1024, "The test file should have a high compression ratio");
+        MultipartFile file = new MockMultipartFile("file", "items.txt.gz", "application/gzip", gzip);
+
+        Exception exception = assertThrows(ZipException.class, () -> compressedFileProcessor.processFile(file));
+        assertEquals("Decompressed content exceeds 1048576 bytes: items.txt.gz", exception.getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withZipBomb_shouldCountAllEntries() throws IOException {
+        ReflectionTestUtils.setField(compressedFileProcessor, "maxDecompressedBytes", DataSize.ofMegabytes(1));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            addEntry(zip, "items.txt", "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+            // Skipped entries are inflated as well
+            addEntry(zip, "__MACOSX/._items.txt", " ".repeat(2 * 1024 * 1024));
+        }
+        MultipartFile file = new MockMultipartFile("file", "items.zip", "application/zip", bytes.toByteArray());
+
+        assertThrows(ZipException.class, () -> compressedFileProcessor.processFile(file));
+    }
+
+    @Test
+    public void testProcessFile_withTooManyEntries_shouldThrowZipException() throws IOException {
+        ReflectionTestUtils.setField(compressedFileProcessor, "maxArchiveEntries", 2);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            for (int i = 0; i < 3; i++) {
+                addEntry(zip, "items-" + i + ".txt", "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+            }
+        }
+        MultipartFile file = new MockMultipartFile("file", "items.zip", "application/zip", bytes.toByteArray());
+
+        Exception exception = assertThrows(ZipException.class, () -> compressedFileProcessor.processFile(file));
+        assertEquals("Zip archive contains more than 2 entries: items.zip", exception.getMessage());
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+}
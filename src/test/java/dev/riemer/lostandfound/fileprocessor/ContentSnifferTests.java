@@ -0,0 +1,68 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContentSnifferTests {
+
+    @Test
+    public void testSniff_withSignatures_shouldDetectBinaryFormats() {
+        assertEquals("application/pdf", sniff("%PDF-1.7\n".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals("application/gzip", sniff(new byte[] {0x1F, (byte) 0x8B, 0x08, 0x00}));
+        assertEquals("application/zip", sniff(new byte[] {'P', 'K', 0x03, 0x04, 0x14}));
+        assertEquals("application/zip", sniff(new byte[] {'P', 'K', 0x05, 0x06}));
+    }
+
+    @Test
+    public void testSniff_withText_shouldDetectTextFormats() {
+        assertEquals("text/plain", sniff("ItemName: Wallet\nQuantity: 1\nPlace: Lobby"));
+        assertEquals("text/csv", sniff("ItemName,Quantity,Place\nWallet,1,Lobby"));
+        assertEquals("text/csv", sniff("﻿ItemName;Quantity;Place\n"));
+        assertEquals("application/x-ndjson", sniff("{\"itemName\":\"Wallet\",\"quantity\":1}\n"));
+        assertEquals("text/plain", sniff("Wallet"));
+    }
+
+    @Test
+    public void testSniff_withBinaryOrEmpty_shouldReturnNull() {
+        assertNull(sniff(new byte[] {0x00, 0x01, 0x02, 0x03}));
+        assertNull(sniff(new byte[] {(byte) 0xC3, 0x28}));
+        assertNull(sniff(new byte[0]));
+    }
+
+    @Test
+    public void testSniff_withCutOffMultibyte_shouldStillBeText() {
+        byte[] euro = "Place: €".getBytes(StandardCharsets.UTF_8);
+        assertEquals("text/plain", ContentSniffer.sniff(euro, euro.length - 1));
+    }
+
+    @Test
+    public void testSniff_withStream_shouldNotConsumeIt() throws IOException {
+        byte[] content = "ItemName,Quantity,Place\nWallet,1,Lobby".getBytes(StandardCharsets.UTF_8);
+        InputStream inputStream = new BufferedInputStream(new ByteArrayInputStream(content));
+
+        assertEquals("text/csv", ContentSniffer.sniff(inputStream));
+        assertArrayEquals(content, inputStream.readAllBytes(), "Should read the stream from the start");
+    }
+
+    @Test
+    public void testSniff_withoutMarkSupport_shouldThrow() {
+        InputStream inputStream = InputStream.nullInputStream();
+
+        assertThrows(IllegalArgumentException.class, () -> ContentSniffer.sniff(inputStream));
+    }
+
+    private static String sniff(final String text) {
+        return sniff(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sniff(final byte[] head) {
+        return ContentSniffer.sniff(head, head.length);
+    }
+}
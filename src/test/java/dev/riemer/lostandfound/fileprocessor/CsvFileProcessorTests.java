@@ -0,0 +1,164 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvFileProcessorTests {
+
+    private CsvFileProcessor csvFileProcessor;
+
+    @BeforeEach
+    public void setUp() {
+        csvFileProcessor = new CsvFileProcessor();
+    }
+
+    @Test
+    public void testSupports_withTextCsv_shouldReturnTrue() {
+        assertTrue(csvFileProcessor.supports("text/csv"), "Should support 'text/csv' content type");
+        assertFalse(csvFileProcessor.supports("text/plain"), "Should not support other content types");
+    }
+
+    @Test
+    public void testProcessFile_withValidCsv_shouldReturnLostItems() throws IOException {
+        String content = "ItemName,Quantity,Place\nWallet,1,Lobby\nUmbrella,2,Entrance\n";
+
+        List<LostItem> lostItems = csvFileProcessor.processFile(createCsvMultipartFile(content));
+
+        assertEquals(2, lostItems.size(), "Should parse two lost items");
+        assertEquals("Wallet", lostItems.get(0).getItemName());
+        assertEquals(1, lostItems.get(0).getQuantity());
+        assertEquals("Lobby", lostItems.get(0).getPlaceName());
+        assertEquals("Umbrella", lostItems.get(1).getItemName());
+        assertEquals(2, lostItems.get(1).getQuantity());
+        assertEquals("Entrance", lostItems.get(1).getPlaceName());
+    }
+
+    @Test
+    public void testProcessFile_withQuotedFields_shouldUnquote() throws IOException {
+        String content = "﻿id;place;QUANTITY;item name;remarks\r\n"
+                + "1;\"Station; platform 2\";3;\"Umbrella, \"\"black\"\"\";\"multi\r\nline\"\r\n"
+                + "\r\n"
+                + "2; Lobby ; 1 ;Wallet;\r\n";
+
+        ReflectionTestUtils.setField(csvFileProcessor, "delimiter", ';');
+        ReflectionTestUtils.setField(csvFileProcessor, "itemNameColumn", "Item Name");
+        List<LostItem> lostItems = csvFileProcessor.processFile(createCsvMultipartFile(content));
+
+        assertEquals(2, lostItems.size(), "Should parse two lost items");
+        assertEquals("Umbrella, \"black\"", lostItems.get(0).getItemName());
+        assertEquals(3, lostItems.get(0).getQuantity());
+        assertEquals("Station; platform 2", lostItems.get(0).getPlaceName());
+        assertEquals("Wallet", lostItems.get(1).getItemName());
+        assertEquals(1, lostItems.get(1).getQuantity());
+        assertEquals("Lobby", lostItems.get(1).getPlaceName());
+    }
+
+    @Test
+    public void testProcessFile_withMissingColumn_shouldThrowException() {
+        MultipartFile file = createCsvMultipartFile("ItemName,Place\nWallet,Lobby\n");
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> csvFileProcessor.processFile(file));
+        assertEquals("Missing CSV column: Quantity", exception.getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withInvalidRows_shouldUseParserValidation() {
+        MultipartFile missing = createCsvMultipartFile("ItemName,Quantity,Place\nWallet,1\n");
+        MultipartFile invalid = createCsvMultipartFile("ItemName,Quantity,Place\nWallet,abc,Lobby\n");
+
+        Exception missingException = assertThrows(IllegalArgumentException.class,
+                () -> csvFileProcessor.processFile(missing));
+        Exception invalidException = assertThrows(IllegalArgumentException.class,
+                () -> csvFileProcessor.processFile(invalid));
+        assertEquals(LostItemParser.MISSING_FIELDS_MESSAGE, missingException.getMessage());
+        assertEquals(LostItemParser.INVALID_QUANTITY_MESSAGE + "abc", invalidException.getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withEmptyValues_shouldMatchTextFormat() throws IOException {
+        MultipartFile csv = createCsvMultipartFile("ItemName,Quantity,Place\n,1,\nWallet,,Lobby\n");
+        List<LostItem> textItems = LostItemParser.parseLostItemsFromText("ItemName:\nQuantity: 1\nPlace:");
+        Exception textException = assertThrows(IllegalArgumentException.class,
+                () -> LostItemParser.parseLostItemsFromText("ItemName: Wallet\nQuantity:\nPlace: Lobby"));
+
+        List<LostItem> csvItems = new ArrayList<>();
+        List<LostItemParseException> rejected = new ArrayList<>();
+        csvFileProcessor.processStream(csv.getInputStream(), new LostItemSink() {
+            @Override
+            public void accept(LostItem lostItem) {
+                csvItems.add(lostItem);
+            }
+
+            @Override
+            public void reject(LostItemParseException error) {
+                rejected.add(error);
+            }
+        });
+
+        assertEquals(1, csvItems.size(), "An empty name and place should be accepted like in the text format");
+        assertEquals(textItems.getFirst().getItemName(), csvItems.getFirst().getItemName());
+        assertEquals(textItems.getFirst().getPlaceName(), csvItems.getFirst().getPlaceName());
+        assertEquals(1, rejected.size());
+        assertEquals(textException.getMessage(), rejected.getFirst().getMessage(),
+                "An empty quantity should be rejected like in the text format");
+    }
+
+    @Test
+    public void testProcessFile_withSink_shouldStreamRows(@TempDir Path directory) throws IOException {
+        StringBuilder content = new StringBuilder("ItemName,Quantity,Place\n");
+        for (int i = 0; i < 100; i++) {
+            content.append("Item ").append(i).append(",1,Lobby\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.csv"), content);
+
+        List<LostItem> lostItems = new ArrayList<>();
+        csvFileProcessor.processFile(file, lostItems::add);
+
+        assertEquals(100, lostItems.size(), "Should emit all lost items");
+        assertEquals("Item 99", lostItems.get(99).getItemName());
+    }
+
+    @Test
+    public void testProcessStream_withLenientSink_shouldReportLineOfInvalidRows() throws IOException {
+        String content = "ItemName,Quantity,Place\n\"Bag\nwith strap\",1,Lobby\n"
+                + "Wallet,abc,Lobby\nPurse,2\nKeys,3,Cafe\n";
+        List<LostItem> lostItems = new ArrayList<>();
+        List<LostItemParseException> rejected = new ArrayList<>();
+
+        csvFileProcessor.processStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                new LostItemSink() {
+                    @Override
+                    public void accept(LostItem lostItem) {
+                        lostItems.add(lostItem);
+                    }
+
+                    @Override
+                    public void reject(LostItemParseException error) {
+                        rejected.add(error);
+                    }
+                });
+
+        assertEquals(List.of("Bag\nwith strap", "Keys"), lostItems.stream().map(LostItem::getItemName).toList());
+        assertEquals(List.of(4L, 5L), rejected.stream().map(LostItemParseException::getLineNumber).toList(),
+                "Line numbers should count the line break within the quoted field");
+    }
+
+    private MultipartFile createCsvMultipartFile(String content) {
+        return new MockMultipartFile("file", "test.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+}
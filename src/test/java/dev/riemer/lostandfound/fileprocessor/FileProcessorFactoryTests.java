@@ -7,11 +7,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class FileProcessorFactoryTests {
@@ -65,4 +70,65 @@ public class FileProcessorFactoryTests {
                 "Exception message should contain the unsupported content type"
         );
     }
+
+    @Test
+    public void testGetProcessor_shouldIgnoreParametersAndRememberTheProcessor() {
+        when(fileProcessor1.supports("text/plain")).thenReturn(true);
+
+        assertEquals(fileProcessor1, fileProcessorFactory.getProcessor("text/plain; charset=UTF-8"));
+        assertEquals(fileProcessor1, fileProcessorFactory.getProcessor("Text/Plain"));
+
+        verify(fileProcessor1, times(1)).supports("text/plain");
+        verifyNoInteractions(fileProcessor2);
+    }
+
+    @Test
+    public void testGetProcessor_withGenericContentType_shouldUseSniffedType() throws IOException {
+        InputStream inputStream = stream("ItemName,Quantity,Place\nWallet,1,Lobby");
+        when(fileProcessor1.supports(anyString()))
+                .thenAnswer(invocation -> "text/csv".equals(invocation.getArgument(0)));
+
+        FileProcessor result = fileProcessorFactory.getProcessor("application/octet-stream", inputStream);
+
+        assertEquals(fileProcessor1, result, "Should pick the processor of the sniffed content-type");
+        assertEquals('I', inputStream.read(), "Should not consume the stream");
+    }
+
+    @Test
+    public void testGetProcessor_withSignature_shouldOverrideDeclaredType() throws IOException {
+        InputStream inputStream = stream("%PDF-1.7\n");
+        when(fileProcessor1.supports(anyString()))
+                .thenAnswer(invocation -> "text/plain".equals(invocation.getArgument(0)));
+        when(fileProcessor2.supports("application/pdf")).thenReturn(true);
+
+        assertEquals(fileProcessor2, fileProcessorFactory.getProcessor("text/plain", inputStream));
+    }
+
+    @Test
+    public void testGetProcessor_withSupportedTextType_shouldKeepDeclaredType() throws IOException {
+        InputStream inputStream = stream("ItemName: Wallet, Keys");
+        when(fileProcessor1.supports(anyString()))
+                .thenAnswer(invocation -> "text/plain".equals(invocation.getArgument(0)));
+
+        assertEquals(fileProcessor1, fileProcessorFactory.getProcessor("text/plain", inputStream));
+    }
+
+    @Test
+    public void testGetProcessor_withGenericContentType_shouldRememberItIsUnsupported() throws IOException {
+        when(fileProcessor1.supports(anyString()))
+                .thenAnswer(invocation -> "text/csv".equals(invocation.getArgument(0)));
+
+        for (int i = 0; i < 3; i++) {
+            InputStream inputStream = stream("ItemName,Quantity,Place\nWallet,1,Lobby");
+            assertEquals(fileProcessor1, fileProcessorFactory.getProcessor("application/octet-stream", inputStream));
+        }
+
+        verify(fileProcessor1, times(1)).supports("application/octet-stream");
+        verify(fileProcessor2, times(1)).supports("application/octet-stream");
+        verify(fileProcessor1, times(1)).supports("text/csv");
+    }
+
+    private static InputStream stream(String content) {
+        return new BufferedInputStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,94 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LostItemByteScannerTests {
+
+    @Test
+    public void testParseLostItems_MultipleItems() {
+        String text = "ItemName: Wallet\nQuantity: 1\nPlace: Lobby\n" +
+                "ItemName: Umbrella\nQuantity: 2\nPlace: Entrance";
+
+        List<LostItem> lostItems = parseBytes(text);
+
+        assertEquals(2, lostItems.size(), "Should parse two lost items");
+        assertEquals("Wallet", lostItems.get(0).getItemName());
+        assertEquals(1, lostItems.get(0).getQuantity());
+        assertEquals("Lobby", lostItems.get(0).getPlaceName());
+        assertEquals("Umbrella", lostItems.get(1).getItemName());
+        assertEquals(2, lostItems.get(1).getQuantity());
+        assertEquals("Entrance", lostItems.get(1).getPlaceName());
+    }
+
+    @Test
+    public void testParseLostItems_DirectBuffer() {
+        byte[] bytes = "ItemName: Café\nQuantity: 3\nPlace: Gare du Nord".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+
+        List<LostItem> lostItems = LostItemParser.parseLostItems(buffer).toList();
+
+        assertEquals(1, lostItems.size(), "Should parse one lost item");
+        assertEquals("Café", lostItems.get(0).getItemName());
+        assertEquals(3, lostItems.get(0).getQuantity());
+        assertEquals("Gare du Nord", lostItems.get(0).getPlaceName());
+        assertEquals(0, buffer.position(), "Should not move the position of the buffer");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "ItemName: Wallet\nQuantity: 1\nPlace: Lobby",
+            "   ItemName:   Wallet  \n  Quantity:   1\nPlace:   Lobby  ",
+            "itemname: Wallet\r\nQUANTITY: 1\r\nplace: Lobby\r\n\r\n",
+            "ItemName: Wallet\nQuantity: 1\nPlace: Lobby\n------\nITEMNAME: Keys\nQuantity: +12\nPlace: Bus\n",
+            "ItemName: Wallet\nQuantity: 1\nPlace: Lobby\nColor: Red\nPlace: Hall\nItemName: Keys\nQuantity: 2\nPlace: x",
+            "ItemName : Wallet\nQuantity: 1\nPlace: Lobby\nItemName: Keys\nQuantity: 2\nPlace: Bus",
+            "Color: Red\nItemName: Wallet\nQuantity: 1\nPlace: Lobby",
+            "ItemName: Wallet\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: abc\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity:\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: -\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: 0\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: -5\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: 2147483647\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: 2147483648\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: 99999999999999999999999\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: ١٢\nPlace: Lobby",
+            "ItemName: Wallet\nQuantity: 1 2\nPlace: Lobby",
+            "ItemName: Wallet: brown\nQuantity: 1\nPlace: Lobby: east wing",
+            "ItemName:\nQuantity: 1\nPlace:",
+            ":\nItemName: Wallet\nQuantity: 1\nPlace: Lobby",
+    })
+    public void testParseLostItems_SameResultAsTextParser(String text) {
+        List<LostItem> expected;
+        try {
+            expected = LostItemParser.parseLostItemsFromText(text);
+        } catch (IllegalArgumentException e) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> parseBytes(text));
+            assertEquals(e.getMessage(), exception.getMessage());
+            return;
+        }
+
+        List<LostItem> actual = parseBytes(text);
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getItemName(), actual.get(i).getItemName());
+            assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+            assertEquals(expected.get(i).getPlaceName(), actual.get(i).getPlaceName());
+        }
+    }
+
+    private List<LostItem> parseBytes(String text) {
+        return LostItemParser.parseLostItems(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8))).toList();
+    }
+}
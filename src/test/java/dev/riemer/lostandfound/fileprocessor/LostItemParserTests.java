@@ -3,6 +3,9 @@ package dev.riemer.lostandfound.fileprocessor;
 import dev.riemer.lostandfound.model.LostItem;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,7 +23,7 @@ public class LostItemParserTests {
         LostItem item = lostItems.get(0);
         assertEquals("Wallet", item.getItemName());
         assertEquals(1, item.getQuantity());
-        assertEquals("Lobby", item.getPlace());
+        assertEquals("Lobby", item.getPlaceName());
     }
 
     @Test
@@ -35,12 +38,12 @@ public class LostItemParserTests {
         LostItem item1 = lostItems.get(0);
         assertEquals("Wallet", item1.getItemName());
         assertEquals(1, item1.getQuantity());
-        assertEquals("Lobby", item1.getPlace());
+        assertEquals("Lobby", item1.getPlaceName());
 
         LostItem item2 = lostItems.get(1);
         assertEquals("Umbrella", item2.getItemName());
         assertEquals(2, item2.getQuantity());
-        assertEquals("Entrance", item2.getPlace());
+        assertEquals("Entrance", item2.getPlaceName());
     }
 
     @Test
@@ -102,7 +105,7 @@ public class LostItemParserTests {
         LostItem item = lostItems.get(0);
         assertEquals("Wallet", item.getItemName());
         assertEquals(1, item.getQuantity());
-        assertEquals("Lobby", item.getPlace());
+        assertEquals("Lobby", item.getPlaceName());
     }
 
     @Test
@@ -116,7 +119,53 @@ public class LostItemParserTests {
         LostItem item = lostItems.get(0);
         assertEquals("Wallet", item.getItemName());
         assertEquals(1, item.getQuantity());
-        assertEquals("Lobby", item.getPlace());
+        assertEquals("Lobby", item.getPlaceName());
+    }
+
+    @Test
+    public void testParseLostItems_StreamsFromReader() {
+        String text = "ItemName: Wallet\r\nQuantity: 1\r\nPlace: Lobby\r\n\r\n" +
+                "ItemName: Umbrella\r\nQuantity: 2\r\nPlace: Entrance\r\n";
+
+        Iterator<LostItem> lostItems = LostItemParser.parseLostItems(new StringReader(text)).iterator();
+
+        assertTrue(lostItems.hasNext());
+        LostItem item1 = lostItems.next();
+        assertEquals("Wallet", item1.getItemName());
+        assertEquals(1, item1.getQuantity());
+        assertEquals("Lobby", item1.getPlaceName());
+
+        assertTrue(lostItems.hasNext());
+        LostItem item2 = lostItems.next();
+        assertEquals("Umbrella", item2.getItemName());
+        assertEquals(2, item2.getQuantity());
+        assertEquals("Entrance", item2.getPlaceName());
+
+        assertFalse(lostItems.hasNext(), "Should not return more items than available");
+    }
+
+    @Test
+    public void testParseLostItems_LinesLongerThanBuffer() {
+        String longName = "Wallet".repeat(5000);
+        String text = "ItemName: " + longName + "\nQuantity: 1\nPlace: Lobby";
+
+        List<LostItem> lostItems = LostItemParser.parseLostItems(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8))
+        ).toList();
+
+        assertEquals(1, lostItems.size(), "Should parse one lost item");
+        assertEquals(longName, lostItems.get(0).getItemName());
+    }
+
+    @Test
+    public void testParseLostItems_InvalidItemIsThrownLazily() {
+        String text = "ItemName: Wallet\nQuantity: 1\nPlace: Lobby\nItemName: Umbrella\nPlace: Entrance";
+
+        Iterator<LostItem> lostItems = LostItemParser.parseLostItems(new StringReader(text)).iterator();
+
+        assertEquals("Wallet", lostItems.next().getItemName());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, lostItems::next);
+        assertEquals("Missing required fields in item data.", exception.getMessage());
     }
 
     @Test
@@ -130,7 +179,7 @@ public class LostItemParserTests {
 
         assertEquals("Watch", item.getItemName());
         assertEquals(1, item.getQuantity());
-        assertEquals("Reception", item.getPlace());
+        assertEquals("Reception", item.getPlaceName());
     }
 
     @Test
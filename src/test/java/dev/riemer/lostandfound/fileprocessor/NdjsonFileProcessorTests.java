@@ -0,0 +1,157 @@
+package dev.riemer.lostandfound.fileprocessor;
+
+import dev.riemer.lostandfound.model.LostItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NdjsonFileProcessorTests {
+
+    private NdjsonFileProcessor ndjsonFileProcessor;
+
+    @BeforeEach
+    public void setUp() {
+        ndjsonFileProcessor = new NdjsonFileProcessor();
+    }
+
+    @Test
+    public void testSupports_withNdjson_shouldReturnTrue() {
+        assertTrue(ndjsonFileProcessor.supports("application/x-ndjson"), "Should support NDJSON");
+        assertFalse(ndjsonFileProcessor.supports("application/json"), "Should not support other content types");
+    }
+
+    @Test
+    public void testProcessFile_withValidNdjson_shouldReturnLostItems() throws IOException {
+        String content = "{\"itemName\": \"Wallet\", \"quantity\": 1, \"place\": \"Lobby\"}\n"
+                + "\n"
+                + "{\"ItemName\": \" Umbrella \", \"Quantity\": \"2\", \"Place\": \"Entrance\", "
+                + "\"tags\": [\"black\", {\"size\": \"L\"}], \"remarks\": null}\n";
+
+        List<LostItem> lostItems = ndjsonFileProcessor.processFile(createNdjsonMultipartFile(content));
+
+        assertEquals(2, lostItems.size(), "Should parse two lost items");
+        assertEquals("Wallet", lostItems.get(0).getItemName());
+        assertEquals(1, lostItems.get(0).getQuantity());
+        assertEquals("Lobby", lostItems.get(0).getPlaceName());
+        assertEquals("Umbrella", lostItems.get(1).getItemName());
+        assertEquals(2, lostItems.get(1).getQuantity());
+        assertEquals("Entrance", lostItems.get(1).getPlaceName());
+    }
+
+    @Test
+    public void testProcessFile_withInvalidItems_shouldUseParserValidation() {
+        MultipartFile missing = createNdjsonMultipartFile("{\"itemName\": \"Wallet\", \"place\": \"Lobby\"}");
+        MultipartFile invalid = createNdjsonMultipartFile("{\"itemName\": \"Wallet\", \"quantity\": 1.5, \"place\": \"x\"}");
+
+        Exception missingException = assertThrows(IllegalArgumentException.class,
+                () -> ndjsonFileProcessor.processFile(missing));
+        Exception invalidException = assertThrows(IllegalArgumentException.class,
+                () -> ndjsonFileProcessor.processFile(invalid));
+        assertEquals(LostItemParser.MISSING_FIELDS_MESSAGE, missingException.getMessage());
+        assertEquals(LostItemParser.INVALID_QUANTITY_MESSAGE + "1.5", invalidException.getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withMalformedJson_shouldThrowException() {
+        MultipartFile notAnObject = createNdjsonMultipartFile("{\"itemName\": \"Wallet\", \"quantity\": 1, \"place\": \"x\"}\n[]");
+        MultipartFile malformed = createNdjsonMultipartFile("{\"itemName\": \"Wallet\"");
+
+        Exception exception = assertThrows(IllegalArgumentException.class,
+                () -> ndjsonFileProcessor.processFile(notAnObject));
+        assertEquals("Expected a JSON object", exception.getMessage());
+        assertEquals(2, ((LostItemParseException) exception).getLineNumber());
+        LostItemParseException malformedException = assertThrows(LostItemParseException.class,
+                () -> ndjsonFileProcessor.processFile(malformed));
+        assertEquals(1, malformedException.getLineNumber());
+        assertTrue(malformedException.getMessage().startsWith("Malformed JSON: "));
+    }
+
+    @Test
+    public void testProcessStream_withLinesNotHoldingOneObject_shouldRejectThem() throws IOException {
+        String content = "{\"itemName\":\"Wallet\",\"quantity\":1,\"place\":\"Lobby\"}"
+                + " {\"itemName\":\"Keys\",\"quantity\":1,\"place\":\"Lobby\"}\n"
+                + "{\"itemName\":\"Phone\",\n"
+                + "\"quantity\":2,\"place\":\"Cafe\"}\n"
+                + "{\"itemName\":\"Bag\",\"quantity\":3,\"place\":\"Cafe\"}\r\n";
+        List<LostItem> lostItems = new ArrayList<>();
+        List<LostItemParseException> rejected = new ArrayList<>();
+
+        ndjsonFileProcessor.processStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                new LostItemSink() {
+                    @Override
+                    public void accept(LostItem lostItem) {
+                        lostItems.add(lostItem);
+                    }
+
+                    @Override
+                    public void reject(LostItemParseException error) {
+                        rejected.add(error);
+                    }
+                });
+
+        assertEquals(List.of("Bag"), lostItems.stream().map(LostItem::getItemName).toList());
+        assertEquals(List.of(1L, 2L, 3L), rejected.stream().map(LostItemParseException::getLineNumber).toList(),
+                "Should reject two objects on one line and an object spread over two lines");
+        assertEquals("Expected a single JSON object", rejected.get(0).getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withSink_shouldStreamLines(@TempDir Path directory) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            content.append("{\"itemName\": \"Item ").append(i).append("\", \"quantity\": 1, \"place\": \"Lobby\"}\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.ndjson"), content);
+
+        List<LostItem> lostItems = new ArrayList<>();
+        ndjsonFileProcessor.processFile(file, lostItems::add);
+
+        assertEquals(100, lostItems.size(), "Should emit all lost items");
+        assertEquals("Item 99", lostItems.get(99).getItemName());
+    }
+
+    private MultipartFile createNdjsonMultipartFile(String content) {
+        return new MockMultipartFile(
+                "file", "test.ndjson", "application/x-ndjson", content.getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    @Test
+    public void testProcessStream_withLenientSink_shouldSkipInvalidLines() throws IOException {
+        String content = "{\"itemName\":\"Wallet\",\"quantity\":1,\"place\":\"Lobby\"}\n"
+                + "[1, 2]\n"
+                + "{\"itemName\":\"Keys\",\"quantity\":\"abc\",\"place\":\"Lobby\"}\n"
+                + "{\"itemName\":\"Phone\",\"quantity\":2,\"place\":\"Cafe\"}\n";
+        List<LostItem> lostItems = new ArrayList<>();
+        List<LostItemParseException> rejected = new ArrayList<>();
+
+        ndjsonFileProcessor.processStream(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)),
+                new LostItemSink() {
+                    @Override
+                    public void accept(LostItem lostItem) {
+                        lostItems.add(lostItem);
+                    }
+
+                    @Override
+                    public void reject(LostItemParseException error) {
+                        rejected.add(error);
+                    }
+                });
+
+        assertEquals(List.of("Wallet", "Phone"), lostItems.stream().map(LostItem::getItemName).toList());
+        assertEquals(List.of(2L, 3L), rejected.stream().map(LostItemParseException::getLineNumber).toList());
+        assertEquals("Invalid quantity: abc", rejected.get(1).getMessage());
+    }
+}
@@ -1,28 +1,38 @@
 package dev.riemer.lostandfound.fileprocessor;
 
 import dev.riemer.lostandfound.model.LostItem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Semaphore;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 public class PdfFileProcessorTests {
 
     private PdfFileProcessor pdfFileProcessor;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     public void setUp() {
-        pdfFileProcessor = new PdfFileProcessor();
+        meterRegistry = new SimpleMeterRegistry();
+        pdfFileProcessor = new PdfFileProcessor(meterRegistry, 3);
     }
 
     @Test
@@ -51,7 +61,114 @@ public class PdfFileProcessorTests {
         LostItem item = lostItems.get(0);
         assertEquals("Wallet", item.getItemName());
         assertEquals(1, item.getQuantity());
-        assertEquals("Lobby", item.getPlace());
+        assertEquals("Lobby", item.getPlaceName());
+        assertEquals(1, meterRegistry.get("lostandfound.import.pdf.jvm.heap.used").summary().count(),
+                "Should record the heap usage during the import");
+    }
+
+    @Test
+    public void testProcessFile_withTinyMainMemory_shouldUseScratchFiles() throws IOException {
+        ReflectionTestUtils.setField(pdfFileProcessor, "maxMainMemory", DataSize.ofBytes(1));
+        MultipartFile multipartFile = createPdfMultipartFile("test.pdf", "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+
+        List<LostItem> lostItems = pdfFileProcessor.processFile(multipartFile);
+
+        assertEquals(1, lostItems.size(), "Should parse one lost item");
+        assertEquals("Wallet", lostItems.get(0).getItemName());
+    }
+
+    @Test
+    public void testProcessFile_withPageRanges_shouldReturnSameItemsAsSequential() throws IOException {
+        String[] pages = new String[7];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = "ItemName: Item " + i + "\nQuantity: " + (i + 1) + "\nPlace: Floor " + i;
+        }
+        MultipartFile multipartFile = createPdfMultipartFile("test.pdf", pages);
+
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelism", 1);
+        List<LostItem> expected = pdfFileProcessor.processFile(multipartFile);
+
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelism", 3);
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelThresholdPages", 1);
+        ReflectionTestUtils.setField(pdfFileProcessor, "pagesPerRange", 2);
+        List<LostItem> actual = pdfFileProcessor.processFile(multipartFile);
+
+        assertEquals(pages.length, expected.size(), "Should parse one lost item per page");
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getItemName(), actual.get(i).getItemName());
+            assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+            assertEquals(expected.get(i).getPlaceName(), actual.get(i).getPlaceName());
+        }
+    }
+
+    @Test
+    public void testExtractText_withPageRanges_shouldEqualSequentialText(@TempDir Path directory) throws IOException {
+        String[] pages = new String[7];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = "ItemName: Item " + i + "\nQuantity: " + (i + 1) + "\nPlace: Floor " + i;
+        }
+        Path file = Files.write(directory.resolve("test.pdf"), createPdfMultipartFile("test.pdf", pages).getBytes());
+
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelism", 1);
+        String expected = pdfFileProcessor.extractTextFromPdf(file);
+
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelism", 3);
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelThresholdPages", 1);
+        ReflectionTestUtils.setField(pdfFileProcessor, "pagesPerRange", 2);
+        String actual = pdfFileProcessor.extractTextFromPdf(file);
+
+        assertEquals(expected, actual, "Should not add line breaks between page ranges");
+    }
+
+    @Test
+    public void testProcessFile_withSinkAndPageRanges_shouldStopAtSameLineAsSequential(@TempDir Path directory)
+            throws IOException {
+        String[] pages = new String[40];
+        for (int i = 0; i < pages.length; i++) {
+            String quantity = i == 29 ? "abc" : String.valueOf(i + 1);
+            pages[i] = "ItemName: Item " + i + "\nQuantity: " + quantity + "\nPlace: Floor " + i;
+        }
+        Path file = Files.write(directory.resolve("test.pdf"), createPdfMultipartFile("test.pdf", pages).getBytes());
+
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelism", 1);
+        List<LostItem> expected = new ArrayList<>();
+        LostItemParseException expectedException = assertThrows(LostItemParseException.class,
+                () -> pdfFileProcessor.processFile(file, expected::add));
+
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelism", 3);
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelThresholdPages", 1);
+        ReflectionTestUtils.setField(pdfFileProcessor, "pagesPerRange", 2);
+        List<LostItem> actual = new ArrayList<>();
+        LostItemParseException exception = assertThrows(LostItemParseException.class,
+                () -> pdfFileProcessor.processFile(file, actual::add));
+
+        assertEquals(29, expected.size(), "Should emit the lost items in front of the error only");
+        assertEquals(expected.stream().map(LostItem::getItemName).toList(),
+                actual.stream().map(LostItem::getItemName).toList(), "Should emit the page ranges in order");
+        assertEquals(expectedException.getLineNumber(), exception.getLineNumber(),
+                "Should count lines through all page ranges");
+    }
+
+    @Test
+    public void testProcessFile_withOtherDocumentsOpen_shouldOnlyUseFreePermits() throws IOException {
+        String[] pages = new String[7];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = "ItemName: Item " + i + "\nQuantity: " + (i + 1) + "\nPlace: Floor " + i;
+        }
+        MultipartFile multipartFile = createPdfMultipartFile("test.pdf", pages);
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelism", 3);
+        ReflectionTestUtils.setField(pdfFileProcessor, "parallelThresholdPages", 1);
+        ReflectionTestUtils.setField(pdfFileProcessor, "pagesPerRange", 2);
+        Semaphore openDocuments = (Semaphore) ReflectionTestUtils.getField(pdfFileProcessor, "openDocuments");
+
+        openDocuments.acquireUninterruptibly(2);
+        List<LostItem> lostItems = pdfFileProcessor.processFile(multipartFile);
+
+        assertEquals(pages.length, lostItems.size(), "Should extract all pages with a single document");
+        assertEquals(1, openDocuments.availablePermits(), "Should release every permit it took");
+        openDocuments.release(2);
+        assertEquals(3, openDocuments.availablePermits());
     }
 
     @Test
@@ -70,23 +187,26 @@ public class PdfFileProcessorTests {
     }
 
     // Helper method to create an in-memory PDF and return it as a MultipartFile
-    private MultipartFile createPdfMultipartFile(String fileName, String content) throws IOException {
+    // Every content String is placed on its own page
+    private MultipartFile createPdfMultipartFile(String fileName, String... contents) throws IOException {
         try (PDDocument document = new PDDocument()) {
-            PDPage page = new PDPage();
-            document.addPage(page);
-
-            // Add text content to the PDF
-            try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-                contentStream.beginText();
-                contentStream.setFont(PDType1Font.HELVETICA, 12);
-                contentStream.newLineAtOffset(50, 700);
-                // Split content into lines to handle newlines
-                String[] lines = content.split("\n");
-                for (String line : lines) {
-                    contentStream.showText(line);
-                    contentStream.newLineAtOffset(0, -15); // Move down by 15 units for the next line
+            for (String content : contents) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+
+                // Add text content to the PDF
+                try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+                    contentStream.beginText();
+                    contentStream.setFont(PDType1Font.HELVETICA, 12);
+                    contentStream.newLineAtOffset(50, 700);
+                    // Split content into lines to handle newlines
+                    String[] lines = content.split("\n");
+                    for (String line : lines) {
+                        contentStream.showText(line);
+                        contentStream.newLineAtOffset(0, -15); // Move down by 15 units for the next line
+                    }
+                    contentStream.endText();
                 }
-                contentStream.endText();
             }
 
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
@@ -3,10 +3,20 @@ package dev.riemer.lostandfound.fileprocessor;
 import dev.riemer.lostandfound.model.LostItem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -50,7 +60,7 @@ public class TextFileProcessorTests {
         LostItem item = lostItems.get(0);
         assertEquals("Wallet", item.getItemName());
         assertEquals(1, item.getQuantity());
-        assertEquals("Lobby", item.getPlace());
+        assertEquals("Lobby", item.getPlaceName());
     }
 
     @Test
@@ -82,4 +92,241 @@ public class TextFileProcessorTests {
         assertThrows(IllegalArgumentException.class, () -> textFileProcessor.processFile(multipartFile),
                 "Expected processFile to throw IllegalArgumentException for invalid content");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testProcessFile_withParallelThreshold_shouldReturnSameItemsAsSequential() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            text.append("  ItemName: Item ").append(i).append("\r\n")
+                    .append("Quantity: ").append(i + 1).append("\n")
+                    .append(i % 3 == 0 ? "Color: Red\n\n" : "------\n")
+                    .append("Place: Place ").append(i % 7).append("\n");
+        }
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        MultipartFile multipartFile = new MockMultipartFile("file", "big.txt", "text/plain", bytes);
+
+        List<LostItem> expected = textFileProcessor.processFile(multipartFile);
+
+        ReflectionTestUtils.setField(textFileProcessor, "parallelThreshold", DataSize.ofBytes(1));
+        ReflectionTestUtils.setField(textFileProcessor, "parallelChunkSize", DataSize.ofBytes(100));
+        List<LostItem> actual = textFileProcessor.processFile(multipartFile);
+
+        assertEquals(2000, actual.size(), "Should parse all lost items");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getItemName(), actual.get(i).getItemName());
+            assertEquals(expected.get(i).getQuantity(), actual.get(i).getQuantity());
+            assertEquals(expected.get(i).getPlaceName(), actual.get(i).getPlaceName());
+        }
+    }
+
+    @Test
+    public void testProcessFile_withParallelThreshold_shouldNotReadUploadOntoHeap() throws IOException {
+        byte[] bytes = "ItemName: Wallet\nQuantity: 1\nPlace: Lobby\n".getBytes(StandardCharsets.UTF_8);
+        MultipartFile multipartFile = new MockMultipartFile("file", "items.txt", "text/plain", bytes) {
+            @Override
+            public byte[] getBytes() {
+                throw new AssertionError("Should parse the spooled file instead of the bytes of the upload");
+            }
+        };
+        ReflectionTestUtils.setField(textFileProcessor, "parallelThreshold", DataSize.ofBytes(1));
+
+        List<LostItem> lostItems = textFileProcessor.processFile(multipartFile);
+
+        assertEquals(List.of("Wallet"), lostItems.stream().map(LostItem::getItemName).toList());
+    }
+
+    @Test
+    public void testProcessFile_withParallelThreshold_shouldThrowFirstError() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("ItemName: Item ").append(i).append("\n")
+                    .append("Quantity: ").append(i == 100 ? "abc" : i == 300 ? "0" : "1").append("\n")
+                    .append("Place: Lobby\n");
+        }
+        MultipartFile multipartFile = new MockMultipartFile(
+                "file", "invalid.txt", "text/plain", text.toString().getBytes(StandardCharsets.UTF_8)
+        );
+        ReflectionTestUtils.setField(textFileProcessor, "parallelThreshold", DataSize.ofBytes(1));
+        ReflectionTestUtils.setField(textFileProcessor, "parallelChunkSize", DataSize.ofBytes(64));
+
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class, () -> textFileProcessor.processFile(multipartFile)
+        );
+        assertEquals("Invalid quantity: abc", exception.getMessage());
+        assertEquals(301, assertInstanceOf(LostItemParseException.class, exception).getLineNumber(),
+                "Should report the line in the whole file, not in the chunk");
+    }
+
+    @Test
+    public void testProcessFile_withPath_shouldMapFileInRegions(@TempDir Path directory) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append("ItemName: Item ").append(i).append("\nQuantity: 1\nPlace: Lobby\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.txt"), text);
+
+        List<LostItem> expected = LostItemParser.parseLostItemsFromText(text.toString());
+        ReflectionTestUtils.setField(textFileProcessor, "maxMappedRegionSize", 100L);
+        List<LostItem> lostItems = textFileProcessor.processFile(file);
+
+        assertEquals(100, lostItems.size(), "Should parse all lost items over multiple regions");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getItemName(), lostItems.get(i).getItemName());
+        }
+    }
+
+    @Test
+    public void testProcessFile_withPath_shouldRejectItemsBiggerThanRegion(@TempDir Path directory) throws IOException {
+        Path file = Files.writeString(directory.resolve("items.txt"), "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+        ReflectionTestUtils.setField(textFileProcessor, "maxMappedRegionSize", 10L);
+
+        assertThrows(IOException.class, () -> textFileProcessor.processFile(file));
+    }
+
+    @Test
+    public void testProcessFile_withSink_shouldEmitItemsInOrder(@TempDir Path directory) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append("ItemName: Item ").append(i).append("\nQuantity: 1\nPlace: Lobby\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.txt"), text);
+        ReflectionTestUtils.setField(textFileProcessor, "maxMappedRegionSize", 100L);
+
+        List<LostItem> lostItems = new ArrayList<>();
+        textFileProcessor.processFile(file, lostItems::add);
+
+        assertEquals(100, lostItems.size(), "Should emit all lost items over multiple regions");
+        for (int i = 0; i < lostItems.size(); i++) {
+            assertEquals("Item " + i, lostItems.get(i).getItemName());
+        }
+    }
+
+    @Test
+    public void testProcessFile_withLenientSink_shouldSkipInvalidItems(@TempDir Path directory) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            text.append("ItemName: Item ").append(i).append("\n")
+                    .append("Quantity: ").append(i == 3 ? "abc" : i == 7 ? "0" : "1").append("\n")
+                    .append("Place: Lobby\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.txt"), text);
+        ReflectionTestUtils.setField(textFileProcessor, "maxMappedRegionSize", 100L);
+
+        List<LostItem> lostItems = new ArrayList<>();
+        List<LostItemParseException> rejected = new ArrayList<>();
+        textFileProcessor.processFile(file, lenientSink(lostItems, rejected));
+
+        assertEquals(8, lostItems.size(), "Should emit all valid lost items");
+        assertEquals(List.of(10L, 22L), rejected.stream().map(LostItemParseException::getLineNumber).toList(),
+                "Should report the first line of every invalid item over multiple regions");
+        assertEquals("Invalid quantity: abc", rejected.get(0).getMessage());
+    }
+
+    @Test
+    public void testProcessFile_withSinkAndParallelThreshold_shouldEmitSameAsSequential(@TempDir Path directory)
+            throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("ItemName: Item ").append(i).append("\n")
+                    .append("Quantity: ").append(i % 97 == 5 ? "abc" : i % 89 == 7 ? "0" : "1").append("\n")
+                    .append(i % 4 == 0 ? "Color: Red\n\n" : "")
+                    .append("Place: Place ").append(i % 7).append("\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.txt"), text);
+        ReflectionTestUtils.setField(textFileProcessor, "maxMappedRegionSize", 10_000L);
+
+        List<LostItem> expected = new ArrayList<>();
+        List<LostItemParseException> expectedRejected = new ArrayList<>();
+        textFileProcessor.processFile(file, lenientSink(expected, expectedRejected));
+
+        ReflectionTestUtils.setField(textFileProcessor, "parallelThreshold", DataSize.ofBytes(1));
+        ReflectionTestUtils.setField(textFileProcessor, "parallelChunkSize", DataSize.ofBytes(100));
+        List<LostItem> actual = new ArrayList<>();
+        List<LostItemParseException> rejected = new ArrayList<>();
+        textFileProcessor.processFile(file, lenientSink(actual, rejected));
+
+        assertEquals(expected.size(), actual.size(), "Should emit all valid lost items");
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getItemName(), actual.get(i).getItemName());
+            assertEquals(expected.get(i).getPlaceName(), actual.get(i).getPlaceName());
+        }
+        assertFalse(rejected.isEmpty());
+        assertEquals(
+                expectedRejected.stream().map(e -> e.getLineNumber() + " " + e.getMessage()).toList(),
+                rejected.stream().map(e -> e.getLineNumber() + " " + e.getMessage()).toList(),
+                "Should reject the same records on the same lines over multiple regions and chunks"
+        );
+    }
+
+    @Test
+    public void testProcessFile_withStrictSinkAndParallelThreshold_shouldStopAtFirstError(@TempDir Path directory)
+            throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            text.append("ItemName: Item ").append(i).append("\n")
+                    .append("Quantity: ").append(i == 100 ? "abc" : i == 300 ? "0" : "1").append("\n")
+                    .append("Place: Lobby\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.txt"), text);
+        ReflectionTestUtils.setField(textFileProcessor, "parallelThreshold", DataSize.ofBytes(1));
+        ReflectionTestUtils.setField(textFileProcessor, "parallelChunkSize", DataSize.ofBytes(64));
+
+        List<LostItem> lostItems = new ArrayList<>();
+        LostItemParseException exception = assertThrows(
+                LostItemParseException.class, () -> textFileProcessor.processFile(file, lostItems::add)
+        );
+
+        assertEquals(301, exception.getLineNumber(), "Should report the line in the whole file, not in the chunk");
+        assertEquals(100, lostItems.size(), "Should emit the lost items in front of the error only");
+    }
+
+    @Test
+    public void testProcessFile_withDigest_shouldHashEveryRegion(@TempDir Path directory)
+            throws IOException, NoSuchAlgorithmException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            text.append("ItemName: Item ").append(i).append("\nQuantity: 1\nPlace: Lobby\n");
+        }
+        Path file = Files.writeString(directory.resolve("items.txt"), text);
+        ReflectionTestUtils.setField(textFileProcessor, "maxMappedRegionSize", 500L);
+        ReflectionTestUtils.setField(textFileProcessor, "parallelThreshold", DataSize.ofBytes(200));
+        ReflectionTestUtils.setField(textFileProcessor, "parallelChunkSize", DataSize.ofBytes(100));
+
+        List<LostItem> lostItems = new ArrayList<>();
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        textFileProcessor.processFile(file, lostItems::add, digest);
+
+        assertEquals(100, lostItems.size(), "Should emit all lost items while hashing");
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)), digest.digest(),
+                "Should hash the whole file in the same pass");
+    }
+
+    @Test
+    public void testProcessStream_withLenientSink_shouldSkipInvalidItems() throws IOException {
+        String text = "ItemName: Wallet\nQuantity: 1\n\nItemName: Keys\nPlace: Lobby\n\n"
+                + "ItemName: Phone\nQuantity: 2\nPlace: Cafe\n";
+
+        List<LostItem> lostItems = new ArrayList<>();
+        List<LostItemParseException> rejected = new ArrayList<>();
+        textFileProcessor.processStream(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), lenientSink(lostItems, rejected)
+        );
+
+        assertEquals(List.of("Phone"), lostItems.stream().map(LostItem::getItemName).toList());
+        assertEquals(List.of(1L, 4L), rejected.stream().map(LostItemParseException::getLineNumber).toList());
+    }
+
+    private static LostItemSink lenientSink(List<LostItem> lostItems, List<LostItemParseException> rejected) {
+        return new LostItemSink() {
+            @Override
+            public void accept(LostItem lostItem) {
+                lostItems.add(lostItem);
+            }
+
+            @Override
+            public void reject(LostItemParseException error) {
+                rejected.add(error);
+            }
+        };
+    }
+}
@@ -0,0 +1,98 @@
+package dev.riemer.lostandfound.repository;
+
+import dev.riemer.lostandfound.model.Place;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class PlaceDictionaryTests {
+
+    @Autowired
+    private PlaceDictionary placeDictionary;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void testFind_shouldNotCreatePlace() {
+        assertTrue(placeDictionary.find("Nowhere").isEmpty());
+        assertEquals(0, countPlaces("nowhere"));
+    }
+
+    @Test
+    public void testResolve_shouldCreatePlaceOnce() {
+        Place place = placeDictionary.resolve("Platform 9");
+        Place respelled = placeDictionary.resolve("  platform   9 ");
+        Place wrapped = placeDictionary.resolve("\tPLATFORM\r\n9");
+
+        assertNotNull(place.getId());
+        assertEquals(place.getId(), respelled.getId());
+        assertEquals(place.getId(), wrapped.getId());
+        assertEquals("Platform 9", respelled.getName());
+        assertEquals(1, countPlaces("platform 9"));
+        assertEquals(place.getId(), placeDictionary.find("PLATFORM 9").orElseThrow().getId());
+    }
+
+    @Test
+    public void testResolve_withRolledBackTransaction_shouldNotCachePlace() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            assertNotNull(placeDictionary.resolve("Lost wing").getId());
+            status.setRollbackOnly();
+        });
+
+        assertTrue(placeDictionary.find("Lost wing").isEmpty(), "Should not remember a Place which was rolled back");
+        assertEquals(0, countPlaces("lost wing"));
+    }
+
+    @Test
+    public void testResolve_concurrentlyInsertingSamePlace_shouldReadWinningPlace() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicReference<Future<Place>> concurrent = new AtomicReference<>();
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Place winner = transactionTemplate.execute(status -> {
+                Place place = placeDictionary.resolve("Race track");
+                // The concurrent MERGE finds no committed match and waits for this insert to commit
+                concurrent.set(executor.submit(() -> placeDictionary.resolve("RACE  track")));
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return place;
+            });
+
+            Place loser = concurrent.get().get();
+            assertEquals(winner.getId(), loser.getId(), "Should read the Place inserted by the concurrent call");
+            assertEquals("Race track", loser.getName());
+        }
+        assertEquals(1, countPlaces("race track"));
+    }
+
+    @Test
+    public void testFindById_shouldReturnResolvedPlace() {
+        Place place = placeDictionary.resolve("Harbour office");
+
+        assertSame(place, placeDictionary.findById(place.getId()).orElseThrow(),
+                "Should map the id back to the canonical Place");
+        assertTrue(placeDictionary.findById(-1).isEmpty());
+    }
+
+    private int countPlaces(String nameKey) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM places WHERE name_key = ?", Integer.class, nameKey);
+    }
+}
@@ -0,0 +1,102 @@
+package dev.riemer.lostandfound.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DropDirectoryIngestionServiceTests {
+
+    @TempDir
+    private Path directory;
+
+    private ImportJobService importJobService;
+
+    private DropDirectoryIngestionService dropDirectoryIngestionService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        importJobService = mock(ImportJobService.class);
+        dropDirectoryIngestionService = new DropDirectoryIngestionService(importJobService, directory);
+        Files.createDirectories(directory.resolve("done"));
+        Files.createDirectories(directory.resolve("failed"));
+    }
+
+    @Test
+    void testIngestSuccessful() throws IOException {
+        Path file = Files.writeString(directory.resolve("items.txt"), "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+        ImportJob job = new ImportJob("job-1", "items.txt", "0a1b");
+        job.saved(1);
+        job.finish();
+        when(importJobService.submitLocalFile(file)).thenReturn(job);
+
+        dropDirectoryIngestionService.ingest(file);
+
+        assertFalse(Files.exists(file));
+        assertTrue(Files.exists(directory.resolve("done/items.txt")));
+        String report = Files.readString(directory.resolve("done/items.txt.report.txt"));
+        assertTrue(report.contains("Status: DONE"));
+        assertTrue(report.contains("Items: 1"));
+        assertTrue(report.contains("Job: job-1"));
+        verify(importJobService, times(1)).submitLocalFile(file);
+    }
+
+    @Test
+    void testIngestFailed() throws IOException {
+        Path file = Files.writeString(directory.resolve("items.txt"), "ItemName: Wallet");
+        ImportJob job = new ImportJob("job-1", "items.txt", "0a1b");
+        job.fail("Line 1: Missing required fields in item data.");
+        when(importJobService.submitLocalFile(file)).thenReturn(job);
+
+        dropDirectoryIngestionService.ingest(file);
+
+        assertFalse(Files.exists(file));
+        assertTrue(Files.exists(directory.resolve("failed/items.txt")));
+        String report = Files.readString(directory.resolve("failed/items.txt.report.txt"));
+        assertTrue(report.contains("Status: FAILED"));
+        assertTrue(report.contains("Error: Line 1: Missing required fields in item data."));
+    }
+
+    @Test
+    void testIngestNotSubmitted() throws IOException {
+        Path file = Files.writeString(directory.resolve("items.txt"), "ItemName: Wallet");
+        when(importJobService.submitLocalFile(file)).thenThrow(new IOException("Disk error"));
+
+        dropDirectoryIngestionService.ingest(file);
+
+        assertTrue(Files.exists(directory.resolve("failed/items.txt")));
+        String report = Files.readString(directory.resolve("failed/items.txt.report.txt"));
+        assertTrue(report.contains("Error: Disk error"));
+    }
+
+    @Test
+    void testIngestDoesNotOverwritePreviousImports() throws IOException {
+        Files.writeString(directory.resolve("done/items.txt"), "previous");
+        Path file = Files.writeString(directory.resolve("items.txt"), "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+        ImportJob job = new ImportJob("job-1", "items.txt", "0a1b");
+        job.finish();
+        when(importJobService.submitLocalFile(file)).thenReturn(job);
+
+        dropDirectoryIngestionService.ingest(file);
+
+        assertEquals("previous", Files.readString(directory.resolve("done/items.txt")));
+        assertTrue(Files.exists(directory.resolve("done/items.txt.1")));
+        assertTrue(Files.exists(directory.resolve("done/items.txt.1.report.txt")));
+    }
+
+    @Test
+    void testIngestSkipsPartialFiles() throws IOException {
+        Path file = Files.writeString(directory.resolve("items.txt.part"), "ItemName: Wallet");
+
+        dropDirectoryIngestionService.ingest(file);
+
+        assertTrue(Files.exists(file));
+        verify(importJobService, never()).submitLocalFile(any(Path.class));
+    }
+}
@@ -0,0 +1,259 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.exceptions.ConflictException;
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImportJobServiceTests {
+
+    private LostItemService lostItemService;
+
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        lostItemService = mock(LostItemService.class);
+        importJobService = new ImportJobService(lostItemService, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    void testSubmitRunsImport() throws Exception {
+        AtomicReference<String> spooledContent = new AtomicReference<>();
+        when(lostItemService.processLostItemsFile(
+                any(Path.class), eq("text/plain"), anyString(), eq(false), eq(false), any()))
+                .thenAnswer(invocation -> {
+                    spooledContent.set(Files.readString(invocation.getArgument(0)));
+                    ImportProgress progress = invocation.getArgument(5);
+                    progress.parsed(1);
+                    progress.saved(1);
+                    return 1;
+                });
+
+        ImportJob job = importJobService.submit(textFile("items.txt", "ItemName: Wallet\nQuantity: 1\nPlace: Lobby"));
+
+        awaitFinished(job);
+        assertEquals(ImportJob.State.DONE, job.getState());
+        assertEquals(1, job.getRecordsParsed());
+        assertEquals(1, job.getRecordsSaved());
+        assertEquals("ItemName: Wallet\nQuantity: 1\nPlace: Lobby", spooledContent.get());
+        assertSame(job, importJobService.findById(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void testSubmitReportsFailure() throws Exception {
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), anyBoolean(), anyBoolean(), any()))
+                .thenThrow(new IllegalArgumentException("Unsupported file type: application/vnd.ms-excel"));
+
+        ImportJob job = importJobService.submit(textFile("items.xls", "a,b"));
+
+        awaitFinished(job);
+        assertEquals(ImportJob.State.FAILED, job.getState());
+        assertEquals("Unsupported file type: application/vnd.ms-excel", job.getError());
+    }
+
+    @Test
+    void testSubmitReportsError() throws Exception {
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), anyBoolean(), anyBoolean(), any()))
+                .thenThrow(new OutOfMemoryError("Java heap space"));
+
+        ImportJob job = importJobService.submit(textFile("items.txt", "ItemName: Wallet"));
+
+        awaitFinished(job);
+        assertEquals(ImportJob.State.FAILED, job.getState());
+        assertNotNull(job.getFinishedAt(), "A failed job should be evicted after the job-retention");
+    }
+
+    @Test
+    void testSubmitLimitsConcurrentJobs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), anyBoolean(), anyBoolean(), any()))
+                .thenAnswer(invocation -> {
+                    release.await(10, TimeUnit.SECONDS);
+                    return 0;
+                });
+
+        ImportJob first = importJobService.submit(textFile("first.txt", "first"));
+        ImportJob second = importJobService.submit(textFile("second.txt", "second"));
+
+        awaitState(first, ImportJob.State.RUNNING);
+        Thread.sleep(100);
+        assertEquals(ImportJob.State.QUEUED, second.getState(), "Only one job should run at once");
+
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(second);
+        assertEquals(ImportJob.State.DONE, second.getState());
+    }
+
+    @Test
+    void testSubmitSameContentReturnsRunningJob() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), anyBoolean(), anyBoolean(), any()))
+                .thenAnswer(invocation -> {
+                    release.await(10, TimeUnit.SECONDS);
+                    return 0;
+                });
+
+        ImportJob first = importJobService.submit(textFile("items.txt", "ItemName: Wallet"));
+        ImportJob retry = importJobService.submit(textFile("items-retry.txt", "ItemName: Wallet"));
+
+        assertSame(first, retry, "A retry should return the job which is importing the same content");
+        assertEquals("12211ac45e0edad91899dda3312c7448f6dc2e1150eca1168a15dcef4e0d345e", first.getSha256());
+
+        release.countDown();
+        awaitFinished(first);
+        verify(lostItemService, times(1))
+                .processLostItemsFile(any(Path.class), any(), eq(first.getSha256()), anyBoolean(), anyBoolean(), any());
+    }
+
+    @Test
+    void testSubmitSameContentWithOtherOptionsIsRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), anyBoolean(), anyBoolean(), any()))
+                .thenAnswer(invocation -> {
+                    release.await(10, TimeUnit.SECONDS);
+                    return 0;
+                });
+
+        ImportJob first = importJobService.submit(textFile("items.txt", "ItemName: Wallet"));
+
+        assertThrows(ConflictException.class,
+                () -> importJobService.submit(textFile("items.txt", "ItemName: Wallet"), true, null));
+        assertThrows(ConflictException.class,
+                () -> importJobService.submit(textFile("items.txt", "ItemName: Wallet"), null, true));
+        assertSame(first, importJobService.submit(textFile("items.txt", "ItemName: Wallet"), false, false));
+
+        release.countDown();
+        awaitFinished(first);
+    }
+
+    @Test
+    void testSubmitAfterFailureImportsAgain() throws Exception {
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), anyBoolean(), anyBoolean(), any()))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(1);
+
+        ImportJob first = importJobService.submit(textFile("items.txt", "ItemName: Wallet"));
+        awaitFinished(first);
+        ImportJob retry = importJobService.submit(textFile("items.txt", "ItemName: Wallet"));
+        awaitFinished(retry);
+
+        assertNotSame(first, retry, "A failed import should not block a retry");
+        assertEquals(ImportJob.State.DONE, retry.getState());
+    }
+
+    @Test
+    void testSubmitLenientReportsRejectedRecords() throws Exception {
+        ReflectionTestUtils.setField(importJobService, "maxRejectedRecords", 2);
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), eq(true), eq(false), any()))
+                .thenAnswer(invocation -> {
+                    ImportProgress progress = invocation.getArgument(5);
+                    for (int line = 1; line <= 3; line++) {
+                        progress.rejected(new LostItemParseException(line, "Invalid quantity: abc"));
+                    }
+                    return 0;
+                });
+
+        ImportJob job = importJobService.submit(textFile("items.txt", "ItemName: Wallet"), true, null);
+
+        awaitFinished(job);
+        assertEquals(ImportJob.State.DONE, job.getState());
+        assertEquals(3, job.getRecordsRejected(), "Should count all rejected records");
+        assertEquals(
+                List.of(new ImportJob.RejectedRecord(1, "Invalid quantity: abc"),
+                        new ImportJob.RejectedRecord(2, "Invalid quantity: abc")),
+                job.getRejectedRecords(),
+                "Should only report up to max-rejected-records"
+        );
+    }
+
+    @Test
+    void testSubmitStrictReportsLineOfInvalidRecord() throws Exception {
+        when(lostItemService.processLostItemsFile(any(Path.class), any(), any(), eq(false), eq(false), any()))
+                .thenThrow(new LostItemParseException(12, "Missing required fields in item data."));
+
+        ImportJob job = importJobService.submit(textFile("items.txt", "ItemName: Wallet"));
+
+        awaitFinished(job);
+        assertEquals(ImportJob.State.FAILED, job.getState());
+        assertEquals("Line 12: Missing required fields in item data.", job.getError());
+    }
+
+    @Test
+    void testSubmitSpooledFile() throws Exception {
+        when(lostItemService.processLostItemsFile(any(Path.class), eq("text/plain"), eq("0a1b"), eq(false), eq(false), any()))
+                .thenReturn(1);
+        Path spool = ImportJobService.createSpoolFile("items.txt");
+        Files.writeString(spool, "ItemName: Wallet\nQuantity: 1\nPlace: Lobby");
+
+        ImportJob job = importJobService.submit(spool, "items.txt", "text/plain", "0a1b", null, null);
+
+        awaitFinished(job);
+        assertEquals(ImportJob.State.DONE, job.getState());
+        assertEquals("items.txt", job.getFileName());
+        assertTrue(spool.getFileName().toString().endsWith("-items.txt"));
+    }
+
+    @Test
+    void testSubmitLocalFileKeepsFile(@TempDir Path directory) throws Exception {
+        when(lostItemService.processLocalLostItemsFile(any(Path.class), eq("text/plain"), eq(false), eq(false), any()))
+                .thenReturn(1);
+        Path file = Files.writeString(directory.resolve("items.txt"), "ItemName: Wallet");
+
+        ImportJob job = importJobService.submitLocalFile(file);
+        job.awaitFinished();
+
+        assertEquals(ImportJob.State.DONE, job.getState());
+        assertNull(job.getSha256(), "A local file should be hashed while it is imported, not up front");
+        assertTrue(Files.exists(file), "A local file should be left to its owner");
+        verify(lostItemService).processLocalLostItemsFile(eq(file), any(), anyBoolean(), anyBoolean(), any());
+        verify(lostItemService, never()).processLostItemsFile(any(Path.class), any(), any(), anyBoolean(), anyBoolean(),
+                any());
+    }
+
+    private MockMultipartFile textFile(String name, String content) {
+        return new MockMultipartFile("file", name, "text/plain", content.getBytes());
+    }
+
+    private void awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!isFinished(job) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(isFinished(job), "Job should finish in time");
+    }
+
+    private boolean isFinished(ImportJob job) {
+        return job.getState() == ImportJob.State.DONE || job.getState() == ImportJob.State.FAILED;
+    }
+
+    private void awaitState(ImportJob job, ImportJob.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (job.getState() != state && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(state, job.getState());
+    }
+}
@@ -0,0 +1,178 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.dto.LostItemDto;
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
+import dev.riemer.lostandfound.repository.LostItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LostItemCatalogCacheTests {
+    private LostItemRepository lostItemRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private LostItemCatalogCache catalogCache;
+
+    @BeforeEach
+    void setUp() {
+        lostItemRepository = mock(LostItemRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        catalogCache = new LostItemCatalogCache(
+                lostItemRepository, mock(EntityManager.class), mock(PlatformTransactionManager.class), meterRegistry
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogCache.shutdown();
+    }
+
+    @Test
+    void testFirstReadBuildsSnapshotInBackground() {
+        when(lostItemRepository.streamAllByOrderByIdAsc()).thenAnswer(invocation -> Stream.of(
+                lostItem(1, "Cafe"), lostItem(2, "Bank")
+        ));
+
+        assertTrue(catalogCache.snapshot().isEmpty(), "Should query the database until the snapshot is built");
+        assertEquals(1.0, meterRegistry.get("lostandfound.catalog.cache.requests").tag("result", "miss").counter()
+                .count());
+        awaitSnapshot(snapshot -> snapshot.size() == 2);
+
+        assertTrue(meterRegistry.get("lostandfound.catalog.cache.requests").tag("result", "hit").counter().count() > 0);
+        assertEquals(1, meterRegistry.get("lostandfound.catalog.cache.rebuild").timer().count());
+        assertEquals(2.0, meterRegistry.get("lostandfound.catalog.cache.size").gauge().value());
+    }
+
+    @Test
+    void testChangeSwapsSnapshotWithoutBlockingReaders() throws InterruptedException {
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch releaseRebuild = new CountDownLatch(1);
+        when(lostItemRepository.streamAllByOrderByIdAsc())
+                .thenAnswer(invocation -> Stream.of(lostItem(1, "Cafe")))
+                .thenAnswer(invocation -> {
+                    rebuildStarted.countDown();
+                    releaseRebuild.await();
+                    return Stream.of(lostItem(1, "Cafe"), lostItem(2, "Cafe"));
+                });
+        catalogCache.snapshot();
+        LostItemCatalogCache.Snapshot first = awaitSnapshot(snapshot -> snapshot.size() == 1);
+
+        catalogCache.onCatalogChanged(new CatalogChangedEvent("test"));
+        assertTrue(rebuildStarted.await(5, TimeUnit.SECONDS));
+
+        // The rebuild is still running, readers keep the previous snapshot
+        assertSame(first, catalogCache.snapshot().orElseThrow());
+
+        releaseRebuild.countDown();
+        LostItemCatalogCache.Snapshot second = awaitSnapshot(snapshot -> snapshot.size() == 2);
+        assertEquals(1, second.version());
+    }
+
+    @Test
+    void testFailedRebuildKeepsPreviousSnapshot() {
+        when(lostItemRepository.streamAllByOrderByIdAsc())
+                .thenAnswer(invocation -> Stream.of(lostItem(1, "Cafe")))
+                .thenThrow(new IllegalStateException("Database is down"))
+                .thenAnswer(invocation -> Stream.of(lostItem(1, "Cafe"), lostItem(2, "Bank")));
+        catalogCache.snapshot();
+        LostItemCatalogCache.Snapshot first = awaitSnapshot(snapshot -> snapshot.size() == 1);
+
+        catalogCache.onCatalogChanged(new CatalogChangedEvent("failing"));
+        awaitCondition(() -> {
+            try {
+                verify(lostItemRepository, times(2)).streamAllByOrderByIdAsc();
+                return true;
+            } catch (AssertionError e) {
+                return false;
+            }
+        });
+        assertSame(first, catalogCache.snapshot().orElseThrow());
+
+        // The outdated snapshot is rebuilt on the next read
+        assertEquals(1, awaitSnapshot(snapshot -> snapshot.size() == 2).version());
+    }
+
+    @Test
+    void testSnapshotPages() {
+        List<LostItemDto> lostItems = LongStream.rangeClosed(1, 5)
+                .mapToObj(id -> new LostItemDto(lostItem(id * 10, id % 2 == 0 ? "Town hall" : "Cafe")))
+                .toList();
+        LostItemCatalogCache.Snapshot snapshot = new LostItemCatalogCache.Snapshot(3, lostItems, 10);
+
+        LostItemService.Page<LostItemDto> first = snapshot.page(null, 0, 2);
+        assertEquals(List.of(10L, 20L), ids(first));
+        assertEquals(20L, first.next());
+
+        // The cursor does not have to be the id of an existing LostItem
+        LostItemService.Page<LostItemDto> last = snapshot.page(null, 25, 5);
+        assertEquals(List.of(30L, 40L, 50L), ids(last));
+        assertNull(last.next());
+
+        assertEquals(List.of(40L), ids(snapshot.page(" town  HALL", 20, 5)));
+        assertTrue(snapshot.page("Nowhere", 0, 5).lostItems().isEmpty());
+        assertTrue(snapshot.page(null, 50, 5).lostItems().isEmpty());
+    }
+
+    @Test
+    void testSnapshotKeepsAtMostMaxResponses() {
+        LostItemCatalogCache.Snapshot snapshot = new LostItemCatalogCache.Snapshot(1, List.of(), 1);
+        SerializedResponse first = new SerializedResponse(new byte[]{1}, null);
+
+        assertSame(first, snapshot.response("first", () -> first));
+        assertSame(first, snapshot.response("first", () -> fail("Should reuse the rendered response")));
+
+        // Full, the second response is rendered again on every request
+        AtomicInteger rendered = new AtomicInteger();
+        Supplier<SerializedResponse> render = () -> {
+            rendered.incrementAndGet();
+            return new SerializedResponse(new byte[]{2}, null);
+        };
+        snapshot.response("second", render);
+        snapshot.response("second", render);
+        assertEquals(2, rendered.get());
+    }
+
+    private LostItemCatalogCache.Snapshot awaitSnapshot(Predicate<LostItemCatalogCache.Snapshot> condition) {
+        awaitCondition(() -> catalogCache.snapshot().filter(condition).isPresent());
+        return catalogCache.snapshot().orElseThrow();
+    }
+
+    private void awaitCondition(BooleanSupplier condition) {
+        Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+        while (!condition.getAsBoolean()) {
+            assertTrue(Instant.now().isBefore(deadline), "Timed out waiting for the catalog cache");
+            Thread.onSpinWait();
+        }
+    }
+
+    private List<Long> ids(LostItemService.Page<LostItemDto> page) {
+        return page.lostItems().stream().map(LostItemDto::getId).toList();
+    }
+
+    private LostItem lostItem(long id, String place) {
+        LostItem lostItem = new LostItem();
+        lostItem.setId(id);
+        lostItem.setItemName("Item " + id);
+        lostItem.setQuantity(1);
+        lostItem.setPlace(new Place(place));
+        return lostItem;
+    }
+}
@@ -0,0 +1,138 @@
+package dev.riemer.lostandfound.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.riemer.lostandfound.dto.LostItemDto;
+import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
+import dev.riemer.lostandfound.repository.LostItemRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.Mockito.*;
+
+class LostItemCatalogServiceTests {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private LostItemRepository lostItemRepository;
+    private EntityManager entityManager;
+    private LostItemCatalogCache catalogCache;
+    private LostItemService lostItemService;
+    private LostItemCatalogService lostItemCatalogService;
+
+    @BeforeEach
+    void setUp() {
+        lostItemRepository = mock(LostItemRepository.class);
+        entityManager = mock(EntityManager.class);
+        catalogCache = mock(LostItemCatalogCache.class);
+        lostItemService = mock(LostItemService.class);
+        when(lostItemService.pageSize(anyInt())).then(returnsFirstArg());
+        lostItemCatalogService = new LostItemCatalogService(
+                lostItemRepository, entityManager, catalogCache, lostItemService, OBJECT_MAPPER
+        );
+    }
+
+    @Test
+    void testGetCatalogPageFromSnapshot() throws IOException {
+        LostItemCatalogCache.Snapshot snapshot = new LostItemCatalogCache.Snapshot(1, List.of(
+                new LostItemDto(lostItem(1L, "Wallet", 2, "Lobby")),
+                new LostItemDto(lostItem(2L, "Umbrella", 1, "Cafe"))
+        ), 10);
+        when(catalogCache.snapshot()).thenReturn(Optional.of(snapshot));
+
+        SerializedResponse page = lostItemCatalogService.getCatalogPage(null, null, 1);
+
+        assertEquals("{\"items\":[{\"id\":1,\"itemName\":\"Wallet\",\"quantity\":2,\"place\":\"Lobby\"}],"
+                + "\"next\":1}", new String(page.json(), StandardCharsets.UTF_8));
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(page.gzip()))) {
+            assertArrayEquals(page.json(), gzip.readAllBytes());
+        }
+        // Rendered once per snapshot, every spelling of a Place shares the page
+        assertSame(page, lostItemCatalogService.getCatalogPage(null, 0L, 1));
+        assertSame(lostItemCatalogService.getCatalogPage(" CAFE", null, 5),
+                lostItemCatalogService.getCatalogPage("cafe", null, 5));
+        verifyNoInteractions(lostItemRepository);
+        verify(lostItemService, never()).getLostItems(any(), any(), anyInt());
+    }
+
+    @Test
+    void testGetCatalogPageWithoutSnapshot() {
+        when(catalogCache.snapshot()).thenReturn(Optional.empty());
+        when(lostItemService.getLostItems(null, 0L, 1))
+                .thenReturn(new LostItemService.Page<>(List.of(lostItem(3L, "Kite", 1, "Beach")), 3L));
+
+        SerializedResponse page = lostItemCatalogService.getCatalogPage(null, null, 1);
+
+        assertEquals("{\"items\":[{\"id\":3,\"itemName\":\"Kite\",\"quantity\":1,\"place\":\"Beach\"}],"
+                + "\"next\":3}", new String(page.json(), StandardCharsets.UTF_8));
+        assertNull(page.gzip(), "Should not compress a page which is sent once");
+    }
+
+    @Test
+    void testWriteCatalog() throws IOException {
+        LostItem wallet = lostItem(1L, "Wallet", 2, "Lobby");
+        LostItem umbrella = lostItem(2L, "Umbrella", 1, "Cafe");
+        AtomicBoolean closed = new AtomicBoolean();
+        when(lostItemRepository.streamAllByOrderByIdAsc())
+                .thenReturn(Stream.of(wallet, umbrella).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        lostItemCatalogService.writeCatalog(outputStream);
+
+        assertEquals("[{\"id\":1,\"itemName\":\"Wallet\",\"quantity\":2,\"place\":\"Lobby\"},"
+                + "{\"id\":2,\"itemName\":\"Umbrella\",\"quantity\":1,\"place\":\"Cafe\"}]",
+                outputStream.toString(StandardCharsets.UTF_8));
+        verify(entityManager).detach(wallet);
+        verify(entityManager).detach(umbrella);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void testWriteEmptyCatalog() throws IOException {
+        when(lostItemRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.empty());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        lostItemCatalogService.writeCatalog(outputStream);
+
+        assertEquals("[]", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteCatalogClosesStreamOnFailure() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(lostItemRepository.streamAllByOrderByIdAsc())
+                .thenReturn(Stream.of(lostItem(1L, "Wallet", 2, "Lobby")).onClose(() -> closed.set(true)));
+        OutputStream disconnected = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+
+        assertThrows(IOException.class, () -> lostItemCatalogService.writeCatalog(disconnected));
+        assertTrue(closed.get());
+    }
+
+    private LostItem lostItem(Long id, String itemName, int quantity, String place) {
+        LostItem lostItem = new LostItem();
+        lostItem.setId(id);
+        lostItem.setItemName(itemName);
+        lostItem.setQuantity(quantity);
+        lostItem.setPlace(new Place(place));
+        return lostItem;
+    }
+}
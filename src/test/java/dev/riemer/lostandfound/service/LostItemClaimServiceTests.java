@@ -9,6 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -18,6 +22,9 @@ class LostItemClaimServiceTest {
     @Mock
     private LostItemClaimRepository lostItemClaimRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private LostItemClaimService lostItemClaimService;
 
@@ -50,6 +57,7 @@ class LostItemClaimServiceTest {
 
         verify(lostItemClaimRepository, times(1)).existsByUserAndLostItem(user, lostItem);
         verify(lostItemClaimRepository, times(1)).save(any(LostItemClaim.class));
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
     }
 
     @Test
@@ -67,5 +75,34 @@ class LostItemClaimServiceTest {
 
         verify(lostItemClaimRepository, times(1)).existsByUserAndLostItem(user, lostItem);
         verify(lostItemClaimRepository, never()).save(any(LostItemClaim.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testGetClaimsByLostItemId() {
+        LostItemClaimRepository.ClaimSummary first = claimSummary(1L, "user1");
+        LostItemClaimRepository.ClaimSummary second = claimSummary(1L, "user2");
+        LostItemClaimRepository.ClaimSummary third = claimSummary(3L, "user1");
+        when(lostItemClaimRepository.findSummariesByLostItemIdIn(List.of(1L, 2L, 3L)))
+                .thenReturn(List.of(first, second, third));
+
+        Map<Long, List<LostItemClaimRepository.ClaimSummary>> result =
+                lostItemClaimService.getClaimsByLostItemId(List.of(1L, 2L, 3L));
+
+        assertEquals(Map.of(1L, List.of(first, second), 3L, List.of(third)), result);
+    }
+
+    @Test
+    void testGetClaimsByLostItemIdWithoutLostItems() {
+        assertTrue(lostItemClaimService.getClaimsByLostItemId(List.of()).isEmpty());
+
+        verify(lostItemClaimRepository, never()).findSummariesByLostItemIdIn(any());
+    }
+
+    private LostItemClaimRepository.ClaimSummary claimSummary(Long lostItemId, String username) {
+        LostItemClaimRepository.ClaimSummary claim = mock(LostItemClaimRepository.ClaimSummary.class);
+        when(claim.getLostItemId()).thenReturn(lostItemId);
+        when(claim.getUsername()).thenReturn(username);
+        return claim;
     }
 }
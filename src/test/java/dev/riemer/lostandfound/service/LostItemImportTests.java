@@ -0,0 +1,203 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.exceptions.ConflictException;
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import dev.riemer.lostandfound.model.ImportedFile;
+import dev.riemer.lostandfound.repository.ImportedFileRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "lostandfound.import.batch-size=2")
+public class LostItemImportTests {
+
+    @Autowired
+    private LostItemService lostItemService;
+
+    @Autowired
+    private ImportedFileRepository importedFileRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void testFailedImport_shouldKeepCommittedBatchesAndResumeOnRetry() throws IOException {
+        Path file = write("items.txt", record("Umbrella", "3", "Retry hall"), record("Scarf", "2", "Retry hall"),
+                record("Hat", "1", "Retry hall"), record("Glove", "abc", "Retry hall"), record("Cap", "5", "Retry hall"));
+
+        assertThrows(LostItemParseException.class, () -> importFile(file, "retry-sha", false));
+
+        assertEquals(3, countAt("retry hall"), "Should keep the batches committed before the error");
+        ImportedFile failed = importedFileRepository.findBySha256("retry-sha").orElseThrow();
+        assertEquals(ImportedFile.Status.FAILED, failed.getStatus());
+        assertEquals(3, failed.getRecordsImported());
+
+        assertEquals(4, importFile(file, "retry-sha", true), "Should count the LostItems of both attempts");
+        assertEquals(4, importFile(file, "retry-sha", true), "Should report the earlier import of the same file");
+
+        assertEquals(4, countAt("retry hall"), "Should not save the committed LostItems again");
+        assertEquals(3, quantityOf("umbrella", "retry hall"));
+        assertEquals(5, quantityOf("cap", "retry hall"));
+        ImportedFile done = importedFileRepository.findBySha256("retry-sha").orElseThrow();
+        assertEquals(ImportedFile.Status.DONE, done.getStatus());
+        assertEquals(2, done.getAttempt());
+    }
+
+    @Test
+    public void testImport_ofContentBeingImported_shouldBeRejected() throws IOException {
+        importedFileRepository.saveAndFlush(new ImportedFile("running-sha", 1, null));
+        Path file = write("items.txt", record("Whistle", "1", "Busy lane"));
+
+        assertThrows(ConflictException.class, () -> importFile(file, "running-sha", false));
+
+        assertEquals(0, countAt("busy lane"));
+    }
+
+    @Test
+    public void testLocalImport_shouldStoreHashOfContent() throws IOException {
+        Path file = write("local.txt", record("Kite", "1", "Drop dock"), record("Drum", "2", "Drop dock"));
+        String sha256 = HexFormat.of().formatHex(
+                ImportJobService.newSha256Digest().digest(Files.readAllBytes(file)));
+
+        assertEquals(2, lostItemService.processLocalLostItemsFile(file, "text/plain", false, false,
+                ImportProgress.NONE));
+
+        ImportedFile imported = importedFileRepository.findBySha256(sha256).orElseThrow();
+        assertEquals(ImportedFile.Status.DONE, imported.getStatus());
+        assertEquals(2, imported.getRecordsImported());
+
+        Path copy = Files.copy(file, tempDir.resolve("copy.txt"));
+        assertEquals(2, lostItemService.processLocalLostItemsFile(copy, "text/plain", false, false,
+                ImportProgress.NONE), "Should report the earlier import of the same content");
+        assertEquals(2, importFile(file, sha256, false), "Should report the earlier import of the same upload");
+        assertEquals(2, countAt("drop dock"), "Should not import the same content twice");
+    }
+
+    @Test
+    public void testMerge_shouldAddToExistingLostItem() throws IOException {
+        merge(write("first.txt", record("Compass", "2", "Merge pier")), null);
+        merge(write("second.txt", record("compass", "3", "Merge pier"), record("COMPASS ", "4", "merge  pier")), null);
+
+        assertEquals(1, countAt("merge pier"));
+        assertEquals(9, quantityOf("compass", "merge pier"));
+    }
+
+    @Test
+    public void testMerge_shouldOnlyAddToTheMergeTarget() throws IOException {
+        Path file = write("items.txt", record("Lamp", "2", "Target quay"));
+        lostItemService.processLostItemsFile(file, "text/plain", null, false, false, ImportProgress.NONE);
+
+        merge(file, null);
+        merge(file, null);
+        lostItemService.processLostItemsFile(file, "text/plain", null, false, false, ImportProgress.NONE);
+
+        assertEquals(3, countAt("target quay"), "Should keep inserted LostItems apart from the merge target");
+        assertEquals(4, jdbcTemplate.queryForObject("""
+                SELECT i.quantity FROM lost_items i JOIN places p ON p.id = i.place_id
+                WHERE p.name_key = 'target quay' AND i.merge_target = TRUE""", Integer.class));
+    }
+
+    @Test
+    public void testInsert_shouldAddNewLostItems() throws IOException {
+        Path file = write("items.txt", record("Lantern", "2", "Insert quay"), record("Lantern", "3", "Insert quay"));
+
+        lostItemService.processLostItemsFile(file, "text/plain", null, false, false, ImportProgress.NONE);
+        lostItemService.processLostItemsFile(file, "text/plain", null, false, false, ImportProgress.NONE);
+
+        assertEquals(4, countAt("insert quay"));
+        assertEquals(10, jdbcTemplate.queryForObject("""
+                SELECT SUM(i.quantity) FROM lost_items i JOIN places p ON p.id = i.place_id
+                WHERE p.name_key = 'insert quay'""", Integer.class));
+    }
+
+    @Test
+    public void testMerge_withOverflowingTotal_shouldFailWithoutChanges() throws IOException {
+        merge(write("max.txt", record("Anchor", String.valueOf(Integer.MAX_VALUE), "Overflow dock")), null);
+        Path more = write("more.txt", record("Rope", "1", "Overflow dock"), record("Anchor", "1", "Overflow dock"));
+
+        ArithmeticException exception = assertThrows(ArithmeticException.class, () -> merge(more, null));
+
+        assertEquals("Total quantity of Anchor at Overflow dock exceeds 2147483647", exception.getMessage());
+        assertEquals(Integer.MAX_VALUE, quantityOf("anchor", "overflow dock"));
+        assertEquals(1, countAt("overflow dock"), "Should roll back the failing batch");
+    }
+
+    @Test
+    public void testMerge_withOverflowingRecordsInFile_shouldKeepTheBatchesBefore() throws IOException {
+        Path file = write("items.txt", record("Buoy", "2000000000", "Overflow bay"), record("Oar", "1", "Overflow bay"),
+                record("buoy", "2000000000", "Overflow bay"), record("Paddle", "1", "Overflow bay"));
+
+        assertThrows(ArithmeticException.class, () -> merge(file, null));
+
+        assertEquals(2, countAt("overflow bay"), "Should keep the first batch and roll back the overflowing one");
+        assertEquals(2000000000, quantityOf("buoy", "overflow bay"));
+        assertEquals(1, quantityOf("oar", "overflow bay"));
+    }
+
+    @Test
+    public void testConcurrentMerges_shouldNotInsertTheSameLostItemTwice() throws Exception {
+        String[] records = new String[100];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = record("Kite " + (i % 10), "1", "Race track");
+        }
+        Path first = write("first.txt", records);
+        Path second = write("second.txt", records);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<Integer>> imports = List.of(
+                    executor.submit(() -> merge(first, null)),
+                    executor.submit(() -> merge(second, null))
+            );
+            for (Future<Integer> future : imports) {
+                assertEquals(100, future.get());
+            }
+        }
+
+        assertEquals(10, countAt("race track"));
+        assertEquals(20, quantityOf("kite 3", "race track"));
+    }
+
+    private int importFile(Path file, String sha256, boolean lenient) throws IOException {
+        return lostItemService.processLostItemsFile(file, "text/plain", sha256, lenient, false, ImportProgress.NONE);
+    }
+
+    private int merge(Path file, String sha256) throws IOException {
+        return lostItemService.processLostItemsFile(file, "text/plain", sha256, false, true, ImportProgress.NONE);
+    }
+
+    private Path write(String fileName, String... records) throws IOException {
+        return Files.writeString(tempDir.resolve(fileName), String.join("\n", records));
+    }
+
+    private static String record(String itemName, String quantity, String place) {
+        return "ItemName: " + itemName + "\nQuantity: " + quantity + "\nPlace: " + place;
+    }
+
+    private int countAt(String placeKey) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM lost_items i JOIN places p ON p.id = i.place_id
+                WHERE p.name_key = ?""", Integer.class, placeKey);
+    }
+
+    private int quantityOf(String itemKey, String placeKey) {
+        return jdbcTemplate.queryForObject("""
+                SELECT i.quantity FROM lost_items i JOIN places p ON p.id = i.place_id
+                WHERE i.item_key = ? AND p.name_key = ?""", Integer.class, itemKey, placeKey);
+    }
+}
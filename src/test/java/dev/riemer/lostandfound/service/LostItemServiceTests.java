@@ -1,18 +1,36 @@
 package dev.riemer.lostandfound.service;
 
+import dev.riemer.lostandfound.exceptions.ConflictException;
+import dev.riemer.lostandfound.exceptions.InvalidRequestException;
 import dev.riemer.lostandfound.fileprocessor.FileProcessor;
 import dev.riemer.lostandfound.fileprocessor.FileProcessorFactory;
+import dev.riemer.lostandfound.fileprocessor.LostItemParseException;
+import dev.riemer.lostandfound.fileprocessor.LostItemSink;
+import dev.riemer.lostandfound.model.ImportedFile;
 import dev.riemer.lostandfound.model.LostItem;
+import dev.riemer.lostandfound.model.Place;
+import dev.riemer.lostandfound.repository.ImportedFileRepository;
+import dev.riemer.lostandfound.repository.LostItemBatchWriter;
 import dev.riemer.lostandfound.repository.LostItemRepository;
+import dev.riemer.lostandfound.repository.PlaceDictionary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,7 +46,16 @@ class LostItemServiceTests {
     private FileProcessorFactory fileProcessorFactory;
 
     @Mock
-    private MultipartFile file;
+    private LostItemBatchWriter batchWriter;
+
+    @Mock
+    private ImportedFileRepository importedFileRepository;
+
+    @Mock
+    private PlaceDictionary placeDictionary;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private FileProcessor fileProcessor;
@@ -39,6 +66,7 @@ class LostItemServiceTests {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(placeDictionary.resolve(any())).then(invocation -> new Place(invocation.getArgument(0)));
     }
 
     @Test
@@ -55,51 +83,463 @@ class LostItemServiceTests {
     }
 
     @Test
-    void testGetAllLostItems() {
-        LostItem lostItem1 = new LostItem();
-        LostItem lostItem2 = new LostItem();
-        List<LostItem> lostItems = Arrays.asList(lostItem1, lostItem2);
-        when(lostItemRepository.findAll()).thenReturn(lostItems);
+    void testGetLostItemsPage() {
+        List<LostItem> lostItems = List.of(lostItem(11), lostItem(12), lostItem(13));
+        when(lostItemRepository.findByIdGreaterThanOrderByIdAsc(10L, Limit.of(3))).thenReturn(lostItems);
+
+        LostItemService.Page<LostItem> page = lostItemService.getLostItems(null, 10L, 2);
+
+        assertEquals(lostItems.subList(0, 2), page.lostItems());
+        assertEquals(12L, page.next());
+    }
+
+    @Test
+    void testGetLostItemsLastPage() {
+        List<LostItem> lostItems = List.of(lostItem(1), lostItem(2));
+        when(lostItemRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(lostItems);
+
+        LostItemService.Page<LostItem> page = lostItemService.getLostItems(null, null, 2);
+
+        assertEquals(lostItems, page.lostItems());
+        assertNull(page.next());
+    }
+
+    @Test
+    void testGetLostItemsCapsPageSize() {
+        ReflectionTestUtils.setField(lostItemService, "maxPageSize", 50);
+
+        lostItemService.getLostItems(null, null, 10_000);
+
+        verify(lostItemRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(51));
+        assertThrows(InvalidRequestException.class, () -> lostItemService.getLostItems(null, null, 0));
+    }
+
+    @Test
+    void testGetLostItemsAtPlace() {
+        List<LostItem> lostItems = List.of(lostItem(5));
+        Place townHall = new Place("Town hall");
+        townHall.setId(2);
+        when(placeDictionary.find(" town  HALL")).thenReturn(Optional.of(townHall));
+        when(lostItemRepository.findByPlaceIdAndIdGreaterThanOrderByIdAsc(2, 0L, Limit.of(11))).thenReturn(lostItems);
+
+        LostItemService.Page<LostItem> page = lostItemService.getLostItems(" town  HALL", null, 10);
+
+        assertEquals(lostItems, page.lostItems());
+        assertNull(page.next());
+    }
+
+    @Test
+    void testGetLostItemsAtUnknownPlace() {
+        when(placeDictionary.find("Nowhere")).thenReturn(Optional.empty());
+
+        LostItemService.Page<LostItem> page = lostItemService.getLostItems("Nowhere", null, 10);
+
+        assertTrue(page.lostItems().isEmpty());
+        verify(lostItemRepository, never()).findByPlaceIdAndIdGreaterThanOrderByIdAsc(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void testProcessLostItemsFileFromPath() throws IOException {
+        Path path = Path.of("manifests", "items.csv");
+        List<LostItem> lostItems = List.of(parsedLostItem("Wallet"), parsedLostItem("Umbrella"));
+        List<LostItem> saved = new ArrayList<>();
+
+        when(fileProcessorFactory.getProcessor("text/csv", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            invocation.<LostItemSink>getArgument(1).acceptAll(lostItems.iterator());
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(batchWriter.insertAll(anyList(), any(), any())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.<List<?>>getArgument(0).size();
+        });
+
+        int imported = lostItemService.processLostItemsFile(path);
+
+        assertEquals(2, imported);
+        assertEquals(lostItems, saved);
+        verify(fileProcessorFactory, times(1)).getProcessor("text/csv", path);
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    @Test
+    void testProcessLostItemsFileFromPathThrowsIOException() throws IOException {
+        Path path = Path.of("manifests", "items.csv");
+
+        when(fileProcessorFactory.getProcessor("text/csv", path)).thenReturn(fileProcessor);
+        doThrow(new IOException()).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+
+        assertThrows(IOException.class, () -> lostItemService.processLostItemsFile(path));
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testProcessLostItemsFileFromPathInBatches() throws IOException {
+        Path path = Path.of("items.txt");
+        List<List<String>> batches = new ArrayList<>();
+        ImportProgress progress = mock(ImportProgress.class);
+
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            for (int i = 0; i < 5; i++) {
+                sink.accept(parsedLostItem("Item " + i));
+            }
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(2);
+        when(batchWriter.insertAll(anyList(), any(), any())).thenAnswer(invocation -> {
+            List<LostItem> batch = invocation.getArgument(0);
+            batches.add(batch.stream().map(LostItem::getItemName).toList());
+            return batch.size();
+        });
+
+        int imported = lostItemService.processLostItemsFile(path, "text/plain", progress);
+
+        assertEquals(5, imported);
+        assertEquals(
+                List.of("Item 0", "Item 1", "Item 2", "Item 3", "Item 4"),
+                batches.stream().flatMap(List::stream).toList(),
+                "Should save all items in file order"
+        );
+        assertEquals(List.of(2, 2, 1), batches.stream().map(List::size).toList(),
+                "Should fill every batch but the last up to the batch size");
+        verify(progress, times(5)).parsed(1);
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    @Test
+    void testProcessLostItemsFileSharesPlaceNames() throws IOException {
+        Path path = Path.of("items.txt");
+        List<LostItem> saved = new ArrayList<>();
+
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                LostItem lostItem = parsedLostItem("Item " + i);
+                lostItem.setPlaceName(new String("Lobby"));
+                sink.accept(lostItem);
+            }
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(batchWriter.insertAll(anyList(), any(), any())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return invocation.<List<?>>getArgument(0).size();
+        });
+
+        lostItemService.processLostItemsFile(path, "text/plain", ImportProgress.NONE);
+
+        assertEquals(3, saved.size());
+        assertSame(saved.get(0).getPlaceName(), saved.get(2).getPlaceName(), "Should intern the place name");
+        assertSame(saved.get(0).getPlace(), saved.get(2).getPlace());
+        verify(placeDictionary, times(1)).resolve("Lobby");
+    }
+
+    @Test
+    void testProcessLostItemsFileFromPathThrowsParseError() throws IOException {
+        Path path = Path.of("items.txt");
+
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            sink.accept(parsedLostItem("Item"));
+            throw new IllegalArgumentException("Missing required fields in item data.");
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(batchWriter.insertAll(anyList(), any(), any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> lostItemService.processLostItemsFile(path, "text/plain", ImportProgress.NONE));
+
+        assertEquals("Missing required fields in item data.", exception.getMessage());
+        // The batch written before the error stays committed, so the catalog changed
+        verify(batchWriter, times(1)).insertAll(anyList(), isNull(), any());
+        verify(eventPublisher, times(1)).publishEvent(any(CatalogChangedEvent.class));
+    }
+
+    @Test
+    void testProcessLostItemsFileRecordsHash(@TempDir Path directory) throws IOException {
+        Path path = Files.writeString(directory.resolve("items.txt"), "ItemName: Item\nQuantity: 1\nPlace: Lobby\n");
+
+        when(importedFileRepository.findBySha256("abc123")).thenReturn(Optional.empty());
+        when(importedFileRepository.saveAndFlush(any())).then(invocation -> {
+            ImportedFile importedFile = invocation.getArgument(0);
+            importedFile.setId(7L);
+            return importedFile;
+        });
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            sink.accept(parsedLostItem("Item"));
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(batchWriter.insertAll(anyList(), any(), any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        int imported = lostItemService.processLostItemsFile(path, "text/plain", "abc123", false, false, ImportProgress.NONE);
+
+        assertEquals(1, imported);
+        verify(importedFileRepository, times(1)).saveAndFlush(argThat(importedFile -> "abc123".equals(
+                importedFile.getSha256()) && importedFile.getStatus() == ImportedFile.Status.IN_PROGRESS));
+        verify(batchWriter, times(1)).insertAll(anyList(), argThat(importedFile -> importedFile.getId() == 7L), any());
+        verify(importedFileRepository, times(1)).finish(7L, 1, ImportedFile.Status.DONE);
+    }
+
+    @Test
+    void testProcessLostItemsFileResumesFailedImport() throws IOException {
+        Path path = Path.of("items.txt");
+        ImportedFile failed = importedFile(ImportedFile.Status.FAILED, 1, 2);
+        ImportedFile claimed = importedFile(ImportedFile.Status.IN_PROGRESS, 2, 2);
+        List<String> saved = new ArrayList<>();
+
+        when(importedFileRepository.findBySha256("abc123")).thenReturn(Optional.of(failed));
+        when(importedFileRepository.claim(eq(7L), eq(1), any(), any())).thenReturn(1);
+        when(importedFileRepository.findById(7L)).thenReturn(Optional.of(claimed));
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            for (int i = 0; i < 5; i++) {
+                sink.accept(parsedLostItem("Item " + i));
+            }
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(batchWriter.insertAll(anyList(), eq(claimed), any())).thenAnswer(invocation -> {
+            List<LostItem> batch = invocation.getArgument(0);
+            batch.forEach(lostItem -> saved.add(lostItem.getItemName()));
+            return batch.size();
+        });
+
+        int imported = lostItemService.processLostItemsFile(path, "text/plain", "abc123", false, false, ImportProgress.NONE);
+
+        assertEquals(5, imported, "Should count the LostItems committed by the failed attempt");
+        assertEquals(List.of("Item 2", "Item 3", "Item 4"), saved, "Should continue after the committed LostItems");
+        verify(importedFileRepository, times(1)).finish(7L, 2, ImportedFile.Status.DONE);
+    }
+
+    @Test
+    void testProcessLostItemsFileRejectsRunningImport() throws IOException {
+        Path path = Path.of("items.txt");
+        ImportedFile running = importedFile(ImportedFile.Status.IN_PROGRESS, 1, 2);
+
+        when(importedFileRepository.findBySha256("abc123")).thenReturn(Optional.of(running));
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        when(importedFileRepository.claim(eq(7L), eq(1), any(), any())).thenReturn(0);
+
+        assertThrows(ConflictException.class, () ->
+                lostItemService.processLostItemsFile(path, "text/plain", "abc123", false, false, ImportProgress.NONE));
+
+        verifyNoInteractions(batchWriter);
+    }
+
+    @Test
+    void testProcessLostItemsFileMarksFailedImport(@TempDir Path directory) throws IOException {
+        Path path = Files.writeString(directory.resolve("items.txt"), "ItemName: Item\nQuantity: 1\nPlace: Lobby\n");
 
-        List<LostItem> result = lostItemService.getAllLostItems();
+        when(importedFileRepository.findBySha256("abc123")).thenReturn(Optional.empty());
+        when(importedFileRepository.saveAndFlush(any())).then(invocation -> {
+            ImportedFile importedFile = invocation.getArgument(0);
+            importedFile.setId(7L);
+            return importedFile;
+        });
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doThrow(new IOException()).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
 
-        assertEquals(2, result.size());
-        assertEquals(lostItems, result);
-        verify(lostItemRepository, times(1)).findAll();
+        assertThrows(IOException.class, () ->
+                lostItemService.processLostItemsFile(path, "text/plain", "abc123", false, false, ImportProgress.NONE));
+
+        verify(importedFileRepository, times(1)).finish(7L, 1, ImportedFile.Status.FAILED);
+        verify(importedFileRepository, never()).finish(7L, 1, ImportedFile.Status.DONE);
+    }
+
+    @Test
+    void testProcessLostItemsFileRejectsUnhashedImportOfSameSize(@TempDir Path directory) throws IOException {
+        Path path = Files.writeString(directory.resolve("items.txt"), "ItemName: Item\nQuantity: 1\nPlace: Lobby\n");
+
+        when(importedFileRepository.findBySha256("abc123")).thenReturn(Optional.empty());
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        when(importedFileRepository.existsUnhashedInProgress(eq(Files.size(path)), any())).thenReturn(true);
+
+        assertThrows(ConflictException.class, () ->
+                lostItemService.processLostItemsFile(path, "text/plain", "abc123", false, false, ImportProgress.NONE));
+
+        verify(importedFileRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(batchWriter);
+    }
+
+    @Test
+    void testProcessLocalLostItemsFileHashesWhileImporting(@TempDir Path directory) throws IOException {
+        Path path = Files.writeString(directory.resolve("items.txt"), "ItemName: Item\nQuantity: 1\nPlace: Lobby\n");
+
+        when(importedFileRepository.saveAndFlush(any())).then(invocation -> {
+            ImportedFile importedFile = invocation.getArgument(0);
+            importedFile.setId(7L);
+            return importedFile;
+        });
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            MessageDigest digest = invocation.getArgument(2);
+            digest.update(Files.readAllBytes(path));
+            sink.accept(parsedLostItem("Item"));
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class), any(MessageDigest.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(batchWriter.insertAll(anyList(), any(), any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        int imported = lostItemService.processLocalLostItemsFile(path, "text/plain", false, false, ImportProgress.NONE);
+
+        assertEquals(1, imported);
+        verify(importedFileRepository, times(1)).saveAndFlush(argThat(importedFile -> importedFile.getSha256() == null
+                && importedFile.getSource().startsWith(path.toAbsolutePath() + "|")));
+        verify(importedFileRepository, never()).findBySha256(any());
+        verify(fileProcessor, never()).processFile(eq(path), any(LostItemSink.class));
+        verify(importedFileRepository, times(1)).finishHashed(7L, 1, sha256(path));
     }
 
     @Test
-    void testProcessLostItemsFile() throws IOException {
-        // Use an unsupported ContentType, so we know for sure everything gets mocked properly
-        String contentType = "text/csv";
-        LostItem lostItem1 = new LostItem();
-        LostItem lostItem2 = new LostItem();
-        List<LostItem> lostItems = Arrays.asList(lostItem1, lostItem2);
+    void testProcessLocalLostItemsFileKeepsHashOfConcurrentImport(@TempDir Path directory) throws IOException {
+        Path path = Files.writeString(directory.resolve("items.txt"), "ItemName: Item\nQuantity: 1\nPlace: Lobby\n");
 
-        when(file.getContentType()).thenReturn(contentType);
-        when(fileProcessorFactory.getProcessor(contentType)).thenReturn(fileProcessor);
-        when(fileProcessor.processFile(file)).thenReturn(lostItems);
+        when(importedFileRepository.saveAndFlush(any())).then(invocation -> {
+            ImportedFile importedFile = invocation.getArgument(0);
+            importedFile.setId(7L);
+            return importedFile;
+        });
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(importedFileRepository.finishHashed(eq(7L), eq(1), anyString()))
+                .thenThrow(new DataIntegrityViolationException("Duplicate sha256"));
 
-        lostItemService.processLostItemsFile(file);
+        lostItemService.processLocalLostItemsFile(path, "text/plain", false, false, ImportProgress.NONE);
 
-        verify(fileProcessorFactory, times(1)).getProcessor(contentType);
-        verify(fileProcessor, times(1)).processFile(file);
-        verify(lostItemRepository, times(1)).saveAll(lostItems);
+        verify(importedFileRepository, times(1)).finish(7L, 1, ImportedFile.Status.DONE);
     }
 
     @Test
-    void testProcessLostItemsFileThrowsIOException() throws IOException {
-        // Use an unsupported ContentType, so we know for sure everything gets mocked properly
-        String contentType = "text/csv";
+    void testProcessLocalLostItemsFileHashesUpFrontForKnownSize(@TempDir Path directory) throws IOException {
+        Path path = Files.writeString(directory.resolve("copy.txt"), "ItemName: Item\nQuantity: 1\nPlace: Lobby\n");
+        ImportedFile original = importedFile(ImportedFile.Status.DONE, 1, 1);
+        original.setCreatedAt(new Date());
+        ImportProgress progress = mock(ImportProgress.class);
+
+        when(importedFileRepository.existsByContentLength(Files.size(path))).thenReturn(true);
+        when(importedFileRepository.findBySha256(sha256(path))).thenReturn(Optional.of(original));
 
-        when(file.getContentType()).thenReturn(contentType);
-        when(fileProcessorFactory.getProcessor(contentType)).thenReturn(fileProcessor);
-        when(fileProcessor.processFile(file)).thenThrow(new IOException());
+        int imported = lostItemService.processLocalLostItemsFile(path, "text/plain", false, false, progress);
 
-        assertThrows(IOException.class, () -> lostItemService.processLostItemsFile(file));
+        assertEquals(1, imported, "Should report the result of the earlier import");
+        verify(progress, times(1)).duplicateOf(original);
+        verifyNoInteractions(fileProcessorFactory, batchWriter);
+    }
 
-        verify(fileProcessorFactory, times(1)).getProcessor(contentType);
-        verify(fileProcessor, times(1)).processFile(file);
-        verify(lostItemRepository, never()).saveAll(anyList());
+    @Test
+    void testProcessLocalLostItemsFileSkipsImportedSource(@TempDir Path directory) throws IOException {
+        Path path = Files.writeString(directory.resolve("items.txt"), "ItemName: Item\nQuantity: 1\nPlace: Lobby\n");
+        ImportedFile original = importedFile(ImportedFile.Status.DONE, 1, 1);
+        original.setCreatedAt(new Date());
+        ImportProgress progress = mock(ImportProgress.class);
+
+        when(importedFileRepository.findBySource(startsWith(path.toAbsolutePath() + "|"))).thenReturn(Optional.of(original));
+
+        int imported = lostItemService.processLocalLostItemsFile(path, "text/plain", false, false, progress);
+
+        assertEquals(1, imported, "Should report the result of the earlier import");
+        verify(progress, times(1)).duplicateOf(original);
+        verify(importedFileRepository, never()).existsByContentLength(anyLong());
+        verifyNoInteractions(fileProcessorFactory, batchWriter);
+    }
+
+    @Test
+    void testProcessLostItemsFileSkipsDuplicate() throws IOException {
+        Path path = Path.of("items.txt");
+        ImportedFile original = importedFile(ImportedFile.Status.DONE, 1, 42);
+        original.setCreatedAt(new Date());
+        ImportProgress progress = mock(ImportProgress.class);
+
+        when(importedFileRepository.findBySha256("abc123")).thenReturn(Optional.of(original));
+
+        int imported = lostItemService.processLostItemsFile(path, "text/plain", "abc123", false, false, progress);
+
+        assertEquals(42, imported, "Should report the result of the earlier import");
+        verify(progress, times(1)).duplicateOf(original);
+        verifyNoInteractions(fileProcessorFactory, batchWriter);
+        verify(importedFileRepository, never()).saveAndFlush(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void testProcessLostItemsFileLenientSkipsInvalidRecords() throws IOException {
+        Path path = Path.of("items.txt");
+        ImportProgress progress = mock(ImportProgress.class);
+        LostItemParseException invalid = new LostItemParseException(4, "Invalid quantity: abc");
+
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            sink.accept(parsedLostItem("Item"));
+            sink.reject(invalid);
+            sink.accept(parsedLostItem("Item"));
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+        when(batchWriter.insertAll(anyList(), any(), any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        int imported = lostItemService.processLostItemsFile(path, "text/plain", null, true, false, progress);
+
+        assertEquals(2, imported, "Should save the valid records around the invalid one");
+        verify(progress, times(1)).rejected(invalid);
+    }
+
+    @Test
+    void testProcessLostItemsFileStrictStopsAtInvalidRecord() throws IOException {
+        Path path = Path.of("items.txt");
+
+        when(fileProcessorFactory.getProcessor("text/plain", path)).thenReturn(fileProcessor);
+        doAnswer(invocation -> {
+            LostItemSink sink = invocation.getArgument(1);
+            sink.reject(new LostItemParseException(4, "Invalid quantity: abc"));
+            return null;
+        }).when(fileProcessor).processFile(eq(path), any(LostItemSink.class));
+        when(batchWriter.getBatchSize()).thenReturn(10);
+
+        LostItemParseException exception = assertThrows(LostItemParseException.class,
+                () -> lostItemService.processLostItemsFile(path, "text/plain", null, false, false, ImportProgress.NONE));
+
+        assertEquals(4, exception.getLineNumber());
+    }
+
+    private LostItem parsedLostItem(String itemName) {
+        LostItem lostItem = new LostItem();
+        lostItem.setItemName(itemName);
+        lostItem.setQuantity(1);
+        lostItem.setPlaceName("Lobby");
+        return lostItem;
+    }
+
+    private static String sha256(Path path) throws IOException {
+        MessageDigest digest = ImportJobService.newSha256Digest();
+        return HexFormat.of().formatHex(digest.digest(Files.readAllBytes(path)));
+    }
+
+    private ImportedFile importedFile(ImportedFile.Status status, int attempt, int recordsImported) {
+        ImportedFile importedFile = new ImportedFile("abc123", 64, null);
+        importedFile.setId(7L);
+        importedFile.setStatus(status);
+        importedFile.setAttempt(attempt);
+        importedFile.setRecordsImported(recordsImported);
+        return importedFile;
+    }
+
+    private LostItem lostItem(long id) {
+        LostItem lostItem = new LostItem();
+        lostItem.setId(id);
+        return lostItem;
     }
 }
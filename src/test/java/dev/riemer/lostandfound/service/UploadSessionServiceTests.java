@@ -0,0 +1,191 @@
+package dev.riemer.lostandfound.service;
+
+import dev.riemer.lostandfound.exceptions.InvalidRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UploadSessionServiceTests {
+
+    private static final byte[] CONTENT = "ItemName: Wallet\nQuantity: 1\nPlace: Lobby\n\n".repeat(1000)
+            .getBytes(StandardCharsets.UTF_8);
+
+    private ImportJobService importJobService;
+
+    private UploadSessionService uploadSessionService;
+
+    @BeforeEach
+    void setUp() {
+        importJobService = mock(ImportJobService.class);
+        uploadSessionService = new UploadSessionService(importJobService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploadSessionService.shutdown();
+    }
+
+    @Test
+    void testChunksInParallelAndOutOfOrder() throws Exception {
+        UploadSession session = uploadSessionService.create("items.txt", "text/plain", CONTENT.length);
+        List<Future<UploadSession>> chunks = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(4)) {
+            for (int offset = CONTENT.length - CONTENT.length % 4096; offset >= 0; offset -= 4096) {
+                int chunkOffset = offset;
+                chunks.add(executor.submit(() -> uploadSessionService.writeChunk(
+                        session.getId(), chunkOffset, chunk(chunkOffset, chunkOffset + 4096))));
+            }
+            for (Future<UploadSession> chunk : chunks) {
+                chunk.get();
+            }
+        }
+
+        assertEquals(List.of(new UploadSession.Range(0, CONTENT.length)), session.getReceivedRanges());
+        assertTrue(session.isComplete());
+
+        ImportJob job = new ImportJob("job-1", "items.txt", sha256(CONTENT));
+        when(importJobService.submit(any(Path.class), any(), any(), any(), any(), any())).thenReturn(job);
+
+        assertSame(job, uploadSessionService.finish(session.getId(), sha256(CONTENT).toUpperCase(), true, null));
+        verify(importJobService).submit(session.getSpool(), "items.txt", "text/plain", sha256(CONTENT), true, null);
+        assertArrayEquals(CONTENT, Files.readAllBytes(session.getSpool()));
+        assertTrue(uploadSessionService.findById(session.getId()).isEmpty(), "A finished upload should be closed");
+        Files.delete(session.getSpool());
+    }
+
+    @Test
+    void testInterruptedChunkIsNotReceived() throws Exception {
+        UploadSession session = uploadSessionService.create("items.txt", null, CONTENT.length);
+        uploadSessionService.writeChunk(session.getId(), 0, chunk(0, 1000));
+
+        InputStream interrupted = new SequenceInputStream(chunk(1000, 1500), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+        assertThrows(IOException.class, () -> uploadSessionService.writeChunk(session.getId(), 1000, interrupted));
+        assertEquals(List.of(new UploadSession.Range(0, 1000)), session.getReceivedRanges());
+
+        // Resume with the missing range
+        uploadSessionService.writeChunk(session.getId(), 1000, chunk(1000, CONTENT.length));
+        assertTrue(session.isComplete());
+    }
+
+    @Test
+    void testFinishIncompleteUpload() throws Exception {
+        UploadSession session = uploadSessionService.create("items.txt", null, CONTENT.length);
+        uploadSessionService.writeChunk(session.getId(), 0, chunk(0, 1000));
+
+        InvalidRequestException exception = assertThrows(InvalidRequestException.class,
+                () -> uploadSessionService.finish(session.getId(), sha256(CONTENT), null, null));
+
+        assertEquals("Upload is incomplete, " + (CONTENT.length - 1000) + " bytes are missing", exception.getMessage());
+        verifyNoInteractions(importJobService);
+    }
+
+    @Test
+    void testFinishWithChecksumMismatchKeepsUpload() throws Exception {
+        UploadSession session = uploadSessionService.create("items.txt", null, CONTENT.length);
+        byte[] corrupted = CONTENT.clone();
+        corrupted[10] = 'X';
+        uploadSessionService.writeChunk(session.getId(), 0, new ByteArrayInputStream(corrupted));
+
+        assertThrows(InvalidRequestException.class,
+                () -> uploadSessionService.finish(session.getId(), sha256(CONTENT), null, null));
+        verifyNoInteractions(importJobService);
+
+        // The corrupted chunk is sent again
+        uploadSessionService.writeChunk(session.getId(), 0, chunk(0, 100));
+        uploadSessionService.finish(session.getId(), sha256(CONTENT), null, null);
+        verify(importJobService).submit(session.getSpool(), "items.txt", null, sha256(CONTENT), null, null);
+        Files.delete(session.getSpool());
+    }
+
+    @Test
+    void testChunkBeyondSizeIsRejected() throws Exception {
+        UploadSession session = uploadSessionService.create("items.txt", null, 100);
+
+        assertThrows(InvalidRequestException.class,
+                () -> uploadSessionService.writeChunk(session.getId(), 50, chunk(0, 51)));
+        assertThrows(InvalidRequestException.class,
+                () -> uploadSessionService.writeChunk(session.getId(), 101, chunk(0, 1)));
+        assertTrue(session.getReceivedRanges().isEmpty());
+    }
+
+    @Test
+    void testCreateRejectsTooLargeUpload() {
+        assertThrows(InvalidRequestException.class,
+                () -> uploadSessionService.create("items.txt", null, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testAbortDeletesSpool() throws Exception {
+        UploadSession session = uploadSessionService.create("items.txt", null, CONTENT.length);
+        uploadSessionService.writeChunk(session.getId(), 0, chunk(0, 1000));
+
+        uploadSessionService.abort(session.getId());
+
+        assertFalse(Files.exists(session.getSpool()));
+        assertThrows(NoSuchElementException.class,
+                () -> uploadSessionService.writeChunk(session.getId(), 1000, chunk(1000, 2000)));
+    }
+
+    @Test
+    void testIdleUploadsAreAborted() throws Exception {
+        ReflectionTestUtils.setField(uploadSessionService, "sessionRetention", Duration.ofMillis(1));
+        UploadSession idle = uploadSessionService.create("idle.txt", null, CONTENT.length);
+        Thread.sleep(10);
+
+        uploadSessionService.abortIdleSessions();
+
+        assertTrue(uploadSessionService.findById(idle.getId()).isEmpty());
+        assertFalse(Files.exists(idle.getSpool()));
+    }
+
+    @Test
+    void testSweepIsScheduledEverySweepInterval() {
+        ReflectionTestUtils.setField(uploadSessionService, "sweepInterval", Duration.ofMinutes(5));
+        ScheduledTaskRegistrar registrar = new ScheduledTaskRegistrar();
+
+        uploadSessionService.configureTasks(registrar);
+
+        assertEquals(1, registrar.getFixedDelayTaskList().size());
+        IntervalTask sweep = registrar.getFixedDelayTaskList().get(0);
+        assertEquals(Duration.ofMinutes(5), sweep.getIntervalDuration());
+        assertEquals(Duration.ofMinutes(5), sweep.getInitialDelayDuration());
+    }
+
+    private InputStream chunk(int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, from, Math.min(to, CONTENT.length)));
+    }
+
+    private String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}